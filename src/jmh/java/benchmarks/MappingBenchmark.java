@@ -0,0 +1,119 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import mdoels.request.UserRequest;
+import mdoels.response.UserResponse;
+import services.UserService;
+import utils.APIUtils;
+
+/**
+ * Serialization and extraction hot paths of the mapping layer.
+ * Thread counts are fixed by the concrete subclasses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class MappingBenchmark {
+
+    /**
+     * One user, as sent by createUser and returned by getUserById
+     */
+    @State(Scope.Benchmark)
+    public static class SingleUser {
+
+        UserRequest request;
+        String json;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            request = new UserRequest("Leanne Graham", "Bret", "leanne.graham@example.com",
+                "1-770-736-8031 x56442", "hildegard.org");
+            json = APIUtils.toJson(user(1));
+        }
+    }
+
+    /**
+     * A getAllUsers-style array payload of the given size
+     */
+    @State(Scope.Benchmark)
+    public static class UserArray {
+
+        @Param({"10", "1000", "100000"})
+        int size;
+
+        UserResponse[] users;
+        String json;
+        Response response;
+        UserService userService;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            users = new UserResponse[size];
+            for (int i = 0; i < size; i++) {
+                users[i] = user(i + 1);
+            }
+            json = APIUtils.toJson(users);
+            response = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(json)
+                .build();
+            userService = new UserService(RestAssured.given());
+        }
+    }
+
+    @Benchmark
+    public String toJsonSingleUser(SingleUser state) {
+        return APIUtils.toJson(state.request);
+    }
+
+    @Benchmark
+    public UserResponse fromJsonSingleUser(SingleUser state) {
+        return APIUtils.fromJson(state.json, UserResponse.class);
+    }
+
+    @Benchmark
+    public String toJsonUserArray(UserArray state) {
+        return APIUtils.toJson(state.users);
+    }
+
+    @Benchmark
+    public UserResponse[] fromJsonUserArray(UserArray state) {
+        return APIUtils.fromJson(state.json, UserResponse[].class);
+    }
+
+    @Benchmark
+    public UserResponse[] convertToUserResponseArray(UserArray state) {
+        return state.userService.convertToUserResponseArray(state.response);
+    }
+
+    @Benchmark
+    public String extractValue(UserArray state) {
+        return APIUtils.extractValue(state.response, "[0].email");
+    }
+
+    static UserResponse user(int id) {
+        return new UserResponse(id, "User Name " + id, "user_" + id, "user." + id + "@example.com",
+            "1-770-736-8031 x" + id, "user" + id + ".org");
+    }
+}
@@ -0,0 +1,11 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Mapping benchmarks on four threads sharing the same ObjectMapper,
+ * as under parallel="methods"
+ */
+@Threads(4)
+public class MultiThreadMappingBenchmark extends MappingBenchmark {
+}
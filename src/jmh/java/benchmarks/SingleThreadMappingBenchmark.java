@@ -0,0 +1,10 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Mapping benchmarks on a single thread: per-call cost without contention
+ */
+@Threads(1)
+public class SingleThreadMappingBenchmark extends MappingBenchmark {
+}
@@ -1,17 +1,28 @@
 package base;
 
 import io.restassured.RestAssured;
-import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
-import io.qameta.allure.restassured.AllureRestAssured;
+import com.aventstack.extentreports.Status;
+import io.qameta.allure.Description;
 
+import java.lang.reflect.Method;
+
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 
 import config.ConfigReader;
+import shard.Shard;
+import stub.LocalStubServer;
+import utils.AllureAttachmentFilter;
+import utils.CassetteFilter;
 import utils.ExtentManager;
+import utils.LatencyRegistry;
 import utils.LoggerUtils;
+import utils.PerfGate;
 
 /**
  * Base Test class providing common setup and utilities
@@ -19,8 +30,6 @@ import utils.LoggerUtils;
 public class BaseTest {
 
     protected ConfigReader config;
-    protected RequestSpecification requestSpec;
-    protected ResponseSpecification responseSpec;
 
     @BeforeClass
     public void globalSetup() {
@@ -30,46 +39,70 @@ public class BaseTest {
         // Load configuration
         config = new ConfigReader();
 
+        // Start the in-process stub backend for the local environment
+        if (config.isLocalStub()) {
+            LocalStubServer.start(config.getStubPort(), config.getStubThreads(), config.getStubFaults());
+        }
+
         // Configure RestAssured base settings
         RestAssured.baseURI = config.getBaseUrl();
         RestAssured.basePath = config.getBasePath();
         RestAssured.port = config.getPort();
 
-        // Add Allure filter for reporting
-        RestAssured.filters(new AllureRestAssured());
-
-        // Setup ExtentReports
-        ExtentManager.createTest("API Test Suite", "Testing REST APIs");
+        // Build the shared request/response specs (Allure and latency filters included) once
+        RequestSpecFactory.initialize(config);
 
         LoggerUtils.success("Base configuration completed");
         LoggerUtils.info("Environment: " + config.getEnvironment());
         LoggerUtils.info("Base URL: " + RestAssured.baseURI + ":" + RestAssured.port + RestAssured.basePath);}
     
 
-    @BeforeMethod
-    public void setupRequest() {
-        // Create request specification
-        requestSpec = RestAssured.given()
-            .contentType(ContentType.JSON)
-            .accept(ContentType.JSON)
-            .relaxedHTTPSValidation();
-
-        // Create response specification with timeout
-        responseSpec = RestAssured.expect()
-            .time(org.hamcrest.Matchers.lessThan(config.getRequestTimeout()));
+    /**
+     * One Extent node per test method, on the thread that runs it
+     */
+    @BeforeMethod(alwaysRun = true)
+    public void startTestNode(Method method) {
+        Description description = method.getAnnotation(Description.class);
+        ExtentManager.createTest(method.getName(), description != null ? description.value() : "");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void recordResult(ITestResult result) {
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+                ExtentManager.pass(result.getName() + " passed");
+                break;
+            case ITestResult.FAILURE:
+                ExtentManager.fail(result.getName() + " failed: " + result.getThrowable());
+                break;
+            default:
+                ExtentManager.log(Status.SKIP, result.getName() + " skipped");
+        }
+        ExtentManager.removeTest();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void globalTeardown() {
+        LatencyRegistry.get().export(Shard.outputDir("target/metrics"));
+        ExtentManager.flushReports();
+        AllureAttachmentFilter.flushShared(10000);
+        CassetteFilter.closeShared();
+        LocalStubServer.stop();
+        // Last, so a failing gate can't keep reports from being written
+        PerfGate.check(LatencyRegistry.get().snapshot());
     }
 
     /**
-     * Get base request specification
+     * Get a fresh request specification derived from the shared base spec
      */
     protected RequestSpecification getRequest() {
-        return requestSpec;
+        return RequestSpecFactory.newRequest();
     }
 
     /**
-     * Get response specification
+     * Get the shared response specification
      */
     protected ResponseSpecification getResponse() {
-        return responseSpec;
+        return RequestSpecFactory.response();
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package base;
+
+import static org.hamcrest.Matchers.lessThan;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+
+import config.ConfigReader;
+import utils.AllureAttachmentFilter;
+import utils.CassetteFilter;
+import utils.LatencyRecorderFilter;
+
+/**
+ * Builds the shared request and response specifications once and hands out
+ * cheap per-call copies.
+ *
+ * The base specification carries everything that never changes during a run
+ * (base URI, content type, TLS settings, timeouts, filters). Each caller gets its
+ * own derived RequestSpecification, so path params and bodies set by one thread
+ * can never leak into another thread's request. The specifications are rebuilt when
+ * initialize sees a different base URI, port or base path, e.g. once the local stub has
+ * been restarted on a new ephemeral port.
+ */
+public final class RequestSpecFactory {
+
+    private static volatile RequestSpecification baseSpec;
+    private static volatile ResponseSpecification responseSpec;
+    private static String target;
+
+    private RequestSpecFactory() {
+    }
+
+    /**
+     * Build the shared specifications from config; later calls only rebuild them when the
+     * base URI, port or base path has changed
+     */
+    public static void initialize(ConfigReader config) {
+        String configured = config.getBaseUrl() + ":" + config.getPort() + config.getBasePath();
+        synchronized (RequestSpecFactory.class) {
+            if (baseSpec != null && configured.equals(target)) {
+                return;
+            }
+            RestAssuredConfig restAssuredConfig = RestAssuredConfig.config()
+                .httpClient(HttpClientConfig.httpClientConfig()
+                    .setParam("http.connection.timeout", (int) config.getConnectionTimeout())
+                    .setParam("http.socket.timeout", (int) config.getRequestTimeout()));
+
+            responseSpec = new ResponseSpecBuilder()
+                .expectResponseTime(lessThan(config.getRequestTimeout()))
+                .build();
+
+            RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(config.getBaseUrl())
+                .setPort(config.getPort())
+                .setBasePath(config.getBasePath())
+                .setContentType(ContentType.JSON)
+                .setAccept(ContentType.JSON)
+                .setRelaxedHTTPSValidation()
+                .setConfig(restAssuredConfig)
+                .addFilter(AllureAttachmentFilter.shared())
+                .addFilter(LatencyRecorderFilter.INSTANCE);
+
+            // Record or replay traffic when cassette.mode is set
+            CassetteFilter cassette = CassetteFilter.shared();
+            if (cassette != null) {
+                builder.addFilter(cassette);
+            }
+            baseSpec = builder.build();
+            target = configured;
+        }
+    }
+
+    /**
+     * New request specification derived from the shared base, for one call or one thread
+     */
+    public static RequestSpecification newRequest() {
+        if (baseSpec == null) {
+            initialize(new ConfigReader());
+        }
+        return RestAssured.given().spec(baseSpec);
+    }
+
+    /**
+     * Shared response specification; read-only, safe to use from any thread
+     */
+    public static ResponseSpecification response() {
+        if (responseSpec == null) {
+            initialize(new ConfigReader());
+        }
+        return responseSpec;
+    }
+}
@@ -0,0 +1,276 @@
+package base;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.IDynamicGraph;
+import org.testng.ISuite;
+import org.testng.ITestNGMethod;
+import org.testng.TestNG;
+import org.testng.TestNGException;
+import org.testng.thread.IExecutorFactory;
+import org.testng.thread.ITestNGThreadPoolExecutor;
+import org.testng.thread.IThreadWorkerFactory;
+import org.testng.thread.IWorker;
+
+import config.ConfigSnapshot;
+import utils.LoggerUtils;
+import utils.ThreadLocalClass;
+
+/**
+ * TestNG executor factory that runs parallel test methods on virtual threads when the JVM
+ * has them (Java 21+), and on a fixed pool of platform threads otherwise.
+ *
+ * How many methods run at once is set by a semaphore of test.executor.concurrency permits
+ * (0 means the suite's thread-count) instead of the pool size, so in virtual mode a higher
+ * limit costs no thread stacks. Each task clears ThreadLocalClass when it ends, so a thread
+ * that is thrown away never keeps a pooled DB connection. Suites run on a platform pool of
+ * the size TestNG asks for. With -Dtestng.thread.affinity=true test methods run one at a
+ * time on a single thread, which keeps every method on its upstream method's thread.
+ *
+ * TestNG only asks the factory for executors when started with
+ * -threadpoolfactoryclass base.TestExecutorFactory and
+ * -Dtestng.favor.custom.thread-pool.executor=true. ShardRunner passes both to its forks;
+ * surefire has no way to, so plain mvn test keeps TestNG's default pool.
+ *
+ * IExecutorFactory and ITestNGThreadPoolExecutor are deprecated in TestNG 7.9 with no
+ * replacement; they are still the only way to plug in an executor, so their use is kept
+ * to this class and its warnings suppressed here.
+ */
+@SuppressWarnings("deprecation")
+public class TestExecutorFactory implements IExecutorFactory {
+
+    public static final String ENABLE_PROPERTY = "testng.favor.custom.thread-pool.executor";
+    public static final String THREAD_AFFINITY_PROPERTY = "testng.thread.affinity";
+
+    private final boolean virtual;
+    private final int concurrency;
+
+    /**
+     * Configured from test.executor and test.executor.concurrency
+     */
+    public TestExecutorFactory() {
+        this("VIRTUAL".equals(ConfigSnapshot.get().getExecution().getExecutor()),
+            ConfigSnapshot.get().getExecution().getExecutorConcurrency());
+    }
+
+    /**
+     * @param virtual     prefer virtual threads when the JVM supports them
+     * @param concurrency methods in flight per test; 0 uses the suite's thread-count
+     */
+    public TestExecutorFactory(boolean virtual, int concurrency) {
+        this.virtual = virtual;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Make this factory the one the given TestNG run uses
+     */
+    public void installOn(TestNG testng) {
+        testng.setExecutorFactory(this);
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newSuiteExecutor(String name, IDynamicGraph<ISuite> graph,
+            IThreadWorkerFactory<ISuite> factory, int corePoolSize, int maximumPoolSize, long keepAliveTime,
+            TimeUnit unit, BlockingQueue<Runnable> queue, Comparator<ISuite> comparator) {
+        int size = Math.max(maximumPoolSize, 1);
+        return new GraphExecutor<>(graph, factory, comparator, platformThreads(name, size), size);
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newTestMethodExecutor(String name, IDynamicGraph<ITestNGMethod> graph,
+            IThreadWorkerFactory<ITestNGMethod> factory, int corePoolSize, int maximumPoolSize, long keepAliveTime,
+            TimeUnit unit, BlockingQueue<Runnable> queue, Comparator<ITestNGMethod> comparator) {
+        if (Boolean.parseBoolean(System.getProperty(THREAD_AFFINITY_PROPERTY, "false"))) {
+            // One thread trivially keeps each method on its upstream method's thread
+            LoggerUtils.warn("🧵 " + name + ": thread affinity is enforced, running methods one at a time");
+            return new GraphExecutor<>(graph, factory, comparator, platformThreads(name, 1), 1);
+        }
+        int limit = concurrency > 0 ? concurrency : Math.max(maximumPoolSize, 1);
+        ExecutorService threads = virtual ? virtualThreads(name) : null;
+        if (threads == null) {
+            if (virtual) {
+                LoggerUtils.warn("Virtual threads are not available on Java " + System.getProperty("java.version")
+                    + "; running " + name + " on platform threads");
+            }
+            threads = platformThreads(name, limit);
+        }
+        LoggerUtils.info("🧵 " + name + ": up to " + limit + " methods at once on "
+            + (threads instanceof PlatformPool ? "platform" : "virtual") + " threads");
+        return new GraphExecutor<>(graph, factory, comparator, threads, limit);
+    }
+
+    /**
+     * Whether this JVM can start virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        ExecutorService threads = virtualThreads("probe");
+        if (threads == null) {
+            return false;
+        }
+        threads.shutdown();
+        return true;
+    }
+
+    /**
+     * Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory()),
+     * or null before Java 21 (the API is missing, or preview-only and disabled)
+     */
+    private static ExecutorService virtualThreads(String name) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService platformThreads(String name, int size) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new PlatformPool(size, task -> new Thread(task, name + "-" + threadNumber.incrementAndGet()));
+    }
+
+    private static final class PlatformPool extends ThreadPoolExecutor {
+        PlatformPool(int size, ThreadFactory threadFactory) {
+            super(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        }
+    }
+
+    /**
+     * Runs the free nodes of a method graph, starting newly freed nodes as each one finishes,
+     * and shuts down once every node has finished (same contract as TestNG's
+     * GraphThreadPoolExecutor). Every node gets a thread right away; the semaphore decides
+     * which of them run.
+     */
+    static final class GraphExecutor<T> extends AbstractExecutorService implements ITestNGThreadPoolExecutor {
+
+        private final IDynamicGraph<T> graph;
+        private final IThreadWorkerFactory<T> workerFactory;
+        private final Comparator<T> comparator;
+        private final ExecutorService threads;
+        private final Semaphore permits;
+
+        GraphExecutor(IDynamicGraph<T> graph, IThreadWorkerFactory<T> workerFactory, Comparator<T> comparator,
+                ExecutorService threads, int concurrency) {
+            if (graph.getFreeNodes().isEmpty()) {
+                throw new TestNGException("The graph of methods contains a cycle:" + graph);
+            }
+            this.graph = graph;
+            this.workerFactory = workerFactory;
+            this.comparator = comparator;
+            this.threads = threads;
+            // Fair, so methods start in the order they were released (priority order)
+            this.permits = new Semaphore(concurrency, true);
+        }
+
+        @Override
+        public void run() {
+            synchronized (graph) {
+                runNodes(freeNodes());
+            }
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            threads.execute(() -> runLimited(task));
+        }
+
+        private List<T> freeNodes() {
+            List<T> nodes = graph.getFreeNodes();
+            if (comparator != null) {
+                nodes.sort(comparator);
+            }
+            return nodes;
+        }
+
+        private void runNodes(List<T> nodes) {
+            for (IWorker<T> worker : workerFactory.createWorkers(nodes)) {
+                setStatus(worker, IDynamicGraph.Status.RUNNING);
+                try {
+                    threads.execute(() -> {
+                        try {
+                            runLimited(worker);
+                        } finally {
+                            finished(worker);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    LoggerUtils.error("Unable to start " + worker + ": executor already shut down");
+                }
+            }
+        }
+
+        private void runLimited(Runnable task) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                permits.release();
+                ThreadLocalClass.clear();
+            }
+        }
+
+        private void finished(IWorker<T> worker) {
+            synchronized (graph) {
+                setStatus(worker, IDynamicGraph.Status.FINISHED);
+                if (graph.getNodeCount() == graph.getNodeCountWithStatus(IDynamicGraph.Status.FINISHED)) {
+                    threads.shutdown();
+                } else {
+                    runNodes(freeNodes());
+                }
+            }
+        }
+
+        private void setStatus(IWorker<T> worker, IDynamicGraph.Status status) {
+            for (T task : worker.getTasks()) {
+                graph.setStatus(task, status);
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            threads.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return threads.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return threads.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return threads.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return threads.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -1,72 +1,94 @@
 package config;
 
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.util.Properties;
+import stub.FaultProfile;
+import stub.LocalStubServer;
 
 /**
- * Configuration Reader for loading environment-specific properties
+ * Configuration Reader for loading environment-specific properties.
+ * Instances are cheap views over the process-wide ConfigSnapshot, with one flat getter
+ * per key over its per-feature groups.
  */
 public class ConfigReader {
 
-    private Properties properties;
-    private String environment;
+    private final ConfigSnapshot snapshot;
 
     public ConfigReader() {
-        loadConfiguration();
+        snapshot = ConfigSnapshot.get();
     }
 
-    private void loadConfiguration() {
-        try {
-            // Get environment from system property or default to 'dev'
-            environment = System.getProperty("environment", "dev");
-            System.out.println("🔧 Loading configuration for environment: " + environment);
-
-            // Load properties file
-            properties = new Properties();
-            String configFile = "src/test/resources/config/" + environment + ".properties";
-
-            try (FileInputStream fis = new FileInputStream(configFile)) {
-                properties.load(fis);
-                System.out.println("✅ Configuration loaded successfully");
-            }
-
-        } catch (IOException e) {
-            System.err.println("❌ Failed to load configuration: " + e.getMessage());
-            // Load from classpath as fallback
-            loadFromClasspath();
+    // Configuration getters
+    public String getEnvironment() { return snapshot.getEnvironment(); }
+    public String getBaseUrl() {
+        if (isLocalStub() && LocalStubServer.isRunning()) {
+            return LocalStubServer.getInstance().getBaseUrl();
         }
-         
+        return snapshot.getBaseUrl();
     }
-
-    private void loadFromClasspath() {
-        try {
-            String configFile = "/config/" + environment + ".properties";
-            properties.load(getClass().getResourceAsStream(configFile));
-            System.out.println("✅ Configuration loaded from classpath");
-        } catch (Exception e) {
-            throw new RuntimeException("Unable to load configuration", e);
+    public String getBasePath() { return snapshot.getBasePath(); }
+    public int getPort() {
+        if (isLocalStub() && LocalStubServer.isRunning()) {
+            return LocalStubServer.getInstance().getPort();
         }
+        return snapshot.getPort();
     }
-
-    // Configuration getters
-    public String getEnvironment() { return environment; }
-    public String getBaseUrl() { return properties.getProperty("base.url"); }
-    public String getBasePath() { return properties.getProperty("base.path", ""); }
-    public int getPort() { return Integer.parseInt(properties.getProperty("port", "443")); }
-    public long getRequestTimeout() { return Long.parseLong(properties.getProperty("request.timeout", "5000")); }
-    public long getConnectionTimeout() { return Long.parseLong(properties.getProperty("connection.timeout", "10000")); }
-    public String getReportsName() { return properties.getProperty("reports.name", "API Test Report"); }
-    public int getThreadCount() { return Integer.parseInt(properties.getProperty("thread.count", "2")); }
-    public String getDbUrl() { return properties.getProperty("db.url", "jdbc:mysql://localhost:3306/testdb"); }
-    public String getDbUsername() { return properties.getProperty("db.username", "root"); }
-    public String getDbPassword() { return properties.getProperty("db.password", "password"); }
+    public long getRequestTimeout() { return snapshot.getRequestTimeout(); }
+    public long getConnectionTimeout() { return snapshot.getConnectionTimeout(); }
+    public String getReportsName() { return snapshot.getReporting().getName(); }
+    public int getThreadCount() { return snapshot.getExecution().getThreadCount(); }
+    public String getTestExecutor() { return snapshot.getExecution().getExecutor(); }
+    public int getTestExecutorConcurrency() { return snapshot.getExecution().getExecutorConcurrency(); }
+    public String getDbUrl() { return snapshot.getDatabase().getUrl(); }
+    public String getDbUsername() { return snapshot.getDatabase().getUsername(); }
+    public String getDbPassword() { return snapshot.getDatabase().getPassword(); }
+    public int getDbPoolSize() { return snapshot.getDatabase().getPoolSize(); }
+    public long getDbPoolTimeout() { return snapshot.getDatabase().getPoolTimeout(); }
+    public int getDbStatementCacheSize() { return snapshot.getDatabase().getStatementCacheSize(); }
+    public int getDbFetchSize() { return snapshot.getDatabase().getFetchSize(); }
+    public int getDbBatchSize() { return snapshot.getDatabase().getBatchSize(); }
+    public boolean isLocalStub() { return snapshot.getStub().isEnabled(); }
+    public int getStubPort() { return snapshot.getStub().getPort(); }
+    public int getStubThreads() { return snapshot.getStub().getThreads(); }
+    public FaultProfile getStubFaults() { return snapshot.getStub().getFaults(); }
+    public double getLoadRate() { return snapshot.getLoad().getRate(); }
+    public long getLoadRampUpSeconds() { return snapshot.getLoad().getRampUpSeconds(); }
+    public long getLoadSteadySeconds() { return snapshot.getLoad().getSteadySeconds(); }
+    public int getLoadMaxInFlight() { return snapshot.getLoad().getMaxInFlight(); }
+    public String getLogLevel() { return snapshot.getLogging().getLevel(); }
+    public int getLogQueueCapacity() { return snapshot.getLogging().getQueueCapacity(); }
+    public String getLogOverflow() { return snapshot.getLogging().getOverflow(); }
+    public int getLogBodyMaxChars() { return snapshot.getLogging().getBodyMaxChars(); }
+    public double getLogBodySampleRate() { return snapshot.getLogging().getBodySampleRate(); }
+    public boolean isReportHtmlEnabled() { return snapshot.getReporting().isHtmlEnabled(); }
+    public long getTestDataSeed() { return snapshot.getTestData().getSeed(); }
+    public int getTestDataUsers() { return snapshot.getTestData().getUsers(); }
+    public boolean isTestDataSpillEnabled() { return snapshot.getTestData().isSpillEnabled(); }
+    public boolean isCacheEnabled() { return snapshot.getCache().isEnabled(); }
+    public int getCacheMaxEntries() { return snapshot.getCache().getMaxEntries(); }
+    public long getCacheTtlMillis() { return snapshot.getCache().getTtlMillis(); }
+    public int getBulkMaxInFlight() { return snapshot.getBulk().getMaxInFlight(); }
+    public long getBulkLatencyThresholdMillis() { return snapshot.getBulk().getLatencyThresholdMillis(); }
+    public double getHedgePercentile() { return snapshot.getResilience().getHedgePercentile(); }
+    public int getHedgeMinSamples() { return snapshot.getResilience().getHedgeMinSamples(); }
+    public long getHedgeMinDelayMillis() { return snapshot.getResilience().getHedgeMinDelayMillis(); }
+    public int getRetryMaxAttempts() { return snapshot.getResilience().getRetryMaxAttempts(); }
+    public long getRetryBackoffMillis() { return snapshot.getResilience().getRetryBackoffMillis(); }
+    public double getRetryBudgetRatio() { return snapshot.getResilience().getRetryBudgetRatio(); }
+    public int getRetryBudgetMaxTokens() { return snapshot.getResilience().getRetryBudgetMaxTokens(); }
+    public String getCassetteMode() { return snapshot.getCassette().getMode(); }
+    public String getCassetteFile() { return snapshot.getCassette().getFile(); }
+    public int getAllureAttachmentMaxBytes() { return snapshot.getReporting().getAttachmentMaxBytes(); }
+    public double getAllureAttachmentSampleRate() { return snapshot.getReporting().getAttachmentSampleRate(); }
+    public int getAllureAttachmentQueueCapacity() { return snapshot.getReporting().getAttachmentQueueCapacity(); }
+    public String getPerfGate() { return snapshot.getPerf().getGate(); }
+    public String getPerfHistoryFile() { return snapshot.getPerf().getHistoryFile(); }
+    public int getPerfBaselineRuns() { return snapshot.getPerf().getBaselineRuns(); }
+    public double getPerfRegressionThresholdPercent() { return snapshot.getPerf().getRegressionThresholdPercent(); }
 
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return snapshot.getProperty(key);
     }
 
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return snapshot.getProperty(key, defaultValue);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,579 @@
+package config;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import stub.FaultProfile;
+
+/**
+ * Immutable, typed view of the active environment's configuration.
+ *
+ * Loaded and validated once per process. Each key resolves, in order, from a system
+ * property ({@code -Ddb.pool.size=20}), an environment variable with the API_ prefix
+ * ({@code API_DB_POOL_SIZE=20}) and finally {@code <environment>.properties}. The prefix keeps
+ * unrelated variables such as the PORT that containers set from overriding keys; likewise
+ * only system properties named in the file or under one of this config's key prefixes are
+ * read, so JVM and library properties never show up as config. Typed values are parsed at
+ * load time into final fields, so getters are plain field reads that never allocate.
+ *
+ * Connection settings live here; everything else is grouped per feature (getDatabase(),
+ * getStub(), getPerf(), ...), one small immutable class per key prefix.
+ */
+public final class ConfigSnapshot {
+
+    /** Environment variables starting with this map to keys: API_DB_POOL_SIZE -> db.pool.size */
+    public static final String ENV_PREFIX = "API_";
+
+    /** System properties read as config besides the keys in the file */
+    private static final String[] SYSTEM_PROPERTY_PREFIXES = {
+        "base.", "port", "request.", "connection.", "reports.", "report.", "thread.", "test.executor", "db.",
+        "stub.", "load.", "log.", "testdata.", "cache.", "bulk.", "hedge.", "retry.", "cassette.",
+        "allure.attachment.", "perf."
+    };
+
+    private static volatile ConfigSnapshot instance;
+
+    private final Map<String, String> values;
+
+    private final String environment;
+    private final String baseUrl;
+    private final String basePath;
+    private final int port;
+    private final long requestTimeout;
+    private final long connectionTimeout;
+    private final Execution execution;
+    private final Database database;
+    private final Stub stub;
+    private final Load load;
+    private final Logging logging;
+    private final Reporting reporting;
+    private final TestData testData;
+    private final Cache cache;
+    private final Bulk bulk;
+    private final Resilience resilience;
+    private final Cassette cassette;
+    private final Perf perf;
+
+    private ConfigSnapshot(String environment, Map<String, String> values) {
+        this.environment = environment;
+        this.values = values;
+        Values config = new Values(values);
+
+        baseUrl = values.get("base.url");
+        if (baseUrl == null || baseUrl.isEmpty()) {
+            config.errors.add("base.url is required");
+        } else {
+            try {
+                URI.create(baseUrl);
+            } catch (IllegalArgumentException e) {
+                config.errors.add("base.url is not a valid URI: " + baseUrl);
+            }
+        }
+        basePath = config.string("base.path", "");
+        port = config.intValue("port", 443, 0, 65535);
+        requestTimeout = config.longValue("request.timeout", 5000, 1);
+        connectionTimeout = config.longValue("connection.timeout", 10000, 1);
+        execution = new Execution(config);
+        database = new Database(config);
+        stub = new Stub(config);
+        load = new Load(config);
+        logging = new Logging(config);
+        reporting = new Reporting(config);
+        testData = new TestData(config);
+        cache = new Cache(config);
+        bulk = new Bulk(config);
+        resilience = new Resilience(config);
+        cassette = new Cassette(config, environment);
+        perf = new Perf(config);
+
+        if (!config.errors.isEmpty()) {
+            throw new IllegalStateException("Invalid configuration for environment '" + environment + "': "
+                + String.join("; ", config.errors));
+        }
+    }
+
+    /**
+     * Get the process-wide snapshot, loading it on first use
+     */
+    public static ConfigSnapshot get() {
+        ConfigSnapshot snapshot = instance;
+        if (snapshot == null) {
+            synchronized (ConfigSnapshot.class) {
+                snapshot = instance;
+                if (snapshot == null) {
+                    snapshot = load();
+                    instance = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private static ConfigSnapshot load() {
+        Map<String, String> environmentVariables = System.getenv();
+        String environment = System.getProperty("environment",
+            environmentVariables.getOrDefault("ENVIRONMENT", "dev"));
+        System.out.println("🔧 Loading configuration for environment: " + environment);
+        return of(environment, loadFile(environment), environmentVariables, System.getProperties());
+    }
+
+    /**
+     * Snapshot from explicit sources, with the same precedence and validation as get();
+     * throws IllegalStateException listing every invalid key
+     */
+    public static ConfigSnapshot of(String environment, Properties file, Map<String, String> environmentVariables,
+            Properties systemProperties) {
+        // Lowest precedence first: file, then environment variables, then system properties
+        Map<String, String> values = new HashMap<>();
+        for (String key : file.stringPropertyNames()) {
+            values.put(key, file.getProperty(key));
+        }
+        for (Map.Entry<String, String> variable : environmentVariables.entrySet()) {
+            String name = variable.getKey();
+            if (name.startsWith(ENV_PREFIX) && name.length() > ENV_PREFIX.length()) {
+                values.put(name.substring(ENV_PREFIX.length()).toLowerCase(Locale.ROOT).replace('_', '.'),
+                    variable.getValue());
+            }
+        }
+        for (String key : systemProperties.stringPropertyNames()) {
+            if (file.containsKey(key) || isConfigKey(key)) {
+                values.put(key, systemProperties.getProperty(key));
+            }
+        }
+        return new ConfigSnapshot(environment, Collections.unmodifiableMap(values));
+    }
+
+    private static boolean isConfigKey(String key) {
+        for (String prefix : SYSTEM_PROPERTY_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Properties loadFile(String environment) {
+        Properties properties = new Properties();
+        String configFile = "src/test/resources/config/" + environment + ".properties";
+        try (FileInputStream fis = new FileInputStream(configFile)) {
+            properties.load(fis);
+            System.out.println("✅ Configuration loaded successfully");
+            return properties;
+        } catch (IOException e) {
+            System.err.println("❌ Failed to load configuration: " + e.getMessage());
+        }
+
+        // Load from classpath as fallback
+        try (InputStream in = ConfigSnapshot.class.getResourceAsStream("/config/" + environment + ".properties")) {
+            if (in == null) {
+                throw new IOException("No configuration found for environment: " + environment);
+            }
+            properties.load(in);
+            System.out.println("✅ Configuration loaded from classpath");
+            return properties;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to load configuration", e);
+        }
+    }
+
+    public String getEnvironment() { return environment; }
+    public String getBaseUrl() { return baseUrl; }
+    public String getBasePath() { return basePath; }
+    public int getPort() { return port; }
+    public long getRequestTimeout() { return requestTimeout; }
+    public long getConnectionTimeout() { return connectionTimeout; }
+    public Execution getExecution() { return execution; }
+    public Database getDatabase() { return database; }
+    public Stub getStub() { return stub; }
+    public Load getLoad() { return load; }
+    public Logging getLogging() { return logging; }
+    public Reporting getReporting() { return reporting; }
+    public TestData getTestData() { return testData; }
+    public Cache getCache() { return cache; }
+    public Bulk getBulk() { return bulk; }
+    public Resilience getResilience() { return resilience; }
+    public Cassette getCassette() { return cassette; }
+    public Perf getPerf() { return perf; }
+
+    public String getProperty(String key) {
+        return values.get(key);
+    }
+
+    public String getProperty(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * thread.count and test.executor.*
+     */
+    public static final class Execution {
+        private final int threadCount;
+        private final String executor;
+        private final int executorConcurrency;
+
+        Execution(Values config) {
+            threadCount = config.intValue("thread.count", 2, 1, Integer.MAX_VALUE);
+            executor = config.oneOf("test.executor", "VIRTUAL", "VIRTUAL", "PLATFORM");
+            executorConcurrency = config.intValue("test.executor.concurrency", 0, 0, Integer.MAX_VALUE);
+        }
+
+        public int getThreadCount() { return threadCount; }
+        public String getExecutor() { return executor; }
+        public int getExecutorConcurrency() { return executorConcurrency; }
+    }
+
+    /**
+     * db.*
+     */
+    public static final class Database {
+        private final String url;
+        private final String username;
+        private final String password;
+        private final int poolSize;
+        private final long poolTimeout;
+        private final int statementCacheSize;
+        private final int fetchSize;
+        private final int batchSize;
+
+        Database(Values config) {
+            url = config.string("db.url", "jdbc:mysql://localhost:3306/testdb");
+            username = config.string("db.username", "root");
+            password = config.string("db.password", "password");
+            poolSize = config.intValue("db.pool.size", 10, 1, Integer.MAX_VALUE);
+            poolTimeout = config.longValue("db.pool.timeout", 30000, 0);
+            statementCacheSize = config.intValue("db.statement.cache.size", 50, 0, Integer.MAX_VALUE);
+            fetchSize = config.intValue("db.fetch.size", 500, 0, Integer.MAX_VALUE);
+            batchSize = config.intValue("db.batch.size", 500, 1, Integer.MAX_VALUE);
+        }
+
+        public String getUrl() { return url; }
+        public String getUsername() { return username; }
+        public String getPassword() { return password; }
+        public int getPoolSize() { return poolSize; }
+        public long getPoolTimeout() { return poolTimeout; }
+        public int getStatementCacheSize() { return statementCacheSize; }
+        public int getFetchSize() { return fetchSize; }
+        public int getBatchSize() { return batchSize; }
+    }
+
+    /**
+     * stub.*, including the stub.fault.* profile
+     */
+    public static final class Stub {
+        private final boolean enabled;
+        private final int port;
+        private final int threads;
+        private final FaultProfile faults;
+
+        Stub(Values config) {
+            enabled = config.bool("stub.enabled", false);
+            port = config.intValue("stub.port", 0, 0, 65535);
+            threads = config.intValue("stub.threads", 64, 1, Integer.MAX_VALUE);
+            faults = FaultProfile.parse(config.values, config.errors);
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public int getPort() { return port; }
+        public int getThreads() { return threads; }
+        public FaultProfile getFaults() { return faults; }
+    }
+
+    /**
+     * load.*
+     */
+    public static final class Load {
+        private final double rate;
+        private final long rampUpSeconds;
+        private final long steadySeconds;
+        private final int maxInFlight;
+
+        Load(Values config) {
+            rate = config.doubleValue("load.rate", 10, Double.MIN_VALUE, Double.MAX_VALUE);
+            rampUpSeconds = config.longValue("load.rampup.seconds", 10, 0);
+            steadySeconds = config.longValue("load.steady.seconds", 30, 0);
+            maxInFlight = config.intValue("load.max.inflight", 1000, 1, Integer.MAX_VALUE);
+        }
+
+        public double getRate() { return rate; }
+        public long getRampUpSeconds() { return rampUpSeconds; }
+        public long getSteadySeconds() { return steadySeconds; }
+        public int getMaxInFlight() { return maxInFlight; }
+    }
+
+    /**
+     * log.*
+     */
+    public static final class Logging {
+        private final String level;
+        private final int queueCapacity;
+        private final String overflow;
+        private final int bodyMaxChars;
+        private final double bodySampleRate;
+
+        Logging(Values config) {
+            level = config.oneOf("log.level", "INFO", "DEBUG", "INFO", "WARN", "ERROR", "OFF");
+            queueCapacity = config.intValue("log.queue.capacity", 8192, 1, Integer.MAX_VALUE);
+            overflow = config.oneOf("log.overflow", "DROP", "DROP", "BLOCK");
+            bodyMaxChars = config.intValue("log.body.max.chars", 2000, 0, Integer.MAX_VALUE);
+            bodySampleRate = config.doubleValue("log.body.sample.rate", 1.0, 0.0, 1.0);
+        }
+
+        public String getLevel() { return level; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public String getOverflow() { return overflow; }
+        public int getBodyMaxChars() { return bodyMaxChars; }
+        public double getBodySampleRate() { return bodySampleRate; }
+    }
+
+    /**
+     * reports.name, report.html.enabled and allure.attachment.*
+     */
+    public static final class Reporting {
+        private final String name;
+        private final boolean htmlEnabled;
+        private final int attachmentMaxBytes;
+        private final double attachmentSampleRate;
+        private final int attachmentQueueCapacity;
+
+        Reporting(Values config) {
+            name = config.string("reports.name", "API Test Report");
+            htmlEnabled = config.bool("report.html.enabled", true);
+            attachmentMaxBytes = config.intValue("allure.attachment.max.bytes", 16384, 0, Integer.MAX_VALUE);
+            attachmentSampleRate = config.doubleValue("allure.attachment.sample.rate", 0.1, 0.0, 1.0);
+            attachmentQueueCapacity = config.intValue("allure.attachment.queue.capacity", 1024, 1, Integer.MAX_VALUE);
+        }
+
+        public String getName() { return name; }
+        public boolean isHtmlEnabled() { return htmlEnabled; }
+        public int getAttachmentMaxBytes() { return attachmentMaxBytes; }
+        public double getAttachmentSampleRate() { return attachmentSampleRate; }
+        public int getAttachmentQueueCapacity() { return attachmentQueueCapacity; }
+    }
+
+    /**
+     * testdata.*
+     */
+    public static final class TestData {
+        private final long seed;
+        private final int users;
+        private final boolean spillEnabled;
+
+        TestData(Values config) {
+            seed = config.longValue("testdata.seed", 42, Long.MIN_VALUE);
+            users = config.intValue("testdata.users", 3, 1, Integer.MAX_VALUE);
+            spillEnabled = config.bool("testdata.spill.enabled", false);
+        }
+
+        public long getSeed() { return seed; }
+        public int getUsers() { return users; }
+        public boolean isSpillEnabled() { return spillEnabled; }
+    }
+
+    /**
+     * cache.*
+     */
+    public static final class Cache {
+        private final boolean enabled;
+        private final int maxEntries;
+        private final long ttlMillis;
+
+        Cache(Values config) {
+            enabled = config.bool("cache.enabled", false);
+            maxEntries = config.intValue("cache.max.entries", 1000, 1, Integer.MAX_VALUE);
+            ttlMillis = config.longValue("cache.ttl.millis", 30000, 0);
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public int getMaxEntries() { return maxEntries; }
+        public long getTtlMillis() { return ttlMillis; }
+    }
+
+    /**
+     * bulk.*
+     */
+    public static final class Bulk {
+        private final int maxInFlight;
+        private final long latencyThresholdMillis;
+
+        Bulk(Values config) {
+            maxInFlight = config.intValue("bulk.max.in.flight", 64, 1, Integer.MAX_VALUE);
+            latencyThresholdMillis = config.longValue("bulk.latency.threshold.millis", 2000, 1);
+        }
+
+        public int getMaxInFlight() { return maxInFlight; }
+        public long getLatencyThresholdMillis() { return latencyThresholdMillis; }
+    }
+
+    /**
+     * hedge.* and retry.*
+     */
+    public static final class Resilience {
+        private final double hedgePercentile;
+        private final int hedgeMinSamples;
+        private final long hedgeMinDelayMillis;
+        private final int retryMaxAttempts;
+        private final long retryBackoffMillis;
+        private final double retryBudgetRatio;
+        private final int retryBudgetMaxTokens;
+
+        Resilience(Values config) {
+            hedgePercentile = config.doubleValue("hedge.percentile", 95, 0, 100);
+            hedgeMinSamples = config.intValue("hedge.min.samples", 20, 1, Integer.MAX_VALUE);
+            hedgeMinDelayMillis = config.longValue("hedge.min.delay.millis", 10, 0);
+            retryMaxAttempts = config.intValue("retry.max.attempts", 3, 1, Integer.MAX_VALUE);
+            retryBackoffMillis = config.longValue("retry.backoff.millis", 50, 0);
+            retryBudgetRatio = config.doubleValue("retry.budget.ratio", 0.1, 0, Double.MAX_VALUE);
+            retryBudgetMaxTokens = config.intValue("retry.budget.max.tokens", 10, 1, Integer.MAX_VALUE);
+        }
+
+        public double getHedgePercentile() { return hedgePercentile; }
+        public int getHedgeMinSamples() { return hedgeMinSamples; }
+        public long getHedgeMinDelayMillis() { return hedgeMinDelayMillis; }
+        public int getRetryMaxAttempts() { return retryMaxAttempts; }
+        public long getRetryBackoffMillis() { return retryBackoffMillis; }
+        public double getRetryBudgetRatio() { return retryBudgetRatio; }
+        public int getRetryBudgetMaxTokens() { return retryBudgetMaxTokens; }
+    }
+
+    /**
+     * cassette.*
+     */
+    public static final class Cassette {
+        private final String mode;
+        private final String file;
+
+        Cassette(Values config, String environment) {
+            mode = config.oneOf("cassette.mode", "OFF", "OFF", "RECORD", "REPLAY");
+            file = config.string("cassette.file", "target/cassettes/" + environment + ".cassette");
+        }
+
+        public String getMode() { return mode; }
+        public String getFile() { return file; }
+    }
+
+    /**
+     * perf.*
+     */
+    public static final class Perf {
+        private final String gate;
+        private final String historyFile;
+        private final int baselineRuns;
+        private final double regressionThresholdPercent;
+
+        Perf(Values config) {
+            gate = config.oneOf("perf.gate", "WARN", "OFF", "WARN", "FAIL");
+            historyFile = config.string("perf.history.file", "perf-history/results.bin");
+            baselineRuns = config.intValue("perf.baseline.runs", 5, 1, Integer.MAX_VALUE);
+            regressionThresholdPercent = config.doubleValue("perf.regression.threshold.percent", 20, 0,
+                Double.MAX_VALUE);
+        }
+
+        public String getGate() { return gate; }
+        public String getHistoryFile() { return historyFile; }
+        public int getBaselineRuns() { return baselineRuns; }
+        public double getRegressionThresholdPercent() { return regressionThresholdPercent; }
+    }
+
+    /**
+     * Raw values plus the errors found while parsing them
+     */
+    static final class Values {
+        private final Map<String, String> values;
+        private final List<String> errors = new ArrayList<>();
+
+        Values(Map<String, String> values) {
+            this.values = values;
+        }
+
+        String string(String key, String defaultValue) {
+            return values.getOrDefault(key, defaultValue);
+        }
+
+        boolean bool(String key, boolean defaultValue) {
+            String raw = values.get(key);
+            if (raw == null || raw.trim().isEmpty()) {
+                return defaultValue;
+            }
+            String value = raw.trim().toLowerCase(Locale.ROOT);
+            if ("true".equals(value)) {
+                return true;
+            }
+            if (!"false".equals(value)) {
+                errors.add(key + " must be true or false: " + raw);
+                return defaultValue;
+            }
+            return false;
+        }
+
+        int intValue(String key, int defaultValue, int min, int max) {
+            String raw = values.get(key);
+            if (raw == null || raw.trim().isEmpty()) {
+                return defaultValue;
+            }
+            try {
+                int value = Integer.parseInt(raw.trim());
+                if (value < min || value > max) {
+                    errors.add(key + " must be between " + min + " and " + max + ": " + raw);
+                }
+                return value;
+            } catch (NumberFormatException e) {
+                errors.add(key + " is not an integer: " + raw);
+                return defaultValue;
+            }
+        }
+
+        long longValue(String key, long defaultValue, long min) {
+            String raw = values.get(key);
+            if (raw == null || raw.trim().isEmpty()) {
+                return defaultValue;
+            }
+            try {
+                long value = Long.parseLong(raw.trim());
+                if (value < min) {
+                    errors.add(key + " must be at least " + min + ": " + raw);
+                }
+                return value;
+            } catch (NumberFormatException e) {
+                errors.add(key + " is not a number: " + raw);
+                return defaultValue;
+            }
+        }
+
+        double doubleValue(String key, double defaultValue, double min, double max) {
+            String raw = values.get(key);
+            if (raw == null || raw.trim().isEmpty()) {
+                return defaultValue;
+            }
+            try {
+                double value = Double.parseDouble(raw.trim());
+                if (!(value >= min && value <= max)) {
+                    errors.add(key + " is out of range: " + raw);
+                }
+                return value;
+            } catch (NumberFormatException e) {
+                errors.add(key + " is not a number: " + raw);
+                return defaultValue;
+            }
+        }
+
+        String oneOf(String key, String defaultValue, String... allowed) {
+            String value = string(key, defaultValue).trim().toUpperCase(Locale.ROOT);
+            for (String candidate : allowed) {
+                if (candidate.equals(value)) {
+                    return value;
+                }
+            }
+            errors.add(key + " must be one of " + String.join(", ", allowed) + ": " + value);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import config.ConfigReader;
+
+/**
+ * Open-model load profile: a target arrival rate reached by a linear ramp-up,
+ * then held for a steady-state window, with a weighted mix of user operations
+ */
+public class LoadProfile {
+
+    private final double targetRate;
+    private final Duration rampUp;
+    private final Duration steadyState;
+    private final int maxInFlight;
+    private final UserOperation[] operations;
+    private final int[] cumulativeWeights;
+
+    private LoadProfile(Builder builder) {
+        this.targetRate = builder.targetRate;
+        this.rampUp = builder.rampUp;
+        this.steadyState = builder.steadyState;
+        this.maxInFlight = builder.maxInFlight;
+        this.operations = builder.weights.keySet().toArray(new UserOperation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += builder.weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Build a profile from the load.* properties of the active environment
+     */
+    public static LoadProfile fromConfig(ConfigReader config) {
+        return builder()
+            .targetRate(config.getLoadRate())
+            .rampUp(Duration.ofSeconds(config.getLoadRampUpSeconds()))
+            .steadyState(Duration.ofSeconds(config.getLoadSteadySeconds()))
+            .maxInFlight(config.getLoadMaxInFlight())
+            .build();
+    }
+
+    public double getTargetRate() { return targetRate; }
+    public Duration getRampUp() { return rampUp; }
+    public Duration getSteadyState() { return steadyState; }
+    public int getMaxInFlight() { return maxInFlight; }
+
+    /**
+     * Arrival rate in requests/sec at the given offset from the start of the run
+     */
+    double rateAt(long elapsedNanos) {
+        long rampNanos = rampUp.toNanos();
+        if (elapsedNanos >= rampNanos) {
+            return targetRate;
+        }
+        // Never drop below 1 req/s so the first arrival is not scheduled at infinity
+        return Math.max(1.0, targetRate * elapsedNanos / rampNanos);
+    }
+
+    /**
+     * Pick an operation according to the configured weights
+     */
+    UserOperation pick(int roll) {
+        int bounded = roll % cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (bounded < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public static class Builder {
+
+        private double targetRate = 10;
+        private Duration rampUp = Duration.ZERO;
+        private Duration steadyState = Duration.ofSeconds(30);
+        private int maxInFlight = 1000;
+        private final Map<UserOperation, Integer> weights = new EnumMap<>(UserOperation.class);
+
+        public Builder targetRate(double requestsPerSecond) {
+            this.targetRate = requestsPerSecond;
+            return this;
+        }
+
+        public Builder rampUp(Duration rampUp) {
+            this.rampUp = rampUp;
+            return this;
+        }
+
+        public Builder steadyState(Duration steadyState) {
+            this.steadyState = steadyState;
+            return this;
+        }
+
+        /**
+         * Upper bound on outstanding requests; arrivals beyond it are reported as rejected
+         * instead of delaying the schedule
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder weight(UserOperation operation, int weight) {
+            if (weight > 0) {
+                weights.put(operation, weight);
+            } else {
+                weights.remove(operation);
+            }
+            return this;
+        }
+
+        public LoadProfile build() {
+            if (targetRate <= 0) {
+                throw new IllegalArgumentException("Target rate must be positive: " + targetRate);
+            }
+            if (maxInFlight <= 0) {
+                throw new IllegalArgumentException("Max in-flight must be positive: " + maxInFlight);
+            }
+            if (weights.isEmpty()) {
+                // Default read-heavy mix
+                weights.put(UserOperation.GET_ALL_USERS, 2);
+                weights.put(UserOperation.GET_USER_BY_ID, 5);
+                weights.put(UserOperation.CREATE_USER, 1);
+                weights.put(UserOperation.UPDATE_USER, 1);
+                weights.put(UserOperation.DELETE_USER, 1);
+            }
+            return new LoadProfile(this);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package load;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per-operation throughput, error rate and latency percentiles of a load run.
+ * Latencies are measured from each request's intended start time, so a stalled
+ * backend shows up in the tail instead of silently lowering the request rate.
+ * Arrivals rejected at the in-flight limit are counted apart from sent requests and
+ * left out of throughput. Their wait for a free slot is still part of the percentiles.
+ */
+public class LoadReport {
+
+    private final Map<UserOperation, OperationStats> stats;
+    private final double steadyStateSeconds;
+
+    LoadReport(Map<UserOperation, OperationStats> stats, double steadyStateSeconds) {
+        this.stats = Collections.unmodifiableMap(stats);
+        this.steadyStateSeconds = steadyStateSeconds;
+    }
+
+    public Map<UserOperation, OperationStats> getStats() {
+        return stats;
+    }
+
+    public OperationStats get(UserOperation operation) {
+        return stats.get(operation);
+    }
+
+    /**
+     * Print a summary table of all operations
+     */
+    public void print() {
+        System.out.println("\n📈 Load Test Report (steady state: " + steadyStateSeconds + "s)");
+        System.out.println(String.format("%-16s %8s %8s %8s %9s %9s %9s %9s %9s %9s %9s",
+            "operation", "count", "errors", "rejected", "err%", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (OperationStats s : stats.values()) {
+            System.out.println(s);
+        }
+        System.out.println("====================================\n");
+    }
+
+    /**
+     * Throughput, errors and latency percentiles for one operation
+     */
+    public static class OperationStats {
+
+        private final UserOperation operation;
+        private final long count;
+        private final long errors;
+        private final long rejected;
+        private final double throughput;
+        private final Histogram latencyMicros;
+
+        OperationStats(UserOperation operation, long count, long errors, long rejected, double seconds,
+                Histogram latencyMicros) {
+            this.operation = operation;
+            this.count = count;
+            this.errors = errors;
+            this.rejected = rejected;
+            this.throughput = seconds > 0 ? count / seconds : 0;
+            this.latencyMicros = latencyMicros;
+        }
+
+        public UserOperation getOperation() { return operation; }
+        public long getCount() { return count; }
+        public long getErrors() { return errors; }
+        /** Arrivals never sent because the in-flight limit was reached */
+        public long getRejected() { return rejected; }
+        /** Sent requests per second; rejected arrivals are not included */
+        public double getThroughput() { return throughput; }
+        /** Failed share of sent requests */
+        public double getErrorRate() { return count == 0 ? 0 : (double) errors / count; }
+
+        /**
+         * Latency at the given percentile (0-100) in milliseconds
+         */
+        public double getPercentileMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        public double getMaxMillis() {
+            return latencyMicros.getMaxValue() / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s %8d %8d %8d %8.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                operation, count, errors, rejected, getErrorRate() * 100, throughput,
+                getPercentileMillis(50), getPercentileMillis(90), getPercentileMillis(99),
+                getPercentileMillis(99.9), getMaxMillis());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Recorder;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import config.ConfigReader;
+import services.UserService;
+import stub.LocalStubServer;
+import utils.LoggerUtils;
+
+/**
+ * Open-model load generator for the User API.
+ *
+ * Arrivals are issued on a fixed schedule derived from the profile's rate, independent
+ * of how long earlier requests take, and each latency is measured from the request's
+ * intended start time. A slow backend therefore grows the recorded tail instead of
+ * throttling the generator (coordinated omission). Requests issued during ramp-up
+ * warm the system but are not part of the report.
+ *
+ * Arrivals that find maxInFlight requests already outstanding are not sent. They are
+ * reported as rejected, separately from sent requests and errors, and queue for the next
+ * free slot. Each one is recorded with the time it waited for that slot, measured from
+ * its intended start: a lower bound on the latency it would have seen. The saturated
+ * tail therefore stays in the percentiles, and throughput counts only requests that were
+ * actually sent.
+ *
+ * Run from the command line with mvn -P load test-compile exec:exec [-Denvironment=local],
+ * which drives the load.* profile of the environment (see main).
+ */
+public class UserLoadGenerator {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final ThreadLocal<UserService> services;
+
+    /**
+     * @param serviceFactory creates one UserService per worker thread
+     */
+    public UserLoadGenerator(Supplier<UserService> serviceFactory) {
+        this.services = ThreadLocal.withInitial(serviceFactory);
+    }
+
+    /**
+     * Run the profile to completion and report the steady-state window
+     */
+    public LoadReport run(LoadProfile profile) {
+        Map<UserOperation, OperationRecorder> recorders = new EnumMap<>(UserOperation.class);
+        for (UserOperation operation : UserOperation.values()) {
+            recorders.put(operation, new OperationRecorder());
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "load-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(profile.getMaxInFlight());
+        Queue<Rejected> rejected = new ConcurrentLinkedQueue<>();
+
+        LoggerUtils.info("Starting load run at " + profile.getTargetRate() + " req/s (ramp-up "
+            + profile.getRampUp().getSeconds() + "s, steady state " + profile.getSteadyState().getSeconds() + "s)");
+
+        long start = System.nanoTime();
+        long rampEnd = start + profile.getRampUp().toNanos();
+        long end = rampEnd + profile.getSteadyState().toNanos();
+        long intended = start;
+
+        while (intended < end) {
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+
+            UserOperation operation = profile.pick(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE));
+            OperationRecorder recorder = intended >= rampEnd ? recorders.get(operation) : null;
+            long scheduledAt = intended;
+
+            if (inFlight.tryAcquire()) {
+                workers.execute(() -> {
+                    try {
+                        execute(operation, scheduledAt, recorder);
+                    } finally {
+                        inFlight.release();
+                        // The freed slot is the earliest the oldest rejected arrival could have started
+                        Rejected waiting = rejected.poll();
+                        if (waiting != null) {
+                            waiting.record();
+                        }
+                    }
+                });
+            } else if (recorder != null) {
+                // Saturated: skip the request rather than delaying the schedule
+                rejected.add(new Rejected(scheduledAt, recorder));
+            }
+
+            intended += (long) (NANOS_PER_SECOND / profile.rateAt(intended - start));
+        }
+
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LoggerUtils.warn("Load run did not drain within " + DRAIN_TIMEOUT_SECONDS + "s");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        // Arrivals still waiting when the run drained waited at least until now
+        for (Rejected waiting; (waiting = rejected.poll()) != null; ) {
+            waiting.record();
+        }
+
+        double steadySeconds = profile.getSteadyState().toNanos() / (double) NANOS_PER_SECOND;
+        Map<UserOperation, LoadReport.OperationStats> stats = new EnumMap<>(UserOperation.class);
+        recorders.forEach((operation, recorder) -> {
+            if (recorder.count.sum() + recorder.rejected.sum() > 0) {
+                stats.put(operation, new LoadReport.OperationStats(operation, recorder.count.sum(),
+                    recorder.errors.sum(), recorder.rejected.sum(), steadySeconds,
+                    recorder.latencyMicros.getIntervalHistogram()));
+            }
+        });
+        return new LoadReport(stats, steadySeconds);
+    }
+
+    private void execute(UserOperation operation, long scheduledAt, OperationRecorder recorder) {
+        boolean failed;
+        try {
+            Response response = operation.execute(services.get());
+            failed = response.getStatusCode() >= 400;
+        } catch (RuntimeException e) {
+            failed = true;
+        }
+
+        if (recorder != null) {
+            recorder.latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt));
+            recorder.count.increment();
+            if (failed) {
+                recorder.errors.increment();
+            }
+        }
+    }
+
+    /**
+     * Run the load.* profile of the active environment against the API, starting the local
+     * stub first when stub.enabled is set, and print the report
+     */
+    public static void main(String[] args) {
+        ConfigReader config = new ConfigReader();
+        if (config.isLocalStub()) {
+            LocalStubServer.start(config.getStubPort(), config.getStubThreads(), config.getStubFaults());
+        }
+        try {
+            // Plain spec without the reporting filters, which would only add overhead to every request
+            RequestSpecification spec = RestAssured.given()
+                .baseUri(config.getBaseUrl())
+                .port(config.getPort())
+                .basePath(config.getBasePath())
+                .contentType(ContentType.JSON);
+            LoadReport report = new UserLoadGenerator(() -> new UserService(spec)).run(LoadProfile.fromConfig(config));
+            report.print();
+        } finally {
+            LocalStubServer.stop();
+        }
+    }
+
+    private static class OperationRecorder {
+        private final Recorder latencyMicros = new Recorder(3);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+    }
+
+    /**
+     * An arrival that was never sent because maxInFlight requests were outstanding
+     */
+    private static class Rejected {
+        private final long scheduledAt;
+        private final OperationRecorder recorder;
+
+        Rejected(long scheduledAt, OperationRecorder recorder) {
+            this.scheduledAt = scheduledAt;
+            this.recorder = recorder;
+        }
+
+        void record() {
+            recorder.latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt));
+            recorder.rejected.increment();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package load;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.restassured.response.Response;
+import mdoels.request.UserRequest;
+import services.UserService;
+
+/**
+ * User API operations that can be driven by the load generator
+ */
+public enum UserOperation {
+
+    GET_ALL_USERS {
+        @Override
+        Response execute(UserService service) {
+            return service.getAllUsers();
+        }
+    },
+
+    GET_USER_BY_ID {
+        @Override
+        Response execute(UserService service) {
+            return service.getUserById(randomUserId());
+        }
+    },
+
+    CREATE_USER {
+        @Override
+        Response execute(UserService service) {
+            return service.createUser(TEMPLATE_USER);
+        }
+    },
+
+    UPDATE_USER {
+        @Override
+        Response execute(UserService service) {
+            return service.updateUser(randomUserId(), TEMPLATE_USER);
+        }
+    },
+
+    DELETE_USER {
+        @Override
+        Response execute(UserService service) {
+            return service.deleteUser(randomUserId());
+        }
+    };
+
+    // Fixed payload so request generation stays off the measured path
+    private static final UserRequest TEMPLATE_USER = new UserRequest(
+        "Load Test User", "load_user", "load.user@example.com", "1-770-736-8031", "example.org");
+
+    private static final int SEEDED_USER_COUNT = 10;
+
+    abstract Response execute(UserService service);
+
+    private static int randomUserId() {
+        return ThreadLocalRandom.current().nextInt(1, SEEDED_USER_COUNT + 1);
+    }
+}
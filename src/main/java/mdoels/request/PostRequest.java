@@ -0,0 +1,29 @@
+package mdoels.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Post request model for API operations
+ */
+@Getter // Lombok annotation to generate getters
+@Setter  // Lombok annotation to generate setters
+@NoArgsConstructor // Lombok annotation to generate no args constructor
+@AllArgsConstructor  // Lombok annotation to generate all args constructor
+@ToString // Lombok annotation to generate toString method
+public class PostRequest {
+
+    @JsonProperty("userId")
+    private int userId;
+
+    @JsonProperty("title")
+    private String title;
+
+    @JsonProperty("body")
+    private String body;
+}
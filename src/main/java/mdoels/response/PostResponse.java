@@ -0,0 +1,32 @@
+package mdoels.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Post response model for API operations
+ */
+@Getter // Lombok annotation to generate getters
+@Setter  // Lombok annotation to generate setters
+@NoArgsConstructor // Lombok annotation to generate no args constructor
+@AllArgsConstructor  // Lombok annotation to generate all args constructor
+@ToString // Lombok annotation to generate toString method
+public class PostResponse {
+
+    @JsonProperty("id")
+    private int id;
+
+    @JsonProperty("userId")
+    private int userId;
+
+    @JsonProperty("title")
+    private String title;
+
+    @JsonProperty("body")
+    private String body;
+}
@@ -0,0 +1,63 @@
+package services;
+
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+
+import utils.APIUtils;
+
+/**
+ * Response returned by the asynchronous services.
+ * Mirrors the parts of RestAssured's Response the tests assert on.
+ */
+public class AsyncResponse {
+
+    private final int statusCode;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final long timeMillis;
+
+    public AsyncResponse(int statusCode, HttpHeaders headers, byte[] body, long timeMillis) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.timeMillis = timeMillis;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Round-trip time in milliseconds, from send to complete body
+     */
+    public long getTime() {
+        return timeMillis;
+    }
+
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    public String getHeader(String name) {
+        return headers.firstValue(name).orElse(null);
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public byte[] asByteArray() {
+        return body;
+    }
+
+    public String asString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Map the body to the given type, straight from the response bytes
+     */
+    public <T> T as(Class<T> clazz) {
+        return APIUtils.fromJson(body, clazz);
+    }
+}
@@ -0,0 +1,184 @@
+package services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import config.ConfigReader;
+import mdoels.request.UserRequest;
+import mdoels.response.UserResponse;
+import utils.APIUtils;
+
+/**
+ * Non-blocking counterpart of UserService.
+ *
+ * All instances share one HTTP/2-capable HttpClient, so requests to the same host are
+ * multiplexed over a small number of connections and a single caller thread can keep
+ * hundreds of requests in flight. Each operation returns immediately with a future.
+ */
+public class AsyncUserService {
+
+    private static final String USERS_ENDPOINT = "/users";
+
+    private final URI baseUri;
+    private final Duration requestTimeout;
+
+    public AsyncUserService(ConfigReader config) {
+        this(baseUri(config), Duration.ofMillis(config.getRequestTimeout()));
+    }
+
+    public AsyncUserService(URI baseUri, Duration requestTimeout) {
+        this.baseUri = baseUri;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Get all users
+     */
+    public CompletableFuture<AsyncResponse> getAllUsers() {
+        return send(request(USERS_ENDPOINT).GET());
+    }
+
+    /**
+     * Get all users as a stream decoded straight off the connection, so memory
+     * stays flat however large the list is. Close the stream when done.
+     */
+    public CompletableFuture<Stream<UserResponse>> streamAllUsers() {
+        return ClientHolder.CLIENT
+            .sendAsync(request(USERS_ENDPOINT).GET().build(), HttpResponse.BodyHandlers.ofInputStream())
+            .thenApply(response -> {
+                InputStream body = response.body();
+                if (response.statusCode() != 200) {
+                    try {
+                        body.close();
+                    } catch (IOException e) {
+                        // Connection is discarded either way
+                    }
+                    throw new IllegalStateException("Unexpected status code: " + response.statusCode());
+                }
+                return APIUtils.streamJsonArray(body, UserResponse.class);
+            });
+    }
+
+    /**
+     * Get user by ID
+     */
+    public CompletableFuture<AsyncResponse> getUserById(int userId) {
+        return send(request(USERS_ENDPOINT + "/" + userId).GET());
+    }
+
+    /**
+     * Create new user
+     */
+    public CompletableFuture<AsyncResponse> createUser(UserRequest userRequest) {
+        return send(request(USERS_ENDPOINT)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(APIUtils.toJsonBytes(userRequest))));
+    }
+
+    /**
+     * Update user
+     */
+    public CompletableFuture<AsyncResponse> updateUser(int userId, UserRequest userRequest) {
+        return send(request(USERS_ENDPOINT + "/" + userId)
+            .PUT(HttpRequest.BodyPublishers.ofByteArray(APIUtils.toJsonBytes(userRequest))));
+    }
+
+    /**
+     * Delete user
+     */
+    public CompletableFuture<AsyncResponse> deleteUser(int userId) {
+        return send(request(USERS_ENDPOINT + "/" + userId).DELETE());
+    }
+
+    /**
+     * Convert response to UserResponse object
+     */
+    public UserResponse convertToUserResponse(AsyncResponse response) {
+        return response.as(UserResponse.class);
+    }
+
+    /**
+     * Convert response to UserResponse array
+     */
+    public UserResponse[] convertToUserResponseArray(AsyncResponse response) {
+        return response.as(UserResponse[].class);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path))
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json");
+    }
+
+    /**
+     * Send the request; cancelling the returned future also cancels the exchange, which
+     * aborts it on Java 16+ instead of reading a response nobody wants
+     */
+    private CompletableFuture<AsyncResponse> send(HttpRequest.Builder builder) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> exchange = ClientHolder.CLIENT
+            .sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<AsyncResponse> response = exchange
+            .thenApply(r -> new AsyncResponse(r.statusCode(), r.headers(), r.body(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        response.whenComplete((r, error) -> {
+            if (error instanceof CancellationException) {
+                exchange.cancel(true);
+            }
+        });
+        return response;
+    }
+
+    private static URI baseUri(ConfigReader config) {
+        return URI.create(config.getBaseUrl() + ":" + config.getPort() + config.getBasePath());
+    }
+
+    /**
+     * Lazily built shared client; same relaxed TLS validation as the RestAssured specs
+     */
+    private static class ClientHolder {
+
+        private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(new ConfigReader().getConnectionTimeout()))
+            .sslContext(relaxedSslContext())
+            .build();
+
+        private static SSLContext relaxedSslContext() {
+            TrustManager trustAll = new X509TrustManager() {
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain, String authType) { }
+
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain, String authType) { }
+
+                @Override
+                public X509Certificate[] getAcceptedIssuers() {
+                    return new X509Certificate[0];
+                }
+            };
+            try {
+                SSLContext context = SSLContext.getInstance("TLS");
+                context.init(null, new TrustManager[] { trustAll }, null);
+                return context;
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("Unable to create SSL context", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-item outcomes and summary of one bulk operation, in input order
+ */
+public class BulkResult<T> {
+
+    private final String operation;
+    private final List<Item<T>> items;
+    private final long elapsedMillis;
+    private final int peakInFlight;
+    private final int finalLimit;
+    private final int limitDecreases;
+
+    BulkResult(String operation, List<Item<T>> items, long elapsedMillis, int peakInFlight, int finalLimit,
+            int limitDecreases) {
+        this.operation = operation;
+        this.items = Collections.unmodifiableList(items);
+        this.elapsedMillis = elapsedMillis;
+        this.peakInFlight = peakInFlight;
+        this.finalLimit = finalLimit;
+        this.limitDecreases = limitDecreases;
+    }
+
+    public String getOperation() { return operation; }
+    public List<Item<T>> getItems() { return items; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public int getPeakInFlight() { return peakInFlight; }
+    public int getFinalLimit() { return finalLimit; }
+    public int getLimitDecreases() { return limitDecreases; }
+
+    public int getTotal() {
+        return items.size();
+    }
+
+    public int getSucceeded() {
+        int succeeded = 0;
+        for (Item<T> item : items) {
+            if (item.isSuccess()) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return getTotal() - getSucceeded();
+    }
+
+    public boolean isAllSucceeded() {
+        return getFailed() == 0;
+    }
+
+    public List<Item<T>> getFailures() {
+        List<Item<T>> failures = new ArrayList<>();
+        for (Item<T> item : items) {
+            if (!item.isSuccess()) {
+                failures.add(item);
+            }
+        }
+        return failures;
+    }
+
+    public double getThroughput() {
+        return elapsedMillis > 0 ? getTotal() * 1000.0 / elapsedMillis : getTotal();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d items, %d succeeded, %d failed in %d ms (%.1f/s), peak in-flight %d, "
+            + "final limit %d, %d backoffs", operation, getTotal(), getSucceeded(), getFailed(), elapsedMillis,
+            getThroughput(), peakInFlight, finalLimit, limitDecreases);
+    }
+
+    /**
+     * Outcome for one input: the response, or the error if no response arrived
+     */
+    public static class Item<T> {
+        private final int index;
+        private final T input;
+        private final AsyncResponse response;
+        private final Throwable error;
+
+        Item(int index, T input, AsyncResponse response, Throwable error) {
+            this.index = index;
+            this.input = input;
+            this.response = response;
+            this.error = error;
+        }
+
+        public int getIndex() { return index; }
+        public T getInput() { return input; }
+        public AsyncResponse getResponse() { return response; }
+        public Throwable getError() { return error; }
+
+        public boolean isSuccess() {
+            return response != null && response.getStatusCode() >= 200 && response.getStatusCode() < 300;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + " " + (response != null ? "HTTP " + response.getStatusCode() : "error: " + error);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import config.ConfigReader;
+import mdoels.request.UserRequest;
+import utils.LoggerUtils;
+
+/**
+ * Bulk user operations pipelined over AsyncUserService.
+ *
+ * Requests are issued from the calling thread as fast as the in-flight limit allows and
+ * complete on the HTTP client's threads. The limit adapts AIMD-style: it grows by one
+ * per window of successful requests and halves when the server pushes back (429/503,
+ * transport errors, or latency above the threshold), so seeding slows down instead of
+ * piling more load onto a struggling backend. Every call blocks until all items are done
+ * and returns one result per input, in input order.
+ *
+ * An interrupt while waiting for a slot stops issuing: unsent items fail with an
+ * InterruptedException, requests already in flight are still awaited, and the thread's
+ * interrupt flag stays set.
+ */
+public class BulkUserService {
+
+    private final AsyncUserService async;
+    private final int maxInFlight;
+    private final long latencyThresholdNanos;
+
+    public BulkUserService(ConfigReader config) {
+        this(new AsyncUserService(config), config.getBulkMaxInFlight(), config.getBulkLatencyThresholdMillis());
+    }
+
+    public BulkUserService(AsyncUserService async, int maxInFlight, long latencyThresholdMillis) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+        }
+        this.async = async;
+        this.maxInFlight = maxInFlight;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+    }
+
+    /**
+     * Create every user
+     */
+    public BulkResult<UserRequest> createUsers(Collection<UserRequest> users) {
+        return run("createUsers", users, async::createUser);
+    }
+
+    /**
+     * Update each user id with its request
+     */
+    public BulkResult<Map.Entry<Integer, UserRequest>> updateUsers(Map<Integer, UserRequest> updates) {
+        return run("updateUsers", updates.entrySet(), entry -> async.updateUser(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Delete every user id
+     */
+    public BulkResult<Integer> deleteUsers(Collection<Integer> userIds) {
+        return run("deleteUsers", userIds, async::deleteUser);
+    }
+
+    /**
+     * Fetch every user id
+     */
+    public BulkResult<Integer> getUsersByIds(Collection<Integer> userIds) {
+        return run("getUsersByIds", userIds, async::getUserById);
+    }
+
+    private <T> BulkResult<T> run(String operation, Collection<T> inputs,
+            Function<T, CompletableFuture<AsyncResponse>> call) {
+        LoggerUtils.info(() -> "📦 " + operation + ": " + inputs.size() + " items, up to " + maxInFlight + " in flight");
+        AdaptiveLimit limit = new AdaptiveLimit(maxInFlight);
+        List<CompletableFuture<BulkResult.Item<T>>> pending = new ArrayList<>(inputs.size());
+        long start = System.nanoTime();
+
+        int index = 0;
+        boolean interrupted = false;
+        for (T input : inputs) {
+            int itemIndex = index++;
+            if (interrupted || !limit.acquire()) {
+                interrupted = true;
+                pending.add(CompletableFuture.completedFuture(new BulkResult.Item<>(itemIndex, input, null,
+                    new InterruptedException(operation + " was interrupted before this item was sent"))));
+                continue;
+            }
+            long sentAt = System.nanoTime();
+            CompletableFuture<AsyncResponse> future;
+            try {
+                future = call.apply(input);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            pending.add(future.handle((response, error) -> {
+                limit.release(response, error, System.nanoTime() - sentAt);
+                return new BulkResult.Item<>(itemIndex, input, response, unwrap(error));
+            }));
+        }
+
+        if (interrupted) {
+            LoggerUtils.warn("📦 " + operation + " interrupted, waiting only for requests already sent");
+        }
+        List<BulkResult.Item<T>> items = new ArrayList<>(pending.size());
+        for (CompletableFuture<BulkResult.Item<T>> item : pending) {
+            items.add(item.join());
+        }
+        BulkResult<T> result = new BulkResult<>(operation, items,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), limit.peakInFlight, limit.current(),
+            limit.decreases);
+        if (result.isAllSucceeded()) {
+            LoggerUtils.success(result::toString);
+        } else {
+            LoggerUtils.warn(result.toString());
+        }
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * AIMD concurrency limit shared by one bulk operation
+     */
+    private class AdaptiveLimit {
+        private final int max;
+        private double limit;
+        private int inFlight;
+        private int peakInFlight;
+        private int decreases;
+        private long lastDecreaseNanos;
+
+        AdaptiveLimit(int max) {
+            this.max = max;
+            // Start halfway and let successes earn the rest
+            this.limit = Math.max(1, max / 2);
+            // Far enough in the past that the first overload always cuts, whatever nanoTime's origin
+            this.lastDecreaseNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+        }
+
+        /**
+         * Wait for a slot; false, with the interrupt flag set again, if interrupted first
+         */
+        synchronized boolean acquire() {
+            while (inFlight >= (int) limit) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            inFlight++;
+            peakInFlight = Math.max(peakInFlight, inFlight);
+            return true;
+        }
+
+        synchronized void release(AsyncResponse response, Throwable error, long latencyNanos) {
+            inFlight--;
+            if (isOverloaded(response, error, latencyNanos)) {
+                // At most one cut per latency window, so a burst of failures doesn't collapse the limit
+                long now = System.nanoTime();
+                if (now - lastDecreaseNanos > latencyNanos) {
+                    limit = Math.max(1, limit / 2);
+                    lastDecreaseNanos = now;
+                    decreases++;
+                }
+            } else if (limit < max) {
+                limit = Math.min(max, limit + 1 / limit);
+            }
+            notifyAll();
+        }
+
+        synchronized int current() {
+            return (int) limit;
+        }
+
+        private boolean isOverloaded(AsyncResponse response, Throwable error, long latencyNanos) {
+            if (error != null) {
+                return true;
+            }
+            int status = response.getStatusCode();
+            return status == 429 || status == 503 || latencyNanos > latencyThresholdNanos;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import config.ConfigReader;
+import utils.LatencyRegistry;
+import utils.LoggerUtils;
+
+/**
+ * Hedged, retried reads of users over AsyncUserService, for calls that are safe to repeat.
+ *
+ * Each call sends one request. If that request is still pending after the hedge delay, a
+ * second copy is sent. The delay is hedge.percentile of the endpoint's recorded 200
+ * latencies in the LatencyRegistry. Whichever response arrives first is used and the other
+ * request is cancelled. If every request of a call fails (429, 5xx or a transport error),
+ * the call is retried after a jittered backoff, up to retry.max.attempts in total.
+ *
+ * Every hedge and retry spends a token from the RetryBudget. When the budget is empty the
+ * call keeps whatever it already has, so a slow or failing backend never gets a retry storm.
+ * A request cancelled because the other one won is recorded with the time it had run when
+ * cancelled, under the status the call ended with. That is a lower bound on its latency,
+ * but it keeps the slow primaries a hedge cut off in the percentile instead of dropping them.
+ */
+public class HedgedUserService {
+
+    private static final String USERS_ENDPOINT = "/users";
+    private static final String USER_ENDPOINT = "/users/{userId}";
+
+    // Kept apart from LatencyRegistry.get(), whose latencies the performance gate compares
+    private static final LatencyRegistry SHARED_LATENCIES = new LatencyRegistry();
+
+    private final AsyncUserService async;
+    private final LatencyRegistry latencies;
+    private final RetryBudget budget;
+    private final double hedgePercentile;
+    private final int hedgeMinSamples;
+    private final long hedgeMinDelayMillis;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * Share hedge latencies and the RetryBudget with every other service built from config
+     */
+    public HedgedUserService(ConfigReader config) {
+        this(new AsyncUserService(config), SHARED_LATENCIES, RetryBudget.shared(), config.getHedgePercentile(),
+            config.getHedgeMinSamples(), config.getHedgeMinDelayMillis(), config.getRetryMaxAttempts(),
+            config.getRetryBackoffMillis());
+    }
+
+    /**
+     * @param hedgePercentile     percentile (0-100) of recorded 200 latencies after which to hedge
+     * @param hedgeMinSamples     latencies an endpoint needs before it is hedged at all
+     * @param hedgeMinDelayMillis lower bound on the hedge delay
+     * @param maxAttempts         attempts per call, counting the first; 1 disables retries
+     * @param backoffMillis       wait before the first retry, doubled for each further one
+     */
+    public HedgedUserService(AsyncUserService async, LatencyRegistry latencies, RetryBudget budget,
+            double hedgePercentile, int hedgeMinSamples, long hedgeMinDelayMillis, int maxAttempts,
+            long backoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        this.async = async;
+        this.latencies = latencies;
+        this.budget = budget;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinSamples = hedgeMinSamples;
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Get all users
+     */
+    public CompletableFuture<AsyncResponse> getAllUsers() {
+        return call(USERS_ENDPOINT, async::getAllUsers);
+    }
+
+    /**
+     * Get user by ID
+     */
+    public CompletableFuture<AsyncResponse> getUserById(int userId) {
+        return call(USER_ENDPOINT, () -> async.getUserById(userId));
+    }
+
+    /**
+     * Current hedge delay for the endpoint template in milliseconds, or -1 while it has too
+     * few recorded latencies to hedge
+     */
+    public long getHedgeDelayMillis(String endpoint) {
+        double percentile = latencies.percentileMillis("GET", endpoint, 200, hedgePercentile, hedgeMinSamples);
+        return percentile < 0 ? -1 : Math.max(hedgeMinDelayMillis, (long) Math.ceil(percentile));
+    }
+
+    public long getCalls() { return calls.sum(); }
+    public long getHedges() { return hedges.sum(); }
+    public long getHedgeWins() { return hedgeWins.sum(); }
+    public long getRetries() { return retries.sum(); }
+    public RetryBudget getBudget() { return budget; }
+
+    @Override
+    public String toString() {
+        return String.format("%d calls, %d hedges (%d won), %d retries, %s", getCalls(), getHedges(),
+            getHedgeWins(), getRetries(), budget);
+    }
+
+    private CompletableFuture<AsyncResponse> call(String endpoint, Supplier<CompletableFuture<AsyncResponse>> send) {
+        calls.increment();
+        budget.deposit();
+        Call call = new Call(endpoint, send);
+        call.startRound(1);
+        return call.result;
+    }
+
+    private static boolean isRetryable(AsyncResponse response, Throwable error) {
+        if (error != null) {
+            return true;
+        }
+        int status = response.getStatusCode();
+        return status == 429 || status >= 500;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * One logical call: rounds of a request plus at most one hedge, until one succeeds or
+     * retries run out. Only the current round's requests are ever in flight.
+     */
+    private class Call {
+        private final String endpoint;
+        private final Supplier<CompletableFuture<AsyncResponse>> send;
+        private final CompletableFuture<AsyncResponse> result = new CompletableFuture<>();
+        private final List<CompletableFuture<AsyncResponse>> inFlight = new ArrayList<>(2);
+        private int round;
+        private boolean decided;
+
+        Call(String endpoint, Supplier<CompletableFuture<AsyncResponse>> send) {
+            this.endpoint = endpoint;
+            this.send = send;
+            // However the call ends, including the caller cancelling it, drop the requests still running
+            result.whenComplete((response, error) -> cancelInFlight());
+        }
+
+        synchronized void startRound(int number) {
+            if (result.isDone()) {
+                return;
+            }
+            round = number;
+            send(false);
+            long delay = getHedgeDelayMillis(endpoint);
+            if (delay >= 0) {
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> hedge(number, delay));
+            }
+        }
+
+        private synchronized void hedge(int number, long delay) {
+            // Nothing in flight means the round already failed and a retry is on its way
+            if (decided || result.isDone() || round != number || inFlight.isEmpty() || !budget.tryWithdraw()) {
+                return;
+            }
+            hedges.increment();
+            LoggerUtils.debug(() -> "🪃 Hedging GET " + endpoint + " after " + delay + " ms");
+            send(true);
+        }
+
+        private void send(boolean hedge) {
+            long start = System.nanoTime();
+            CompletableFuture<AsyncResponse> future;
+            try {
+                future = send.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<AsyncResponse> request = future;
+            int number = round;
+            inFlight.add(request);
+            request.whenComplete((response, error) ->
+                completed(request, number, hedge, response, unwrap(error), System.nanoTime() - start));
+        }
+
+        private void completed(CompletableFuture<AsyncResponse> request, int number, boolean hedge,
+                AsyncResponse response, Throwable error, long latencyNanos) {
+            if (error instanceof CancellationException) {
+                if (result.isDone() && !result.isCompletedExceptionally()) {
+                    latencies.record("GET", endpoint, result.join().getStatusCode(), latencyNanos);
+                }
+                return;
+            }
+            if (response != null) {
+                latencies.record("GET", endpoint, response.getStatusCode(), latencyNanos);
+            }
+            boolean retryable = isRetryable(response, error);
+            synchronized (this) {
+                inFlight.remove(request);
+                if (decided || result.isDone() || (retryable && !inFlight.isEmpty())) {
+                    // Already decided, or the other request of this round may still succeed
+                    return;
+                }
+                if (retryable && number < maxAttempts && budget.tryWithdraw()) {
+                    retries.increment();
+                    long backoff = backoff(number);
+                    LoggerUtils.debug(() -> "🔁 Retrying GET " + endpoint + " in " + backoff + " ms after "
+                        + (error != null ? error.toString() : "status " + response.getStatusCode()));
+                    CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS)
+                        .execute(() -> startRound(number + 1));
+                    return;
+                }
+                decided = true;
+            }
+            // Completed outside the lock so the caller's callbacks never run while holding it
+            boolean completed = error != null ? result.completeExceptionally(error) : result.complete(response);
+            if (completed && hedge && !retryable) {
+                hedgeWins.increment();
+            }
+        }
+
+        private long backoff(int attempt) {
+            long base = backoffMillis << Math.min(attempt - 1, 20);
+            return base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+        }
+
+        private void cancelInFlight() {
+            List<CompletableFuture<AsyncResponse>> pending;
+            synchronized (this) {
+                pending = new ArrayList<>(inFlight);
+                inFlight.clear();
+            }
+            for (CompletableFuture<AsyncResponse> request : pending) {
+                request.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package services;
+
+import java.util.Collections;
+import java.util.function.Supplier;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.qameta.allure.Step;
+import base.RequestSpecFactory;
+import mdoels.request.PostRequest;
+import mdoels.response.PostResponse;
+import utils.LoggerUtils;
+
+/**
+ * Post Service class for Posts API operations
+ */
+public class PostService extends ResourceService<PostRequest, PostResponse> {
+
+    private static final String POSTS_ENDPOINT = "/posts";
+
+    /**
+     * Use the shared base specification from RequestSpecFactory, and the shared
+     * response cache when cache.enabled is set
+     */
+    public PostService() {
+        this(RequestSpecFactory::newRequest, ResponseCache.shared());
+    }
+
+    /**
+     * Use the given specification as a template; every call works on its own copy
+     */
+    public PostService(RequestSpecification requestSpec) {
+        this(() -> RestAssured.given().spec(requestSpec), null);
+    }
+
+    /**
+     * Serve GETs through the given cache; null disables caching
+     */
+    public PostService(Supplier<RequestSpecification> requestFactory, ResponseCache cache) {
+        super(POSTS_ENDPOINT, PostRequest.class, PostResponse.class, requestFactory, cache);
+    }
+
+    /**
+     * Get all posts
+     */
+    @Step("Get all posts from API")
+    public Response getAllPosts() {
+        LoggerUtils.info("🔍 Getting all posts...");
+
+        Response response = getAll();
+
+        LoggerUtils.success("✅ Retrieved posts list");
+        return response;
+    }
+
+    /**
+     * Get post by ID
+     */
+    @Step("Get post by ID: {postId}")
+    public Response getPostById(int postId) {
+        LoggerUtils.info(() -> "🔍 Getting post with ID: " + postId);
+
+        Response response = getById(postId);
+
+        LoggerUtils.success(() -> "✅ Retrieved post: " + postId);
+        return response;
+    }
+
+    /**
+     * Get posts written by a user
+     */
+    @Step("Get posts by user: {userId}")
+    public Response getPostsByUser(int userId) {
+        LoggerUtils.info(() -> "🔍 Getting posts for user: " + userId);
+
+        Response response = find(Collections.singletonMap("userId", userId));
+
+        LoggerUtils.success(() -> "✅ Retrieved posts for user: " + userId);
+        return response;
+    }
+
+    /**
+     * Create new post
+     */
+    @Step("Create new post: {postRequest}")
+    public Response createPost(PostRequest postRequest) {
+        LoggerUtils.info(() -> "📝 Creating new post: " + postRequest.getTitle());
+
+        Response response = create(postRequest);
+
+        LoggerUtils.success("✅ Post created successfully");
+        return response;
+    }
+}
@@ -0,0 +1,272 @@
+package services;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import base.RequestSpecFactory;
+import utils.APIUtils;
+import utils.LoggerUtils;
+
+/**
+ * Typed CRUD operations for one REST resource, derived from its endpoint and model classes.
+ *
+ * Items live at {endpoint}/{id}, with the id path param named after the resource
+ * (/users -> userId, /posts -> postId). The Jackson reader and writer for every shape
+ * used here (item, array, list, request body) are resolved once up front, so mapping
+ * does no per-call type lookup. GETs of the collection and of single items go through
+ * the ResponseCache when one is given; writes invalidate what they change.
+ */
+public class ResourceService<Req, Res> {
+
+    private final String endpoint;
+    private final String idParam;
+    private final Class<Res> responseType;
+    private final ObjectWriter requestWriter;
+    private final ObjectReader itemReader;
+    private final ObjectReader arrayReader;
+    private final ObjectReader listReader;
+    private final Supplier<RequestSpecification> requestFactory;
+    private final ResponseCache cache;
+
+    /**
+     * Use the shared base specification from RequestSpecFactory, and the shared
+     * response cache when cache.enabled is set
+     */
+    public ResourceService(String endpoint, Class<Req> requestType, Class<Res> responseType) {
+        this(endpoint, requestType, responseType, RequestSpecFactory::newRequest, ResponseCache.shared());
+    }
+
+    /**
+     * Use the given specification as a template; every call works on its own copy
+     */
+    public ResourceService(String endpoint, Class<Req> requestType, Class<Res> responseType,
+            RequestSpecification requestSpec) {
+        this(endpoint, requestType, responseType, () -> RestAssured.given().spec(requestSpec), null);
+    }
+
+    /**
+     * Serve GETs through the given cache; null disables caching
+     */
+    public ResourceService(String endpoint, Class<Req> requestType, Class<Res> responseType,
+            Supplier<RequestSpecification> requestFactory, ResponseCache cache) {
+        this.endpoint = endpoint;
+        this.idParam = idParam(endpoint);
+        this.responseType = responseType;
+        this.requestWriter = APIUtils.writerFor(requestType);
+        this.itemReader = APIUtils.readerFor(responseType);
+        this.arrayReader = APIUtils.readerFor(Array.newInstance(responseType, 0).getClass());
+        this.listReader = APIUtils.listReaderFor(responseType);
+        this.requestFactory = requestFactory;
+        this.cache = cache;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Get the whole collection
+     */
+    public Response getAll() {
+        return cachedGet(endpoint, spec -> spec
+            .when()
+                .get(endpoint)
+            .then()
+                .extract()
+                .response());
+    }
+
+    /**
+     * Get the collection filtered by query parameters; not cached
+     */
+    public Response find(Map<String, ?> query) {
+        return requestFactory.get()
+            .queryParams(query)
+            .when()
+                .get(endpoint)
+            .then()
+                .extract()
+                .response();
+    }
+
+    /**
+     * Get one item by ID
+     */
+    public Response getById(Object id) {
+        return cachedGet(itemKey(id), spec -> spec
+            .pathParam(idParam, id)
+            .when()
+                .get(endpoint + "/{" + idParam + "}")
+            .then()
+                .extract()
+                .response());
+    }
+
+    /**
+     * Create an item
+     */
+    public Response create(Req request) {
+        Response response = requestFactory.get()
+            .body(serialize(request))
+            .when()
+                .post(endpoint)
+            .then()
+                .extract()
+                .response();
+        invalidate(endpoint);
+        return response;
+    }
+
+    /**
+     * Replace an item
+     */
+    public Response update(Object id, Req request) {
+        Response response = requestFactory.get()
+            .pathParam(idParam, id)
+            .body(serialize(request))
+            .when()
+                .put(endpoint + "/{" + idParam + "}")
+            .then()
+                .extract()
+                .response();
+        invalidate(endpoint, itemKey(id));
+        return response;
+    }
+
+    /**
+     * Delete an item
+     */
+    public Response delete(Object id) {
+        Response response = requestFactory.get()
+            .pathParam(idParam, id)
+            .when()
+                .delete(endpoint + "/{" + idParam + "}")
+            .then()
+                .extract()
+                .response();
+        invalidate(endpoint, itemKey(id));
+        return response;
+    }
+
+    /**
+     * Map the response body to one item
+     */
+    public Res read(Response response) {
+        try {
+            return itemReader.readValue(response.asByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert JSON to " + responseType.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Map the response body to an array of items
+     */
+    @SuppressWarnings("unchecked")
+    public Res[] readArray(Response response) {
+        try {
+            return (Res[]) arrayReader.readValue(response.asByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert JSON to " + responseType.getSimpleName() + "[]", e);
+        }
+    }
+
+    /**
+     * Map the response body to a list of items
+     */
+    public List<Res> readList(Response response) {
+        try {
+            return listReader.readValue(response.asByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert JSON to List<" + responseType.getSimpleName() + ">", e);
+        }
+    }
+
+    /**
+     * Stream items from the response bytes already buffered by RestAssured, building one
+     * item at a time instead of the whole array
+     */
+    public Stream<Res> stream(Response response) {
+        return APIUtils.streamJsonArray(response.asInputStream(), responseType);
+    }
+
+    /**
+     * Iterate items from the response bytes, one at a time
+     */
+    public Iterator<Res> iterate(Response response) {
+        return APIUtils.iterateJsonArray(response.asInputStream(), responseType);
+    }
+
+    /**
+     * Cache counters, or null when caching is disabled
+     */
+    public ResponseCache.Stats getCacheStats() {
+        return cache != null ? cache.getStats() : null;
+    }
+
+    /**
+     * Run a GET through the cache: fresh entries skip the network, stale entries are
+     * revalidated with a conditional request and reused on 304. Both hand back the cached
+     * Response, whose getTime() is that of the request that filled the entry.
+     */
+    protected Response cachedGet(String key, Function<RequestSpecification, Response> call) {
+        if (cache == null) {
+            return call.apply(requestFactory.get());
+        }
+        long ticket = cache.ticket();
+        ResponseCache.Entry entry = cache.lookup(key);
+        if (entry != null && entry.isFresh()) {
+            LoggerUtils.debug(() -> "Cache hit: " + key);
+            return entry.getResponse();
+        }
+        RequestSpecification spec = requestFactory.get();
+        Response response = call.apply(entry != null ? entry.conditional(spec) : spec);
+        if (entry != null && response.getStatusCode() == 304) {
+            LoggerUtils.debug(() -> "Cache revalidated: " + key);
+            return cache.revalidated(key, ticket, entry);
+        }
+        cache.store(key, ticket, response);
+        return response;
+    }
+
+    protected void invalidate(String... keys) {
+        if (cache != null) {
+            cache.invalidate(keys);
+        }
+    }
+
+    protected String itemKey(Object id) {
+        return endpoint + "/" + id;
+    }
+
+    private byte[] serialize(Req request) {
+        try {
+            return requestWriter.writeValueAsBytes(request);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert object to JSON", e);
+        }
+    }
+
+    /**
+     * Path param name for an item: last path segment, singular, plus "Id"
+     */
+    private static String idParam(String endpoint) {
+        String resource = endpoint.substring(endpoint.lastIndexOf('/') + 1);
+        if (resource.endsWith("s")) {
+            resource = resource.substring(0, resource.length() - 1);
+        }
+        return resource + "Id";
+    }
+}
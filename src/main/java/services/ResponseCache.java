@@ -0,0 +1,276 @@
+package services;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import config.ConfigSnapshot;
+
+/**
+ * Size-bounded cache for idempotent GET responses.
+ *
+ * Entries are evicted least-recently-used once maxEntries is reached and go stale after
+ * the TTL. A stale entry that carried an ETag or Last-Modified header is kept and
+ * revalidated with a conditional request; a 304 refreshes it without transferring the
+ * body again. Stale entries without validators are dropped. Only 200 responses are cached.
+ *
+ * Each request takes a ticket before its lookup, and store/revalidated only write when no
+ * invalidation of the key (or clear) came after that ticket and no later request already
+ * stored the key; otherwise a response read before a write could be cached after it.
+ *
+ * Hits and revalidations hand out the cached Response object itself, so its getTime() is
+ * the network time of the request that filled the entry, not of the current call.
+ */
+public class ResponseCache {
+
+    private static volatile ResponseCache shared;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    /** Ticket of the last invalidation per key; kept for every key ever invalidated */
+    private final Map<String, Long> invalidatedAt = new HashMap<>();
+    private long clock;
+    private long clearedAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder savedMillis = new LongAdder();
+
+    public ResponseCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache needs room for at least one entry: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Process-wide cache built from config, or null when cache.enabled is false
+     */
+    public static ResponseCache shared() {
+        ConfigSnapshot.Cache config = ConfigSnapshot.get().getCache();
+        if (!config.isEnabled()) {
+            return null;
+        }
+        if (shared == null) {
+            synchronized (ResponseCache.class) {
+                if (shared == null) {
+                    shared = new ResponseCache(config.getMaxEntries(), config.getTtlMillis());
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Ticket for a request about to look up and maybe fill an entry; later requests get higher tickets
+     */
+    public synchronized long ticket() {
+        return ++clock;
+    }
+
+    /**
+     * Entry for the key. Fresh entries count as hits; stale entries with validators are
+     * returned for revalidation but still count as misses, since they cost a round trip.
+     */
+    public synchronized Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isFresh()) {
+            hits.increment();
+            savedMillis.add(entry.response.getTime());
+            return entry;
+        }
+        misses.increment();
+        if (entry.hasValidators()) {
+            return entry;
+        }
+        entries.remove(key);
+        expirations.increment();
+        return null;
+    }
+
+    /**
+     * Cache a 200 response fetched under the ticket; other statuses, and responses the key
+     * was invalidated or re-stored after, are ignored
+     */
+    public void store(String key, long ticket, Response response) {
+        if (response.getStatusCode() != 200) {
+            return;
+        }
+        // Read the body now so later readers never touch the network stream
+        response.asByteArray();
+        Entry entry = new Entry(response, response.getHeader("ETag"), response.getHeader("Last-Modified"),
+            System.nanoTime() + ttlNanos, ticket);
+        synchronized (this) {
+            if (isCurrent(key, ticket)) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Record a 304 for a stale entry and extend its lifetime, unless the key changed since the ticket
+     */
+    public synchronized Response revalidated(String key, long ticket, Entry entry) {
+        revalidations.increment();
+        if (isCurrent(key, ticket)) {
+            entries.put(key, new Entry(entry.response, entry.etag, entry.lastModified, System.nanoTime() + ttlNanos,
+                ticket));
+        }
+        return entry.response;
+    }
+
+    /**
+     * Drop the entry for each key, and keep requests already in flight from putting it back
+     */
+    public synchronized void invalidate(String... keys) {
+        long ticket = ++clock;
+        for (String key : keys) {
+            invalidatedAt.put(key, ticket);
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        clearedAt = ++clock;
+        entries.clear();
+    }
+
+    /**
+     * Whether a response fetched under the ticket may still be written for the key
+     */
+    private boolean isCurrent(String key, long ticket) {
+        if (ticket < clearedAt || ticket < invalidatedAt.getOrDefault(key, 0L)) {
+            return false;
+        }
+        Entry existing = entries.get(key);
+        return existing == null || existing.ticket <= ticket;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), revalidations.sum(), evictions.sum(), expirations.sum(),
+            invalidations.sum(), savedMillis.sum());
+    }
+
+    /**
+     * One cached response with its validators
+     */
+    public static final class Entry {
+        private final Response response;
+        private final String etag;
+        private final String lastModified;
+        private final long expiresAtNanos;
+        private final long ticket;
+
+        Entry(Response response, String etag, String lastModified, long expiresAtNanos, long ticket) {
+            this.response = response;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAtNanos = expiresAtNanos;
+            this.ticket = ticket;
+        }
+
+        public Response getResponse() {
+            return response;
+        }
+
+        public boolean isFresh() {
+            return System.nanoTime() - expiresAtNanos < 0;
+        }
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        /**
+         * Add If-None-Match / If-Modified-Since so the server can answer 304
+         */
+        public RequestSpecification conditional(RequestSpecification spec) {
+            if (etag != null) {
+                spec.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                spec.header("If-Modified-Since", lastModified);
+            }
+            return spec;
+        }
+    }
+
+    /**
+     * Counter snapshot
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long revalidations;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+        private final long savedMillis;
+
+        Stats(long hits, long misses, long revalidations, long evictions, long expirations, long invalidations,
+                long savedMillis) {
+            this.hits = hits;
+            this.misses = misses;
+            this.revalidations = revalidations;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+            this.savedMillis = savedMillis;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getRevalidations() { return revalidations; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getInvalidations() { return invalidations; }
+
+        /**
+         * Sum of the original response times of every hit: network time not spent
+         */
+        public long getSavedMillis() { return savedMillis; }
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d revalidations=%d evictions=%d expirations=%d "
+                + "invalidations=%d savedMs=%d hitRatio=%.2f", hits, misses, revalidations, evictions,
+                expirations, invalidations, savedMillis, getHitRatio());
+        }
+    }
+}
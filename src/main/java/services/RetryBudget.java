@@ -0,0 +1,80 @@
+package services;
+
+import config.ConfigSnapshot;
+
+/**
+ * Token bucket that caps extra requests (hedges and retries) to a fraction of real traffic.
+ *
+ * Every original call deposits ratio tokens and every extra request spends a whole one,
+ * so in the long run extra load stays below ratio x calls however badly the backend is
+ * doing. The bucket starts full and holds at most maxTokens, which allows a short burst
+ * of retries after a quiet spell but never a retry storm.
+ */
+public class RetryBudget {
+
+    private static volatile RetryBudget shared;
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+    private long denied;
+
+    public RetryBudget(double ratio, double maxTokens) {
+        if (!(ratio >= 0) || !(maxTokens >= 1)) {
+            throw new IllegalArgumentException("ratio must be >= 0 and maxTokens >= 1: " + ratio + ", " + maxTokens);
+        }
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    /**
+     * Process-wide budget built from config, so every caller draws on the same bucket
+     */
+    public static RetryBudget shared() {
+        if (shared == null) {
+            synchronized (RetryBudget.class) {
+                if (shared == null) {
+                    ConfigSnapshot.Resilience config = ConfigSnapshot.get().getResilience();
+                    shared = new RetryBudget(config.getRetryBudgetRatio(), config.getRetryBudgetMaxTokens());
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Credit the bucket for one original call
+     */
+    public synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Spend one token for an extra request; false when the budget is used up
+     */
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            denied++;
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    public synchronized double getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Extra requests refused so far
+     */
+    public synchronized long getDenied() {
+        return denied;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("RetryBudget[%.1f/%.0f tokens, ratio %.2f, %d denied]", tokens, maxTokens, ratio, denied);
+    }
+}
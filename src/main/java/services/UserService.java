@@ -1,24 +1,50 @@
 package services;
 
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import io.qameta.allure.Step;
+import base.RequestSpecFactory;
 import mdoels.request.UserRequest;
 import mdoels.response.UserResponse;
-import utils.APIUtils;
+import utils.LoggerUtils;
 
 /**
  * User Service class for User API operations
  * Follows Page Object Model pattern for API testing
  */
-public class UserService {
+public class UserService extends ResourceService<UserRequest, UserResponse> {
 
     private static final String USERS_ENDPOINT = "/users";
 
-    private RequestSpecification requestSpec;
+    /**
+     * Use the shared base specification from RequestSpecFactory, and the shared
+     * response cache when cache.enabled is set
+     */
+    public UserService() {
+        this(RequestSpecFactory::newRequest, ResponseCache.shared());
+    }
 
+    /**
+     * Use the given specification as a template; every call works on its own copy
+     */
     public UserService(RequestSpecification requestSpec) {
-        this.requestSpec = requestSpec;
+        this(() -> RestAssured.given().spec(requestSpec));
+    }
+
+    public UserService(Supplier<RequestSpecification> requestFactory) {
+        this(requestFactory, null);
+    }
+
+    /**
+     * Serve GETs through the given cache; null disables caching
+     */
+    public UserService(Supplier<RequestSpecification> requestFactory, ResponseCache cache) {
+        super(USERS_ENDPOINT, UserRequest.class, UserResponse.class, requestFactory, cache);
     }
 
     /**
@@ -26,16 +52,11 @@ public class UserService {
      */
     @Step("Get all users from API")
     public Response getAllUsers() {
-        System.out.println("🔍 Getting all users...");
+        LoggerUtils.info("🔍 Getting all users...");
 
-        Response response = requestSpec
-            .when()
-                .get(USERS_ENDPOINT)
-            .then()
-                .extract()
-                .response();
+        Response response = getAll();
 
-        System.out.println("✅ Retrieved users list");
+        LoggerUtils.success("✅ Retrieved users list");
         return response;
     }
 
@@ -44,17 +65,11 @@ public class UserService {
      */
     @Step("Get user by ID: {userId}")
     public Response getUserById(int userId) {
-        System.out.println("🔍 Getting user with ID: " + userId);
+        LoggerUtils.info(() -> "🔍 Getting user with ID: " + userId);
 
-        Response response = requestSpec
-            .pathParam("userId", userId)
-            .when()
-                .get(USERS_ENDPOINT + "/{userId}")
-            .then()
-                .extract()
-                .response();
+        Response response = getById(userId);
 
-        System.out.println("✅ Retrieved user: " + userId);
+        LoggerUtils.success(() -> "✅ Retrieved user: " + userId);
         return response;
     }
 
@@ -63,17 +78,11 @@ public class UserService {
      */
     @Step("Create new user: {userRequest}")
     public Response createUser(UserRequest userRequest) {
-        System.out.println("📝 Creating new user: " + userRequest.getName());
+        LoggerUtils.info(() -> "📝 Creating new user: " + userRequest.getName());
 
-        Response response = requestSpec
-            .body(APIUtils.toJson(userRequest))
-            .when()
-                .post(USERS_ENDPOINT)
-            .then()
-                .extract()
-                .response();
+        Response response = create(userRequest);
 
-        System.out.println("✅ User created successfully");
+        LoggerUtils.success("✅ User created successfully");
         return response;
     }
 
@@ -82,18 +91,11 @@ public class UserService {
      */
     @Step("Update user {userId} with data: {userRequest}")
     public Response updateUser(int userId, UserRequest userRequest) {
-        System.out.println("✏️ Updating user: " + userId);
-
-        Response response = requestSpec
-            .pathParam("userId", userId)
-            .body(APIUtils.toJson(userRequest))
-            .when()
-                .put(USERS_ENDPOINT + "/{userId}")
-            .then()
-                .extract()
-                .response();
-
-        System.out.println("✅ User updated successfully");
+        LoggerUtils.info(() -> "✏️ Updating user: " + userId);
+
+        Response response = update(userId, userRequest);
+
+        LoggerUtils.success("✅ User updated successfully");
         return response;
     }
 
@@ -102,17 +104,11 @@ public class UserService {
      */
     @Step("Delete user with ID: {userId}")
     public Response deleteUser(int userId) {
-        System.out.println("🗑️ Deleting user: " + userId);
+        LoggerUtils.info(() -> "🗑️ Deleting user: " + userId);
 
-        Response response = requestSpec
-            .pathParam("userId", userId)
-            .when()
-                .delete(USERS_ENDPOINT + "/{userId}")
-            .then()
-                .extract()
-                .response();
+        Response response = delete(userId);
 
-        System.out.println("✅ User deleted successfully");
+        LoggerUtils.success("✅ User deleted successfully");
         return response;
     }
 
@@ -120,13 +116,29 @@ public class UserService {
      * Convert response to UserResponse object
      */
     public UserResponse convertToUserResponse(Response response) {
-        return APIUtils.fromJson(response.asString(), UserResponse.class);
+        return read(response);
     }
 
     /**
      * Convert response to UserResponse array
      */
     public UserResponse[] convertToUserResponseArray(Response response) {
-        return APIUtils.fromJson(response.asString(), UserResponse[].class);
+        return readArray(response);
+    }
+
+    /**
+     * Stream UserResponse objects from the response bytes. RestAssured has already
+     * buffered the body, so this saves decoding it to a String and holding every
+     * UserResponse at once, not reading the bytes into memory.
+     */
+    public Stream<UserResponse> streamUserResponses(Response response) {
+        return stream(response);
+    }
+
+    /**
+     * Iterate UserResponse objects from the response bytes, one at a time
+     */
+    public Iterator<UserResponse> iterateUserResponses(Response response) {
+        return iterate(response);
     }
 }
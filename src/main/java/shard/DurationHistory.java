@@ -0,0 +1,142 @@
+package shard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import utils.LoggerUtils;
+
+/**
+ * TestNG listener that records how long each test method takes and folds the results
+ * into target/test-history/durations.properties as an exponentially weighted moving average.
+ * The file lives under target so no run ever dirties the working tree; mvn clean drops it
+ * and sharding falls back to even method counts until it is rebuilt. CI should cache
+ * target/test-history between builds to keep the plan balanced.
+ *
+ * Durations of data-provider invocations are summed per method, since a method is the
+ * unit ShardPlanner assigns. The file is updated under an OS file lock at suite end, so
+ * shards finishing at the same time merge their results instead of overwriting each other.
+ */
+public class DurationHistory implements ITestListener, ISuiteListener {
+
+    public static final Path DEFAULT_FILE = Paths.get("target", "test-history", "durations.properties");
+
+    /** Weight of the latest run in the moving average */
+    private static final double ALPHA = 0.3;
+
+    private final Map<String, LongAdder> observed = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (observed.isEmpty()) {
+            return;
+        }
+        Map<String, Long> durations = new HashMap<>();
+        observed.forEach((key, total) -> durations.put(key, total.sum()));
+        try {
+            merge(DEFAULT_FILE, durations);
+            LoggerUtils.info(() -> "⏱️ Recorded durations for " + durations.size() + " tests in " + DEFAULT_FILE);
+        } catch (IOException e) {
+            LoggerUtils.warn("Failed to update test duration history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Key for a test method in the history file
+     */
+    public static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    /**
+     * Load the moving-average durations in milliseconds; empty when there is no history yet
+     */
+    public static Map<String, Long> load(Path file) throws IOException {
+        Map<String, Long> durations = new HashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return durations;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                durations.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            } catch (NumberFormatException e) {
+                // Hand-edited or corrupt entry; the planner falls back to an estimate
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Fold one run's durations into the file
+     */
+    public static void merge(Path file, Map<String, Long> durations) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path lockFile = directory.resolve(file.getFileName() + ".lock");
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = lockChannel.lock()) {
+            Map<String, Long> history = load(file);
+            for (Map.Entry<String, Long> entry : durations.entrySet()) {
+                Long previous = history.get(entry.getKey());
+                long value = previous == null ? entry.getValue()
+                    : Math.round(ALPHA * entry.getValue() + (1 - ALPHA) * previous);
+                history.put(entry.getKey(), value);
+            }
+            Properties properties = new Properties() {
+                // Sorted output keeps the file diff-friendly
+                @Override
+                public synchronized Set<Map.Entry<Object, Object>> entrySet() {
+                    Map<Object, Object> sorted = new TreeMap<>();
+                    for (Map.Entry<Object, Object> entry : super.entrySet()) {
+                        sorted.put(entry.getKey(), entry.getValue());
+                    }
+                    return sorted.entrySet();
+                }
+            };
+            history.forEach((key, value) -> properties.setProperty(key, Long.toString(value)));
+            Path temp = directory.resolve(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Moving-average test durations in milliseconds, maintained by DurationHistory");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void record(ITestResult result) {
+        String key = key(result.getTestClass().getName(), result.getMethod().getMethodName());
+        observed.computeIfAbsent(key, k -> new LongAdder()).add(result.getEndMillis() - result.getStartMillis());
+    }
+}
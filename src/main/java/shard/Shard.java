@@ -0,0 +1,31 @@
+package shard;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Identity of the current shard JVM, set by ShardRunner through -Dshard.index
+ */
+public final class Shard {
+
+    public static final String INDEX_PROPERTY = "shard.index";
+
+    private Shard() {
+    }
+
+    /**
+     * Index of this shard, or -1 when not running as a shard
+     */
+    public static int index() {
+        return Integer.getInteger(INDEX_PROPERTY, -1);
+    }
+
+    /**
+     * Per-shard subdirectory of the base output directory, or the base itself outside a shard,
+     * so parallel shard JVMs never write to the same report files
+     */
+    public static Path outputDir(String base) {
+        int index = index();
+        return index < 0 ? Paths.get(base) : Paths.get(base, "shard-" + index);
+    }
+}
@@ -0,0 +1,296 @@
+package shard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.testng.TestNGException;
+import org.testng.annotations.Test;
+import org.testng.xml.SuiteXmlParser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Splits the test methods of a TestNG suite into balanced shards.
+ *
+ * Methods are grouped so that every dependsOnMethods chain stays in one shard, each group
+ * is costed from DurationHistory (unknown methods get the mean of the known ones), and the
+ * groups are assigned longest-processing-time-first: biggest group to the currently
+ * lightest shard. Each shard is written as a standalone suite XML with the original
+ * suite's parameters, listeners and parallel settings.
+ */
+public class ShardPlanner {
+
+    /** Estimate for methods with no history at all */
+    private static final long DEFAULT_DURATION_MILLIS = 1000;
+
+    private final Map<String, Long> history;
+
+    public ShardPlanner(Map<String, Long> history) {
+        this.history = history;
+    }
+
+    /**
+     * Plan the suite into at most shardCount shards; empty shards are dropped
+     */
+    public List<Plan> plan(Path suiteFile, int shardCount) throws IOException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1: " + shardCount);
+        }
+        XmlSuite suite = parse(suiteFile);
+        List<Group> groups = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                groups.addAll(groupsFor(test.getName(), xmlClass));
+            }
+        }
+
+        long fallback = meanKnownDuration(groups);
+        for (Group group : groups) {
+            group.estimate(history, fallback);
+        }
+        groups.sort(Comparator.comparingLong((Group g) -> g.estimateMillis).reversed());
+
+        List<Plan> plans = new ArrayList<>();
+        PriorityQueue<Plan> lightest = new PriorityQueue<>(Comparator.comparingLong((Plan p) -> p.estimateMillis)
+            .thenComparingInt(p -> p.index));
+        for (int i = 0; i < shardCount; i++) {
+            Plan plan = new Plan(i, suite);
+            plans.add(plan);
+            lightest.add(plan);
+        }
+        for (Group group : groups) {
+            Plan plan = lightest.poll();
+            plan.add(group);
+            lightest.add(plan);
+        }
+        plans.removeIf(plan -> plan.groups.isEmpty());
+        return plans;
+    }
+
+    private static XmlSuite parse(Path suiteFile) throws IOException {
+        try (InputStream in = Files.newInputStream(suiteFile)) {
+            XmlSuite suite = new SuiteXmlParser().parse(suiteFile.toString(), in, false);
+            if (suite == null) {
+                throw new IOException("No suite found in " + suiteFile);
+            }
+            return suite;
+        } catch (TestNGException e) {
+            throw new IOException("Unable to parse " + suiteFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Split one class into groups of methods connected by dependsOnMethods
+     */
+    private static List<Group> groupsFor(String testName, XmlClass xmlClass) {
+        Map<String, Set<String>> dependencies = testMethods(xmlClass.getName());
+        List<String> selected = new ArrayList<>();
+        if (xmlClass.getIncludedMethods().isEmpty()) {
+            selected.addAll(dependencies.keySet());
+        } else {
+            for (XmlInclude include : xmlClass.getIncludedMethods()) {
+                selected.add(include.getName());
+            }
+        }
+        selected.removeAll(xmlClass.getExcludedMethods());
+
+        // Union-find over the dependency edges; a dependency outside the selection is
+        // pulled into the group so the shard can still satisfy it
+        Map<String, String> parent = new LinkedHashMap<>();
+        List<String> pending = new ArrayList<>(selected);
+        while (!pending.isEmpty()) {
+            String method = pending.remove(pending.size() - 1);
+            if (parent.putIfAbsent(method, method) != null) {
+                continue;
+            }
+            for (String dependency : dependencies.getOrDefault(method, Collections.emptySet())) {
+                pending.add(dependency);
+            }
+        }
+        for (String method : new ArrayList<>(parent.keySet())) {
+            for (String dependency : dependencies.getOrDefault(method, Collections.emptySet())) {
+                parent.put(find(parent, method), find(parent, dependency));
+            }
+        }
+
+        Map<String, Group> byRoot = new LinkedHashMap<>();
+        for (String method : parent.keySet()) {
+            byRoot.computeIfAbsent(find(parent, method), root -> new Group(testName, xmlClass))
+                .methods.add(method);
+        }
+        return new ArrayList<>(byRoot.values());
+    }
+
+    private static String find(Map<String, String> parent, String method) {
+        String root = parent.get(method);
+        while (!root.equals(parent.get(root))) {
+            root = parent.get(root);
+        }
+        parent.put(method, root);
+        return root;
+    }
+
+    /**
+     * @Test methods of the class, in declaration order, with their dependsOnMethods
+     */
+    private static Map<String, Set<String>> testMethods(String className) {
+        Class<?> testClass;
+        try {
+            testClass = Class.forName(className, false, ShardPlanner.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Test class not on the classpath: " + className, e);
+        }
+        Map<String, Set<String>> methods = new LinkedHashMap<>();
+        for (Method method : testClass.getMethods()) {
+            Test test = method.getAnnotation(Test.class);
+            if (test != null) {
+                Set<String> dependsOn = new LinkedHashSet<>();
+                for (String dependency : test.dependsOnMethods()) {
+                    dependsOn.add(dependency.substring(dependency.lastIndexOf('.') + 1));
+                }
+                methods.put(method.getName(), dependsOn);
+            }
+        }
+        return methods;
+    }
+
+    private long meanKnownDuration(List<Group> groups) {
+        long total = 0;
+        int known = 0;
+        for (Group group : groups) {
+            for (String method : group.methods) {
+                Long duration = history.get(DurationHistory.key(group.xmlClass.getName(), method));
+                if (duration != null) {
+                    total += duration;
+                    known++;
+                }
+            }
+        }
+        return known == 0 ? DEFAULT_DURATION_MILLIS : total / known;
+    }
+
+    /**
+     * Methods of one class that must run in the same shard
+     */
+    private static final class Group {
+        private final String testName;
+        private final XmlClass xmlClass;
+        private final List<String> methods = new ArrayList<>();
+        private long estimateMillis;
+
+        Group(String testName, XmlClass xmlClass) {
+            this.testName = testName;
+            this.xmlClass = xmlClass;
+        }
+
+        void estimate(Map<String, Long> history, long fallback) {
+            estimateMillis = 0;
+            for (String method : methods) {
+                estimateMillis += history.getOrDefault(DurationHistory.key(xmlClass.getName(), method), fallback);
+            }
+        }
+    }
+
+    /**
+     * One shard: the groups assigned to it and its estimated duration
+     */
+    public static final class Plan {
+        private final int index;
+        private final XmlSuite source;
+        private final List<Group> groups = new ArrayList<>();
+        private long estimateMillis;
+
+        Plan(int index, XmlSuite source) {
+            this.index = index;
+            this.source = source;
+        }
+
+        void add(Group group) {
+            groups.add(group);
+            estimateMillis += group.estimateMillis;
+        }
+
+        public int getIndex() { return index; }
+        public long getEstimateMillis() { return estimateMillis; }
+
+        public int getMethodCount() {
+            int count = 0;
+            for (Group group : groups) {
+                count += group.methods.size();
+            }
+            return count;
+        }
+
+        /**
+         * Standalone suite for this shard: original <test>s and classes, narrowed to the assigned methods
+         */
+        public XmlSuite toSuite() {
+            XmlSuite suite = new XmlSuite();
+            suite.setName(source.getName() + " [shard " + index + "]");
+            suite.setParameters(source.getParameters());
+            suite.setListeners(new ArrayList<>(source.getListeners()));
+            suite.setParallel(source.getParallel());
+            suite.setThreadCount(source.getThreadCount());
+            suite.setVerbose(source.getVerbose());
+
+            Map<String, Map<String, List<String>>> methodsByTest = new LinkedHashMap<>();
+            Map<String, XmlTest> sourceTests = new HashMap<>();
+            for (XmlTest test : source.getTests()) {
+                sourceTests.put(test.getName(), test);
+            }
+            for (Group group : groups) {
+                methodsByTest.computeIfAbsent(group.testName, t -> new LinkedHashMap<>())
+                    .computeIfAbsent(group.xmlClass.getName(), c -> new ArrayList<>())
+                    .addAll(group.methods);
+            }
+            for (Map.Entry<String, Map<String, List<String>>> test : methodsByTest.entrySet()) {
+                XmlTest xmlTest = new XmlTest(suite);
+                xmlTest.setName(test.getKey());
+                xmlTest.setParameters(sourceTests.get(test.getKey()).getLocalParameters());
+                List<XmlClass> classes = new ArrayList<>();
+                for (Map.Entry<String, List<String>> testClass : test.getValue().entrySet()) {
+                    XmlClass xmlClass = new XmlClass(testClass.getKey(), false);
+                    List<XmlInclude> includes = new ArrayList<>();
+                    for (String method : testClass.getValue()) {
+                        includes.add(new XmlInclude(method));
+                    }
+                    xmlClass.setIncludedMethods(includes);
+                    classes.add(xmlClass);
+                }
+                xmlTest.setXmlClasses(classes);
+            }
+            return suite;
+        }
+
+        /**
+         * Write the shard suite XML into the directory and return its path
+         */
+        public Path write(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            Path file = directory.resolve("shard-" + index + ".xml");
+            Files.write(file, toSuite().toXml().getBytes(StandardCharsets.UTF_8));
+            return file;
+        }
+
+        @Override
+        public String toString() {
+            return "shard " + index + ": " + getMethodCount() + " methods, ~" + estimateMillis + " ms";
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package shard;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import base.TestExecutorFactory;
+import stub.FaultProfile;
+import utils.LoggerUtils;
+import utils.PerfGate;
+
+/**
+ * Runs a TestNG suite as N shards in parallel forked JVMs.
+ *
+ * Usage: ShardRunner <suite.xml> [shards]. A missing or non-positive shard count means one
+ * shard per processor. Each shard gets its own suite XML, TestNG output directory
+ * and log under target/shards, and -Dshard.index so per-JVM reports land in their own
+ * subdirectories (see Shard), and runs its methods on TestExecutorFactory (virtual threads
+ * where available, see test.executor). All shards share one perf.run.id and only record
+ * their latencies; PerfGate judges the whole run here once every shard has exited. Allure results all go to one results directory, so
+ * they need no merge; the Extent event streams are concatenated once every shard has finished.
+ * The Extent HTML reports are not merged: each shard's stays in target/extent-reports/shard-N.
+ * The exit code is the highest exit code of any shard, or 1 if the performance gate fails.
+ */
+public class ShardRunner {
+
+    private static final Path SHARD_DIR = Paths.get("target", "shards");
+    private static final String EXTENT_DIR = "target/extent-reports";
+
+    /** System properties forwarded to every shard JVM, along with any stub.fault.* overrides */
+    private static final String[] FORWARDED_PROPERTIES = {
+        "environment", "allure.results.directory", "stub.enabled", "port", "cassette.mode", "cassette.file",
+        "test.executor", "test.executor.concurrency", "sun.net.httpserver.nodelay"
+    };
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ShardRunner <suite.xml> [shards]");
+            System.exit(2);
+        }
+        Path suiteFile = Paths.get(args[0]);
+        int shards = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        if (shards <= 0) {
+            shards = Runtime.getRuntime().availableProcessors();
+        }
+        System.exit(run(suiteFile, shards));
+    }
+
+    /**
+     * Plan, fork and wait for all shards, then gate the run; returns the highest exit code
+     */
+    public static int run(Path suiteFile, int shards) throws IOException, InterruptedException {
+        Map<String, Long> history = DurationHistory.load(DurationHistory.DEFAULT_FILE);
+        List<ShardPlanner.Plan> plans = new ShardPlanner(history).plan(suiteFile, shards);
+        LoggerUtils.info("🧩 Split " + suiteFile + " into " + plans.size() + " shards"
+            + (history.isEmpty() ? " (no duration history yet)" : ""));
+
+        clean(SHARD_DIR);
+        clean(Paths.get(EXTENT_DIR));
+        // One perf run id for all shards, so the performance history sees one run, not N
+        String runId = System.getProperty(PerfGate.RUN_ID_PROPERTY, UUID.randomUUID().toString());
+        List<Process> processes = new ArrayList<>();
+        for (ShardPlanner.Plan plan : plans) {
+            LoggerUtils.info("🧩 " + plan);
+            processes.add(fork(plan.getIndex(), plan.write(SHARD_DIR), runId));
+        }
+
+        int exitCode = 0;
+        for (int i = 0; i < processes.size(); i++) {
+            int shardExit = processes.get(i).waitFor();
+            int index = plans.get(i).getIndex();
+            if (shardExit != 0) {
+                LoggerUtils.error("Shard " + index + " failed with exit code " + shardExit + ", see "
+                    + SHARD_DIR.resolve("shard-" + index + ".log"));
+            }
+            exitCode = Math.max(exitCode, shardExit);
+        }
+
+        mergeExtentEvents();
+        try {
+            PerfGate.checkRun(runId);
+        } catch (AssertionError e) {
+            LoggerUtils.error(e.getMessage());
+            exitCode = Math.max(exitCode, 1);
+        }
+        LoggerUtils.info("🧩 All shards finished" + (exitCode == 0 ? "" : " with failures"));
+        return exitCode;
+    }
+
+    private static Process fork(int index, Path shardSuite, String runId) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-D" + Shard.INDEX_PROPERTY + "=" + index);
+        command.add("-D" + TestExecutorFactory.ENABLE_PROPERTY + "=true");
+        command.add("-D" + PerfGate.RUN_ID_PROPERTY + "=" + runId);
+        for (String property : FORWARDED_PROPERTIES) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                command.add("-D" + property + "=" + value);
+            }
+        }
+        for (String property : System.getProperties().stringPropertyNames()) {
+            if (property.startsWith(FaultProfile.PREFIX)) {
+                command.add("-D" + property + "=" + System.getProperty(property));
+            }
+        }
+        String jvmArgs = System.getProperty("shard.jvm.args", "").trim();
+        if (!jvmArgs.isEmpty()) {
+            for (String arg : jvmArgs.split("\\s+")) {
+                command.add(arg);
+            }
+        }
+        command.add("org.testng.TestNG");
+        command.add("-threadpoolfactoryclass");
+        command.add(TestExecutorFactory.class.getName());
+        command.add("-d");
+        command.add(SHARD_DIR.resolve("shard-" + index + "-output").toString());
+        command.add(shardSuite.toString());
+
+        File log = SHARD_DIR.resolve("shard-" + index + ".log").toFile();
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log)
+            .start();
+    }
+
+    /**
+     * Remove the previous run's shard files so stale logs and reports are never merged
+     */
+    private static void clean(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                if (!file.equals(directory) && directory.relativize(file).getName(0).toString().startsWith("shard-")) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Concatenate each shard's events.ndjson into the top-level stream
+     */
+    private static void mergeExtentEvents() throws IOException {
+        Path extentDir = Paths.get(EXTENT_DIR);
+        if (!Files.isDirectory(extentDir)) {
+            return;
+        }
+        Path merged = extentDir.resolve("events.ndjson");
+        try (OutputStream out = Files.newOutputStream(merged, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DirectoryStream<Path> shardDirs = Files.newDirectoryStream(extentDir, "shard-*")) {
+            for (Path shardDir : shardDirs) {
+                Path events = shardDir.resolve("events.ndjson");
+                if (Files.isRegularFile(events)) {
+                    Files.copy(events, out);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package stub;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Latency and failure injection for LocalStubServer, configured from stub.fault.* properties.
+ *
+ * Every setting has a default (stub.fault.latency) and optional per-endpoint overrides with
+ * the path appended (stub.fault.latency./users). A request uses the rule of the longest
+ * configured path that is a prefix of its own, at a segment boundary, so /users/1 falls back
+ * to /users, then to the defaults. Settings:
+ *
+ *   latency          delay before the response starts (see LatencyDistribution)
+ *   error.rate       fraction answered with one of error.statuses instead of the real body
+ *   reset.rate       fraction whose connection is dropped without any response
+ *   truncate.rate    fraction whose body stops halfway through the declared Content-Length
+ *   bandwidth.kbps   response body throughput in kilobits per second, 0 for unlimited
+ *
+ * The three rates are exclusive and must add up to at most 1. Draws come from a Random
+ * seeded with stub.fault.seed, the request's method and concrete path, and a counter kept per
+ * method and path. GET /users/3 therefore sees the same sequence of delays and faults on
+ * every run, however requests to /users/1 or any other path interleave with it, including
+ * under parallel test methods. Only concurrent requests for the very same method and path
+ * can swap draws with each other.
+ */
+public class FaultProfile {
+
+    public static final String PREFIX = "stub.fault.";
+
+    private static final int[] DEFAULT_ERROR_STATUSES = {500, 502, 503, 504};
+
+    public static final FaultProfile NONE = new FaultProfile(false, 0, Collections.emptyList(),
+        new Rule("", LatencyDistribution.NONE, 0, DEFAULT_ERROR_STATUSES, 0, 0, 0));
+
+    private static final String[] SETTINGS = {
+        "latency", "error.rate", "error.statuses", "reset.rate", "truncate.rate", "bandwidth.kbps"
+    };
+
+    private final boolean enabled;
+    private final long seed;
+    private final List<Rule> endpointRules;
+    private final Rule defaultRule;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder truncations = new LongAdder();
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    private FaultProfile(boolean enabled, long seed, List<Rule> endpointRules, Rule defaultRule) {
+        this.enabled = enabled;
+        this.seed = seed;
+        this.endpointRules = endpointRules;
+        this.defaultRule = defaultRule;
+    }
+
+    /**
+     * Build the profile from configuration values; problems are added to errors and NONE is returned
+     */
+    public static FaultProfile parse(Map<String, String> values, List<String> errors) {
+        Map<String, Map<String, String>> byEndpoint = new LinkedHashMap<>();
+        byEndpoint.put("", new LinkedHashMap<>());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(PREFIX)) {
+                continue;
+            }
+            String setting = key.substring(PREFIX.length());
+            String endpoint = "";
+            int slash = setting.indexOf("./");
+            if (slash >= 0) {
+                endpoint = normalize(setting.substring(slash + 1));
+                setting = setting.substring(0, slash);
+            }
+            if (setting.equals("enabled") || setting.equals("seed")) {
+                if (!endpoint.isEmpty()) {
+                    errors.add(key + ": " + setting + " can't be set per endpoint");
+                }
+                continue;
+            }
+            if (!isSetting(setting)) {
+                errors.add(key + " is not a known stub fault setting");
+                continue;
+            }
+            byEndpoint.computeIfAbsent(endpoint, path -> new LinkedHashMap<>()).put(setting, entry.getValue());
+        }
+
+        boolean enabled = Boolean.parseBoolean(values.getOrDefault(PREFIX + "enabled", "false").trim());
+        long seed;
+        try {
+            seed = Long.parseLong(values.getOrDefault(PREFIX + "seed", "42").trim());
+        } catch (NumberFormatException e) {
+            errors.add(PREFIX + "seed is not a number: " + values.get(PREFIX + "seed"));
+            return NONE;
+        }
+
+        int errorCount = errors.size();
+        Map<String, String> defaults = byEndpoint.get("");
+        Rule defaultRule = rule("", defaults, Collections.emptyMap(), errors);
+        List<Rule> endpointRules = new ArrayList<>();
+        for (Map.Entry<String, Map<String, String>> endpoint : byEndpoint.entrySet()) {
+            if (!endpoint.getKey().isEmpty()) {
+                endpointRules.add(rule(endpoint.getKey(), endpoint.getValue(), defaults, errors));
+            }
+        }
+        if (errors.size() > errorCount) {
+            return NONE;
+        }
+        // Longest path first, so the first match is the most specific
+        endpointRules.sort(Comparator.comparingInt((Rule r) -> r.path.length()).reversed());
+        return new FaultProfile(enabled, seed, endpointRules, defaultRule);
+    }
+
+    private static boolean isSetting(String setting) {
+        for (String candidate : SETTINGS) {
+            if (candidate.equals(setting)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Build one rule. Values inherited from the defaults were already checked for the default
+     * rule, so an endpoint only reports problems with its own values and its combined rates.
+     */
+    private static Rule rule(String path, Map<String, String> own, Map<String, String> defaults,
+            List<String> errors) {
+        String where = path.isEmpty() ? "" : " for " + path;
+        List<String> ignored = new ArrayList<>();
+        Function<String, List<String>> reportTo = name -> path.isEmpty() || own.containsKey(name) ? errors : ignored;
+
+        LatencyDistribution latency = LatencyDistribution.NONE;
+        String latencySpec = setting("latency", own, defaults);
+        if (latencySpec != null) {
+            try {
+                latency = LatencyDistribution.parse(latencySpec);
+            } catch (IllegalArgumentException e) {
+                reportTo.apply("latency").add(PREFIX + "latency" + where + ": " + e.getMessage());
+            }
+        }
+        double errorRate = rate("error.rate", own, defaults, where, reportTo.apply("error.rate"));
+        double resetRate = rate("reset.rate", own, defaults, where, reportTo.apply("reset.rate"));
+        double truncateRate = rate("truncate.rate", own, defaults, where, reportTo.apply("truncate.rate"));
+        if (errorRate + resetRate + truncateRate > 1.0) {
+            errors.add(PREFIX + "error.rate, reset.rate and truncate.rate" + where + " add up to more than 1");
+        }
+
+        int[] statuses = DEFAULT_ERROR_STATUSES;
+        String statusList = setting("error.statuses", own, defaults);
+        if (statusList != null) {
+            String[] parts = statusList.split(",");
+            statuses = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                try {
+                    statuses[i] = Integer.parseInt(parts[i].trim());
+                } catch (NumberFormatException e) {
+                    statuses[i] = -1;
+                }
+                if (statuses[i] < 500 || statuses[i] > 599) {
+                    reportTo.apply("error.statuses").add(PREFIX + "error.statuses" + where
+                        + " must be 5xx codes: " + statusList);
+                    break;
+                }
+            }
+        }
+
+        long bandwidthKbps = 0;
+        String bandwidth = setting("bandwidth.kbps", own, defaults);
+        if (bandwidth != null && !bandwidth.trim().isEmpty()) {
+            try {
+                bandwidthKbps = Long.parseLong(bandwidth.trim());
+            } catch (NumberFormatException e) {
+                bandwidthKbps = -1;
+            }
+            if (bandwidthKbps < 0) {
+                reportTo.apply("bandwidth.kbps").add(PREFIX + "bandwidth.kbps" + where
+                    + " must be a whole number of at least 0: " + bandwidth);
+            }
+        }
+        return new Rule(path, latency, errorRate, statuses, resetRate, truncateRate, bandwidthKbps * 1000 / 8);
+    }
+
+    private static String setting(String name, Map<String, String> own, Map<String, String> defaults) {
+        String value = own.get(name);
+        return value != null ? value : defaults.get(name);
+    }
+
+    private static double rate(String name, Map<String, String> own, Map<String, String> defaults, String where,
+            List<String> errors) {
+        String raw = setting(name, own, defaults);
+        if (raw == null || raw.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            double value = Double.parseDouble(raw.trim());
+            if (value >= 0 && value <= 1) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        errors.add(PREFIX + name + where + " must be between 0 and 1: " + raw);
+        return 0;
+    }
+
+    private static String normalize(String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Decide what happens to the next GET for the given path
+     */
+    public Decision decide(String path) {
+        return decide("GET", path);
+    }
+
+    /**
+     * Decide what happens to the next request with this method and path
+     */
+    public Decision decide(String method, String path) {
+        if (!enabled) {
+            return Decision.NONE;
+        }
+        Rule rule = ruleFor(path);
+        String key = method + ' ' + path;
+        long sequence = sequences.computeIfAbsent(key, k -> new AtomicLong()).getAndIncrement();
+        Random random = new Random(mix(mix(mix(seed) ^ key.hashCode()) + sequence * 0x9E3779B97F4A7C15L));
+        long delay = rule.latency.sample(random);
+        double draw = random.nextDouble();
+        int status = 0;
+        boolean reset = false;
+        boolean truncate = false;
+        if (draw < rule.resetRate) {
+            reset = true;
+            resets.increment();
+        } else if (draw < rule.resetRate + rule.errorRate) {
+            status = rule.errorStatuses[random.nextInt(rule.errorStatuses.length)];
+            errors.increment();
+        } else if (draw < rule.resetRate + rule.errorRate + rule.truncateRate) {
+            truncate = true;
+            truncations.increment();
+        }
+        requests.increment();
+        if (delay > 0) {
+            delayed.increment();
+        }
+        return new Decision(delay, status, reset, truncate, rule.bytesPerSecond);
+    }
+
+    private Rule ruleFor(String path) {
+        for (Rule rule : endpointRules) {
+            if (path.startsWith(rule.path)
+                    && (path.length() == rule.path.length() || path.charAt(rule.path.length()) == '/')) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3. Random only scrambles its seed lightly, so nearby
+     * seeds would otherwise start with nearly the same draws.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb93fe1a85ec9L;
+        return z ^ (z >>> 33);
+    }
+
+    @Override
+    public String toString() {
+        if (!enabled) {
+            return "stub faults off";
+        }
+        StringBuilder text = new StringBuilder("stub faults (seed ").append(seed).append("): ").append(defaultRule);
+        for (Rule rule : endpointRules) {
+            text.append("; ").append(rule);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Counts of what has been injected so far
+     */
+    public String summary() {
+        return requests.sum() + " requests, " + delayed.sum() + " delayed, " + errors.sum() + " 5xx, "
+            + resets.sum() + " resets, " + truncations.sum() + " truncated";
+    }
+
+    private static final class Rule {
+        private final String path;
+        private final LatencyDistribution latency;
+        private final double errorRate;
+        private final int[] errorStatuses;
+        private final double resetRate;
+        private final double truncateRate;
+        private final long bytesPerSecond;
+
+        Rule(String path, LatencyDistribution latency, double errorRate, int[] errorStatuses, double resetRate,
+                double truncateRate, long bytesPerSecond) {
+            this.path = path;
+            this.latency = latency;
+            this.errorRate = errorRate;
+            this.errorStatuses = errorStatuses;
+            this.resetRate = resetRate;
+            this.truncateRate = truncateRate;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public String toString() {
+            return (path.isEmpty() ? "default" : path) + " latency " + latency + ", 5xx " + errorRate
+                + ", reset " + resetRate + ", truncate " + truncateRate
+                + (bytesPerSecond > 0 ? ", " + bytesPerSecond + " B/s" : "");
+        }
+    }
+
+    /**
+     * What to do with one request: wait delayMillis, then either drop the connection, replace
+     * the response with status, cut the body short, or answer normally; bodies are written at
+     * bytesPerSecond when it is above 0
+     */
+    public static final class Decision {
+
+        static final Decision NONE = new Decision(0, 0, false, false, 0);
+
+        private final long delayMillis;
+        private final int status;
+        private final boolean reset;
+        private final boolean truncate;
+        private final long bytesPerSecond;
+
+        Decision(long delayMillis, int status, boolean reset, boolean truncate, long bytesPerSecond) {
+            this.delayMillis = delayMillis;
+            this.status = status;
+            this.reset = reset;
+            this.truncate = truncate;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        public long getDelayMillis() { return delayMillis; }
+        public int getStatus() { return status; }
+        public boolean isReset() { return reset; }
+        public boolean isTruncate() { return truncate; }
+        public long getBytesPerSecond() { return bytesPerSecond; }
+    }
+}
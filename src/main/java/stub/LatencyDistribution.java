@@ -0,0 +1,134 @@
+package stub;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Response delay distribution for the stub backend, parsed from a spec string:
+ *
+ *   fixed:MS                      always MS
+ *   uniform:MIN,MAX               evenly spread between MIN and MAX
+ *   lognormal:MEDIAN,SIGMA[,CAP]  log-normal around MEDIAN; SIGMA is the spread of ln(delay)
+ *   pareto:MIN,ALPHA[,CAP]        long tail starting at MIN; smaller ALPHA means a heavier tail
+ *
+ * All values are milliseconds except SIGMA and ALPHA. CAP bounds a single sample so one
+ * draw from the tail can't stall a run.
+ */
+public abstract class LatencyDistribution {
+
+    public static final LatencyDistribution NONE = fixed(0);
+
+    private final String spec;
+
+    private LatencyDistribution(String spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Draw one delay in milliseconds
+     */
+    public abstract long sample(Random random);
+
+    public static LatencyDistribution fixed(long millis) {
+        return new LatencyDistribution("fixed:" + millis) {
+            @Override
+            public long sample(Random random) {
+                return millis;
+            }
+        };
+    }
+
+    public static LatencyDistribution uniform(long min, long max) {
+        return new LatencyDistribution("uniform:" + min + "," + max) {
+            @Override
+            public long sample(Random random) {
+                return min + (long) (random.nextDouble() * (max - min + 1));
+            }
+        };
+    }
+
+    public static LatencyDistribution logNormal(double median, double sigma, long cap) {
+        double mu = Math.log(median);
+        return new LatencyDistribution("lognormal:" + median + "," + sigma + "," + cap) {
+            @Override
+            public long sample(Random random) {
+                return Math.min(Math.round(Math.exp(mu + sigma * random.nextGaussian())), cap);
+            }
+        };
+    }
+
+    public static LatencyDistribution pareto(double min, double alpha, long cap) {
+        return new LatencyDistribution("pareto:" + min + "," + alpha + "," + cap) {
+            @Override
+            public long sample(Random random) {
+                // Inverse CDF; 1 - u keeps the argument in (0, 1]
+                return Math.min(Math.round(min / Math.pow(1 - random.nextDouble(), 1 / alpha)), cap);
+            }
+        };
+    }
+
+    /**
+     * Parse a spec such as "lognormal:40,0.5"; throws IllegalArgumentException when it is invalid
+     */
+    public static LatencyDistribution parse(String spec) {
+        String trimmed = spec.trim();
+        int colon = trimmed.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("latency spec needs a kind and parameters: " + spec);
+        }
+        String kind = trimmed.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+        String[] parts = trimmed.substring(colon + 1).split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                values[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("latency spec has a non-numeric parameter: " + spec);
+            }
+            if (!(values[i] >= 0) || Double.isInfinite(values[i])) {
+                throw new IllegalArgumentException("latency spec parameters must be finite and non-negative: " + spec);
+            }
+        }
+        switch (kind) {
+            case "fixed":
+                expect(spec, values, 1, 1);
+                return fixed((long) values[0]);
+            case "uniform":
+                expect(spec, values, 2, 2);
+                if (values[1] < values[0]) {
+                    throw new IllegalArgumentException("uniform max is below min: " + spec);
+                }
+                return uniform((long) values[0], (long) values[1]);
+            case "lognormal":
+                expect(spec, values, 2, 3);
+                if (values[0] <= 0) {
+                    throw new IllegalArgumentException("lognormal median must be positive: " + spec);
+                }
+                return logNormal(values[0], values[1], cap(values));
+            case "pareto":
+                expect(spec, values, 2, 3);
+                if (values[0] <= 0 || values[1] <= 0) {
+                    throw new IllegalArgumentException("pareto min and alpha must be positive: " + spec);
+                }
+                return pareto(values[0], values[1], cap(values));
+            default:
+                throw new IllegalArgumentException("unknown latency kind '" + kind
+                    + "', expected fixed, uniform, lognormal or pareto: " + spec);
+        }
+    }
+
+    private static void expect(String spec, double[] values, int min, int max) {
+        if (values.length < min || values.length > max) {
+            throw new IllegalArgumentException("wrong number of latency parameters: " + spec);
+        }
+    }
+
+    private static long cap(double[] values) {
+        return values.length > 2 ? (long) values[2] : Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -0,0 +1,433 @@
+package stub;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import mdoels.response.UserResponse;
+import utils.LoggerUtils;
+
+/**
+ * In-process HTTP stub of the JSONPlaceholder /users and /posts endpoints.
+ *
+ * The JDK server accepts and parses requests on a single NIO selector thread and
+ * hands each exchange to a worker pool, so thousands of concurrent clients only
+ * cost one pooled thread per request actually being answered. Writes are faked
+ * the same way JSONPlaceholder fakes them: created resources always get the next
+ * id after the seeded data (11 for users, 101 for posts) and nothing is persisted.
+ * GETs carry an ETag and Last-Modified and answer conditional requests with 304.
+ *
+ * With a FaultProfile (stub.fault.*) responses can be delayed, replaced by 5xx, dropped,
+ * truncated or throttled. Delays and throttled writes are scheduled rather than slept,
+ * so a slow backend doesn't tie up the worker pool and concurrency stays realistic.
+ *
+ * Run the JVM with -Dsun.net.httpserver.nodelay=true (stub.jvm.args in the pom): headers
+ * and body go out as separate writes, and with Nagle on every response gains ~40 ms.
+ */
+public class LocalStubServer {
+
+    /** Loopback only; "localhost" can resolve to another loopback address than the one bound */
+    private static final InetAddress BIND_ADDRESS = InetAddress.getLoopbackAddress();
+    public static final String BASE_URL = "http://" + (BIND_ADDRESS instanceof Inet6Address
+        ? "[" + BIND_ADDRESS.getHostAddress() + "]" : BIND_ADDRESS.getHostAddress());
+
+    private static final int USER_COUNT = 10;
+    private static final int POSTS_PER_USER = 10;
+    private static final int BACKLOG = 4096;
+    private static final int FAULT_THREADS = 2;
+    private static final long THROTTLE_TICK_MILLIS = 10;
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP_TYPE =
+        new TypeReference<LinkedHashMap<String, Object>>() {};
+
+    private static LocalStubServer instance;
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final FaultProfile faults;
+    private final ScheduledExecutorService scheduler;
+    private final ZonedDateTime lastModified = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    private final String lastModifiedHeader = DateTimeFormatter.RFC_1123_DATE_TIME.format(lastModified);
+
+    private final byte[] allUsers;
+    private final byte[][] usersById;
+    private final byte[] allPosts;
+    private final byte[][] postsById;
+    private final byte[][] postsByUser;
+
+    private LocalStubServer(int port, int threads, FaultProfile faults) throws IOException {
+        List<UserResponse> users = seedUsers();
+        List<Map<String, Object>> posts = seedPosts();
+
+        allUsers = objectMapper.writeValueAsBytes(users);
+        usersById = new byte[users.size() + 1][];
+        for (UserResponse user : users) {
+            usersById[user.getId()] = objectMapper.writeValueAsBytes(user);
+        }
+
+        allPosts = objectMapper.writeValueAsBytes(posts);
+        postsById = new byte[posts.size() + 1][];
+        postsByUser = new byte[USER_COUNT + 1][];
+        for (Map<String, Object> post : posts) {
+            postsById[(Integer) post.get("id")] = objectMapper.writeValueAsBytes(post);
+        }
+        for (int userId = 1; userId <= USER_COUNT; userId++) {
+            int from = (userId - 1) * POSTS_PER_USER;
+            postsByUser[userId] = objectMapper.writeValueAsBytes(posts.subList(from, from + POSTS_PER_USER));
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stub-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.faults = faults;
+        if (faults.isEnabled()) {
+            AtomicInteger faultThreadIndex = new AtomicInteger();
+            scheduler = Executors.newScheduledThreadPool(FAULT_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "stub-fault-" + faultThreadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            scheduler = null;
+        }
+
+        server = HttpServer.create(new InetSocketAddress(BIND_ADDRESS, port), BACKLOG);
+        server.createContext("/users", exchange -> handle(exchange, "users"));
+        server.createContext("/posts", exchange -> handle(exchange, "posts"));
+        server.setExecutor(workers);
+        server.start();
+    }
+
+    /**
+     * Start the shared stub server, or return it if it is already running.
+     * A port of 0 binds an ephemeral port.
+     */
+    public static synchronized LocalStubServer start(int port, int threads) {
+        return start(port, threads, FaultProfile.NONE);
+    }
+
+    /**
+     * Start the shared stub server with fault injection, or return it if it is already running
+     */
+    public static synchronized LocalStubServer start(int port, int threads, FaultProfile faults) {
+        if (instance == null) {
+            instance = create(port, threads, faults);
+        }
+        return instance;
+    }
+
+    /**
+     * Start a stub server of its own, independent of the shared one; close it when done
+     */
+    public static LocalStubServer create(int port, int threads, FaultProfile faults) {
+        try {
+            LocalStubServer server = new LocalStubServer(port, threads, faults);
+            LoggerUtils.success("Local stub server started on port " + server.getPort());
+            if (faults.isEnabled()) {
+                LoggerUtils.warn("Local stub server injecting " + faults);
+            }
+            return server;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to start local stub server", e);
+        }
+    }
+
+    public static synchronized boolean isRunning() {
+        return instance != null;
+    }
+
+    public static synchronized LocalStubServer getInstance() {
+        return instance;
+    }
+
+    /**
+     * Stop the shared stub server if it is running
+     */
+    public static synchronized void stop() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            LoggerUtils.info("Local stub server faults: " + faults.summary());
+        }
+        LoggerUtils.success("Local stub server stopped");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUrl() {
+        return BASE_URL;
+    }
+
+    private void handle(HttpExchange exchange, String resource) throws IOException {
+        FaultProfile.Decision decision = faults.decide(exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+        Reply reply;
+        try {
+            reply = decision.getStatus() > 0 ? new Reply(decision.getStatus(), EMPTY_OBJECT) : route(exchange, resource);
+        } catch (RuntimeException e) {
+            LoggerUtils.error("Local stub server failed to handle request: " + e.getMessage());
+            reply = new Reply(500, EMPTY_OBJECT);
+        } catch (IOException e) {
+            exchange.close();
+            throw e;
+        }
+        if (decision.getDelayMillis() > 0) {
+            Reply delayed = reply;
+            try {
+                scheduler.schedule(() -> deliver(exchange, delayed, decision), decision.getDelayMillis(),
+                    TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // Stopping: answer right away instead
+            }
+        }
+        deliver(exchange, reply, decision);
+    }
+
+    private Reply route(HttpExchange exchange, String resource) throws IOException {
+        URI uri = exchange.getRequestURI();
+        String[] segments = uri.getPath().split("/");
+        // "/users" -> ["", "users"], "/users/1" -> ["", "users", "1"]; contexts match by
+        // prefix, so "/usersfoo" lands here too
+        if (segments.length < 2 || segments.length > 3 || !resource.equals(segments[1])) {
+            return new Reply(404, EMPTY_OBJECT);
+        }
+        int id = segments.length == 3 ? parseId(segments[2]) : 0;
+        boolean users = "users".equals(resource);
+
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                if (segments.length == 2) {
+                    return cacheable(exchange, users ? allUsers : postsForQuery(uri.getRawQuery()));
+                }
+                byte[] body = lookup(users ? usersById : postsById, id);
+                return body != null ? cacheable(exchange, body) : new Reply(404, EMPTY_OBJECT);
+            case "POST":
+                if (segments.length != 2) {
+                    return new Reply(404, EMPTY_OBJECT);
+                }
+                return new Reply(201, echo(exchange, users ? usersById.length : postsById.length));
+            case "PUT":
+            case "PATCH":
+                if (lookup(users ? usersById : postsById, id) == null) {
+                    return new Reply(404, EMPTY_OBJECT);
+                }
+                return new Reply(200, echo(exchange, id));
+            case "DELETE":
+                return new Reply(segments.length == 3 ? 200 : 404, EMPTY_OBJECT);
+            default:
+                return new Reply(405, EMPTY_OBJECT);
+        }
+    }
+
+    private byte[] postsForQuery(String query) {
+        if (query == null) {
+            return allPosts;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.startsWith("userId=")) {
+                byte[] body = lookup(postsByUser, parseId(pair.substring("userId=".length())));
+                return body != null ? body : "[]".getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return allPosts;
+    }
+
+    private static byte[] lookup(byte[][] table, int id) {
+        return id > 0 && id < table.length ? table[id] : null;
+    }
+
+    private static int parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Echo the request body back with the given id, as JSONPlaceholder does for writes
+     */
+    private static byte[] echo(HttpExchange exchange, int id) throws IOException {
+        Map<String, Object> body;
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] raw = in.readAllBytes();
+            body = raw.length == 0 ? new LinkedHashMap<>() : objectMapper.readValue(raw, MAP_TYPE);
+        }
+        body.put("id", id);
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    /**
+     * A 200 with validators, or a bodiless 304 when the client's copy is current
+     */
+    private Reply cacheable(HttpExchange exchange, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + body.length + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Last-Modified", lastModifiedHeader);
+        return notModified(exchange, etag) ? new Reply(304, null) : new Reply(200, body);
+    }
+
+    private boolean notModified(HttpExchange exchange, String etag) {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        if (ifModifiedSince != null) {
+            try {
+                return !lastModified.isAfter(ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME));
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Send the reply as the fault decision says: drop the connection, cut the body short,
+     * or write it at a throttled rate. Never throws; the exchange is always closed.
+     */
+    private void deliver(HttpExchange exchange, Reply reply, FaultProfile.Decision decision) {
+        boolean handedOff = false;
+        try {
+            if (decision.isReset()) {
+                // Closing before any response headers drops the connection
+                return;
+            }
+            if (reply.body == null) {
+                exchange.sendResponseHeaders(reply.status, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(reply.status, reply.body.length);
+            // A truncated body still declares the full Content-Length, so the client sees a premature EOF
+            int end = decision.isTruncate() ? reply.body.length / 2 : reply.body.length;
+            if (decision.getBytesPerSecond() > 0) {
+                handedOff = true;
+                int chunk = (int) Math.max(1, decision.getBytesPerSecond() * THROTTLE_TICK_MILLIS / 1000);
+                writeThrottled(exchange, reply.body, 0, end, chunk);
+                return;
+            }
+            exchange.getResponseBody().write(reply.body, 0, end);
+        } catch (IOException e) {
+            LoggerUtils.debug(() -> "Local stub server could not write response: " + e.getMessage());
+        } finally {
+            if (!handedOff) {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * Write one chunk now and schedule the next one a tick later, until end
+     */
+    private void writeThrottled(HttpExchange exchange, byte[] body, int offset, int end, int chunk) {
+        try {
+            int length = Math.min(chunk, end - offset);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body, offset, length);
+            out.flush();
+            if (offset + length < end) {
+                scheduler.schedule(() -> writeThrottled(exchange, body, offset + length, end, chunk),
+                    THROTTLE_TICK_MILLIS, TimeUnit.MILLISECONDS);
+                return;
+            }
+        } catch (IOException | RejectedExecutionException e) {
+            LoggerUtils.debug(() -> "Local stub server stopped a throttled response: " + e.getMessage());
+        }
+        exchange.close();
+    }
+
+    /**
+     * Status and body of a response that has not been sent yet; a null body means none (304)
+     */
+    private static final class Reply {
+        private final int status;
+        private final byte[] body;
+
+        Reply(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private static List<UserResponse> seedUsers() {
+        String[] firstNames = {"Leanne", "Ervin", "Clementine", "Patricia", "Chelsey",
+            "Dennis", "Kurtis", "Nicholas", "Glenna", "Clementina"};
+        String[] lastNames = {"Graham", "Howell", "Bauch", "Lebsack", "Dietrich",
+            "Schulist", "Weissnat", "Runolfsdottir", "Reichert", "DuBuque"};
+
+        List<UserResponse> users = new ArrayList<>(USER_COUNT);
+        for (int id = 1; id <= USER_COUNT; id++) {
+            String first = firstNames[id - 1];
+            String last = lastNames[id - 1];
+            users.add(new UserResponse(id, first + " " + last, first.charAt(0) + last,
+                first.toLowerCase() + "." + last.toLowerCase() + "@example.com",
+                "1-770-736-80" + String.format("%02d", id), last.toLowerCase() + ".org"));
+        }
+        return users;
+    }
+
+    private static List<Map<String, Object>> seedPosts() {
+        List<Map<String, Object>> posts = new ArrayList<>(USER_COUNT * POSTS_PER_USER);
+        for (int id = 1; id <= USER_COUNT * POSTS_PER_USER; id++) {
+            Map<String, Object> post = new LinkedHashMap<>();
+            post.put("userId", (id - 1) / POSTS_PER_USER + 1);
+            post.put("id", id);
+            post.put("title", "stub post title " + id);
+            post.put("body", "stub post body " + id + "\nquia et suscipit suscipit recusandae");
+            posts.add(post);
+        }
+        return posts;
+    }
+}
@@ -1,9 +1,21 @@
 package utils;
 
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.StreamSupport;
+
 import io.restassured.response.Response;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.testng.Assert;
 
 /**
@@ -13,12 +25,57 @@ public class APIUtils {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Readers and writers are immutable and bound to their type, so each is built once and shared
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectReader> listReaders = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * Shared reader for the type (arrays included, e.g. UserResponse[].class)
+     */
+    public static ObjectReader readerFor(Class<?> clazz) {
+        ObjectReader reader = readers.get(clazz);
+        return reader != null ? reader : readers.computeIfAbsent(clazz, objectMapper::readerFor);
+    }
+
+    /**
+     * Shared reader producing a List of the element type
+     */
+    public static ObjectReader listReaderFor(Class<?> elementClass) {
+        ObjectReader reader = listReaders.get(elementClass);
+        return reader != null ? reader : listReaders.computeIfAbsent(elementClass,
+            c -> objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, c)));
+    }
+
+    /**
+     * Shared writer for the type
+     */
+    public static ObjectWriter writerFor(Class<?> clazz) {
+        ObjectWriter writer = writers.get(clazz);
+        return writer != null ? writer : writers.computeIfAbsent(clazz, objectMapper::writerFor);
+    }
+
+    private static ObjectWriter writerOf(Object object) {
+        return object != null ? writerFor(object.getClass()) : objectMapper.writer();
+    }
+
     /**
      * Convert object to JSON string
      */
     public static String toJson(Object object) {
         try {
-            return objectMapper.writeValueAsString(object);
+            return writerOf(object).writeValueAsString(object);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to convert object to JSON", e);
+        }
+    }
+
+    /**
+     * Convert object to UTF-8 JSON bytes
+     */
+    public static byte[] toJsonBytes(Object object) {
+        try {
+            return writerOf(object).writeValueAsBytes(object);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to convert object to JSON", e);
         }
@@ -29,20 +86,56 @@ public class APIUtils {
      */
     public static <T> T fromJson(String json, Class<T> clazz) {
         try {
-            return objectMapper.readValue(json, clazz);
+            return readerFor(clazz).readValue(json);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to convert JSON to object", e);
         }
     }
 
     /**
-     * Extract value from JSON response
+     * Convert UTF-8 JSON bytes to object
+     */
+    public static <T> T fromJson(byte[] json, Class<T> clazz) {
+        try {
+            return readerFor(clazz).readValue(json);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert JSON to object", e);
+        }
+    }
+
+    /**
+     * Iterate a JSON array from a byte stream, one element at a time.
+     * The iterator closes the stream once the array is exhausted.
+     */
+    public static <T> JsonArrayIterator<T> iterateJsonArray(InputStream json, Class<T> clazz) {
+        try {
+            return new JsonArrayIterator<>(objectMapper.getFactory().createParser(json), readerFor(clazz));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read JSON array", e);
+        }
+    }
+
+    /**
+     * Stream a JSON array from a byte stream, one element at a time.
+     * Close the stream (or use try-with-resources) if it is not fully consumed.
+     */
+    public static <T> Stream<T> streamJsonArray(InputStream json, Class<T> clazz) {
+        JsonArrayIterator<T> iterator = iterateJsonArray(json, clazz);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(iterator::close);
+    }
+
+    /**
+     * Extract value from JSON response.
+     * The path is compiled once and streamed over the body bytes, so only the
+     * matched value is materialized; use JsonDocument for several lookups.
      */
     public static String extractValue(Response response, String jsonPath) {
         try {
-            return response.jsonPath().getString(jsonPath);
+            return JsonDocument.asText(JsonPathExpression.compile(jsonPath).stream(response.asByteArray()));
         } catch (Exception e) {
-            System.err.println("Failed to extract value from path: " + jsonPath);
+            LoggerUtils.error("Failed to extract value from path: " + jsonPath);
             return null;
         }
     }
@@ -52,32 +145,47 @@ public class APIUtils {
      */
     public static void validateStatusCode(Response response, int expectedStatusCode) {
         int actualStatusCode = response.getStatusCode();
-        System.out.println("📊 Response Status: " + actualStatusCode);
+        LoggerUtils.info(() -> "📊 Response Status: " + actualStatusCode);
 
         Assert.assertEquals(actualStatusCode, expectedStatusCode, 
             "Status code mismatch. Expected: " + expectedStatusCode + ", Actual: " + actualStatusCode);
     }
 
     /**
-     * Validate response time
+     * Validate the response body against a compiled schema from SchemaRegistry
+     */
+    public static void validateSchema(Response response, String schemaName) {
+        SchemaRegistry.assertValid(schemaName, response.asByteArray());
+        LoggerUtils.info(() -> "📐 Response matches schema: " + schemaName);
+    }
+
+    /**
+     * Validate response time. A response served from the ResponseCache reports the time
+     * of the request that filled the cache, not of the call that returned it.
      */
     public static void validateResponseTime(Response response, long maxTimeInMs) {
         long responseTime = response.getTime();
-        System.out.println("⏱️ Response Time: " + responseTime + "ms");
+        LoggerUtils.info(() -> "⏱️ Response Time: " + responseTime + "ms");
 
         Assert.assertTrue(responseTime <= maxTimeInMs, 
             "Response time exceeded limit. Expected: <= " + maxTimeInMs + "ms, Actual: " + responseTime + "ms");
     }
 
     /**
-     * Print response details for debugging
+     * Print response details for debugging.
+     * Only runs at DEBUG level; the body is capped and sampled per log.body.* config.
      */
     public static void printResponse(Response response) {
-        System.out.println("\n📋 Response Details:");
-        System.out.println("Status Code: " + response.getStatusCode());
-        System.out.println("Response Time: " + response.getTime() + "ms");
-        System.out.println("Content Type: " + response.getContentType());
-        System.out.println("Response Body: " + response.getBody().asString());
-        System.out.println("====================================\n");
+        if (!LoggerUtils.isEnabled(LoggerUtils.Level.DEBUG)) {
+            return;
+        }
+        byte[] body = response.asByteArray();
+        String sampledBody = LoggerUtils.sampleBody(body);
+        LoggerUtils.debug("\n📋 Response Details:"
+            + "\nStatus Code: " + response.getStatusCode()
+            + "\nResponse Time: " + response.getTime() + "ms"
+            + "\nContent Type: " + response.getContentType()
+            + "\nResponse Body: " + (sampledBody != null ? sampledBody : "[" + body.length + " bytes, not sampled]")
+            + "\n====================================\n");
     }
 }
\ No newline at end of file
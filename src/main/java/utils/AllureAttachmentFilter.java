@@ -0,0 +1,303 @@
+package utils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import config.ConfigSnapshot;
+
+/**
+ * RestAssured filter that attaches HTTP exchanges to the current Allure test, replacing
+ * AllureRestAssured.
+ *
+ * Failed calls (status 400 and up, or an exception) are always attached; successful ones
+ * only at allure.attachment.sample.rate. Bodies are copied up to allure.attachment.max.bytes
+ * on the calling thread, and the attachment is registered with the test there (it needs the
+ * thread's Allure context), but rendering and writing the file happen on one background
+ * thread. When the queue is full the caller writes the attachment itself, so nothing that
+ * was registered ever goes missing from the report. Bodies are cut at a UTF-8 character
+ * boundary, and credential headers (Authorization, cookies, API keys) are masked.
+ *
+ * Each instance owns its writer thread and a shutdown hook that flushes it; close() stops
+ * both. The shared filter lives for the whole JVM.
+ */
+public class AllureAttachmentFilter implements OrderedFilter, AutoCloseable {
+
+    /** Header names, in lower case, whose values never reach the report */
+    private static final Set<String> MASKED_HEADERS = new HashSet<>(Arrays.asList(
+        "authorization", "proxy-authorization", "cookie", "set-cookie", "x-api-key"));
+
+    private static volatile AllureAttachmentFilter shared;
+
+    private final AllureLifecycle lifecycle;
+    private final int maxBytes;
+    private final double sampleRate;
+    private final ArrayBlockingQueue<Exchange> queue;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder writtenInline = new LongAdder();
+    private final Thread worker;
+    private final Thread shutdownHook;
+    private volatile boolean closed;
+
+    public AllureAttachmentFilter(AllureLifecycle lifecycle, int maxBytes, double sampleRate, int queueCapacity) {
+        this.lifecycle = lifecycle;
+        this.maxBytes = maxBytes;
+        this.sampleRate = sampleRate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = new Thread(this::drain, "allure-attachment-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        this.shutdownHook = new Thread(() -> flush(5000), "allure-attachment-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Process-wide filter configured from allure.attachment.*
+     */
+    public static AllureAttachmentFilter shared() {
+        if (shared == null) {
+            synchronized (AllureAttachmentFilter.class) {
+                if (shared == null) {
+                    ConfigSnapshot.Reporting config = ConfigSnapshot.get().getReporting();
+                    shared = new AllureAttachmentFilter(Allure.getLifecycle(), config.getAttachmentMaxBytes(),
+                        config.getAttachmentSampleRate(), config.getAttachmentQueueCapacity());
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Wait for the shared filter's pending attachments, if it was ever used
+     */
+    public static void flushShared(long timeoutMillis) {
+        AllureAttachmentFilter filter = shared;
+        if (filter != null) {
+            filter.flush(timeoutMillis);
+            LoggerUtils.info(() -> "📎 Allure attachments: " + filter.written.get() + " written in background, "
+                + filter.writtenInline.sum() + " inline, " + filter.sampledOut.sum() + " successful calls sampled out");
+        }
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            attach(requestSpec, null, e);
+            throw e;
+        }
+        if (response.getStatusCode() < 400 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return response;
+        }
+        attach(requestSpec, response, null);
+        return response;
+    }
+
+    /**
+     * Run outermost, so the attachment shows what the test sent and received
+     */
+    @Override
+    public int getOrder() {
+        return OrderedFilter.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Wait until every attachment enqueued so far has been written
+     */
+    public void flush(long timeoutMillis) {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (written.get() < target && System.nanoTime() < deadline && worker.isAlive()) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Let the writer thread finish what is queued and stop, and drop the shutdown hook;
+     * later attachments are written on the calling thread
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            worker.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // An attachment that was offered just as the worker stopped
+        for (Exchange exchange = queue.poll(); exchange != null; exchange = queue.poll()) {
+            write(exchange);
+            written.incrementAndGet();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down; the hook is running or done
+        }
+    }
+
+    private void attach(FilterableRequestSpecification requestSpec, Response response, Exception error) {
+        if (!lifecycle.getCurrentTestCaseOrStep().isPresent()) {
+            // Not inside an Allure test (e.g. bulk setup from a plain thread)
+            return;
+        }
+        Exchange exchange = new Exchange(requestSpec, response, error, maxBytes);
+        String name = requestSpec.getMethod() + " " + requestSpec.getDerivedPath()
+            + (response != null ? " → " + response.getStatusCode() : " → " + error.getClass().getSimpleName());
+        exchange.source = lifecycle.prepareAttachment(name, "text/plain", ".txt");
+        if (!closed && queue.offer(exchange)) {
+            enqueued.incrementAndGet();
+        } else {
+            writtenInline.increment();
+            write(exchange);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Exchange exchange;
+            try {
+                exchange = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (exchange == null) {
+                // Only stop once closed and drained
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                write(exchange);
+            } catch (RuntimeException e) {
+                LoggerUtils.warn("Failed to write Allure attachment: " + e.getMessage());
+            }
+            written.incrementAndGet();
+        }
+    }
+
+    private void write(Exchange exchange) {
+        lifecycle.writeAttachment(exchange.source,
+            new ByteArrayInputStream(exchange.render().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * What the calling thread captures: everything needed to render, with bodies capped
+     */
+    private static final class Exchange {
+        private final String requestLine;
+        private final String requestHeaders;
+        private final byte[] requestBody;
+        private final int requestBodyLength;
+        private final String statusLine;
+        private final String responseHeaders;
+        private final byte[] responseBody;
+        private final int responseBodyLength;
+        private final long timeMillis;
+        private String source;
+
+        Exchange(FilterableRequestSpecification requestSpec, Response response, Exception error, int maxBytes) {
+            requestLine = requestSpec.getMethod() + " " + requestSpec.getURI();
+            requestHeaders = headers(requestSpec.getHeaders());
+            Object body = requestSpec.getBody();
+            byte[] request = body == null ? new byte[0]
+                : body instanceof byte[] ? (byte[]) body : body.toString().getBytes(StandardCharsets.UTF_8);
+            requestBodyLength = request.length;
+            requestBody = Arrays.copyOf(request, cut(request, maxBytes));
+            if (response != null) {
+                statusLine = response.getStatusLine();
+                responseHeaders = headers(response.getHeaders());
+                byte[] bytes = response.asByteArray();
+                responseBodyLength = bytes.length;
+                responseBody = Arrays.copyOf(bytes, cut(bytes, maxBytes));
+                timeMillis = response.getTime();
+            } else {
+                statusLine = "No response: " + error;
+                responseHeaders = "";
+                responseBody = new byte[0];
+                responseBodyLength = 0;
+                timeMillis = -1;
+            }
+        }
+
+        String render() {
+            StringBuilder text = new StringBuilder(256 + requestBody.length + responseBody.length);
+            text.append(requestLine).append('\n').append(requestHeaders);
+            appendBody(text, requestBody, requestBodyLength);
+            text.append("\n").append(statusLine);
+            if (timeMillis >= 0) {
+                text.append(" (").append(timeMillis).append(" ms)");
+            }
+            text.append('\n').append(responseHeaders);
+            appendBody(text, responseBody, responseBodyLength);
+            return text.toString();
+        }
+
+        private static void appendBody(StringBuilder text, byte[] body, int fullLength) {
+            if (fullLength == 0) {
+                return;
+            }
+            text.append('\n').append(new String(body, StandardCharsets.UTF_8)).append('\n');
+            if (fullLength > body.length) {
+                text.append("... [truncated ").append(fullLength - body.length).append(" of ")
+                    .append(fullLength).append(" bytes]\n");
+            }
+        }
+
+        /**
+         * Length of at most maxBytes that doesn't end inside a UTF-8 character
+         */
+        private static int cut(byte[] bytes, int maxBytes) {
+            if (bytes.length <= maxBytes) {
+                return bytes.length;
+            }
+            int length = maxBytes;
+            // Back off while the first dropped byte continues the character before it
+            while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+            return length;
+        }
+
+        private static String headers(Iterable<Header> headers) {
+            StringBuilder text = new StringBuilder();
+            for (Header header : headers) {
+                boolean masked = MASKED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT));
+                text.append(header.getName()).append(": ").append(masked ? "***" : header.getValue()).append('\n');
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package utils;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background writer for log records.
+ *
+ * Callers only enqueue into a bounded ring buffer; a single daemon thread formats
+ * records and writes them to the output in batches, so test threads never wait on
+ * the output stream's lock. When the buffer is full the overflow policy either
+ * drops the record (counted, and reported in the log) or blocks the caller. Records
+ * submitted as urgent, such as warnings and errors, always block rather than drop.
+ */
+public class AsyncLogWriter {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final int BATCH_SIZE = 256;
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final ArrayBlockingQueue<Record> queue;
+    private final OverflowPolicy policy;
+    private final PrintStream out;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long droppedReported;
+
+    public AsyncLogWriter(int capacity, OverflowPolicy policy, PrintStream out) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.out = out;
+        this.worker = new Thread(this::drain, "async-log-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "async-log-writer-shutdown"));
+    }
+
+    /**
+     * Hand a record to the background writer; urgent records wait for space even under DROP
+     */
+    public void submit(String prefix, String message, boolean urgent) {
+        Record record = new Record(System.currentTimeMillis(), Thread.currentThread().getName(), prefix, message);
+        if (policy == OverflowPolicy.BLOCK || urgent) {
+            try {
+                queue.put(record);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+                return;
+            }
+        } else if (!queue.offer(record)) {
+            dropped.increment();
+            return;
+        }
+        enqueued.incrementAndGet();
+    }
+
+    /**
+     * Number of records discarded because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Wait until everything enqueued so far has been written
+     */
+    public void flush(long timeoutMillis) {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (written.get() < target && System.nanoTime() < deadline && worker.isAlive()) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stop the writer after draining the buffer
+     */
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<Record> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder buffer = new StringBuilder(8192);
+        while (running || !queue.isEmpty()) {
+            try {
+                Record first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown requested; keep draining what is left
+                queue.drainTo(batch, BATCH_SIZE);
+            }
+
+            long droppedNow = dropped.sum();
+            if (droppedNow > droppedReported) {
+                buffer.append(TIME_FORMAT.format(Instant.now())).append(" [async-log-writer] Warning: ")
+                    .append(droppedNow - droppedReported).append(" log records dropped (buffer full)")
+                    .append(System.lineSeparator());
+                droppedReported = droppedNow;
+            }
+            if (batch.isEmpty() && buffer.length() == 0) {
+                continue;
+            }
+
+            for (Record record : batch) {
+                record.appendTo(buffer).append(System.lineSeparator());
+            }
+            out.print(buffer);
+            out.flush();
+            written.addAndGet(batch.size());
+            buffer.setLength(0);
+            batch.clear();
+        }
+    }
+
+    private static class Record {
+        private final long timestamp;
+        private final String thread;
+        private final String prefix;
+        private final String message;
+
+        Record(long timestamp, String thread, String prefix, String message) {
+            this.timestamp = timestamp;
+            this.thread = thread;
+            this.prefix = prefix;
+            this.message = message;
+        }
+
+        StringBuilder appendTo(StringBuilder buffer) {
+            return buffer.append(TIME_FORMAT.format(Instant.ofEpochMilli(timestamp)))
+                .append(" [").append(thread).append("] ")
+                .append(prefix).append(message);
+        }
+    }
+}
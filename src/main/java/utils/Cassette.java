@@ -0,0 +1,280 @@
+package utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+/**
+ * Append-only file of recorded HTTP exchanges.
+ *
+ * Layout: a 4-byte magic, then records of [int length][key][route][status][headers][body][time].
+ * The key identifies an exact request; the route (method and path) is indexed too, as a
+ * looser fallback for requests whose bodies differ between runs. Headers are stored as
+ * name/value pairs in response order, so repeated headers such as Set-Cookie all replay.
+ * Recording appends each record with a single positional write under an OS file lock, so
+ * parallel tests and the shard JVMs ShardRunner forks can all record into one file. Replay memory-maps the file read-only and builds an
+ * index of key -> record offsets in one pass over the mapping; response bodies are handed
+ * out as views of the mapping, so nothing is copied onto the heap until a test reads it.
+ * Files are limited to 2 GB (one mapping).
+ */
+public class Cassette implements AutoCloseable {
+
+    private static final int MAGIC = 0x43415331; // "CAS1"
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final Map<String, List<Integer>> byKey;
+    private final Map<String, List<Integer>> byRoute;
+    private final Map<String, AtomicInteger> replayCursors = new ConcurrentHashMap<>();
+
+    private Cassette(Path file, FileChannel channel, MappedByteBuffer mapped, Map<String, List<Integer>> byKey,
+            Map<String, List<Integer>> byRoute) {
+        this.file = file;
+        this.channel = channel;
+        this.mapped = mapped;
+        this.byKey = byKey;
+        this.byRoute = byRoute;
+    }
+
+    /**
+     * Open for recording, appending to the file if it already exists
+     */
+    public static Cassette forRecording(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.READ);
+        try (FileLock lock = channel.lock()) {
+            if (channel.size() == 0) {
+                ByteBuffer magic = ByteBuffer.allocate(4).putInt(MAGIC);
+                magic.flip();
+                channel.write(magic, 0);
+            } else {
+                checkMagic(channel, file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new Cassette(file, channel, null, null, null);
+    }
+
+    /**
+     * Open for replay: map the file and index every record
+     */
+    public static Cassette forReplay(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Cassette larger than 2 GB: " + file);
+            }
+            checkMagic(channel, file);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            Map<String, List<Integer>> byKey = new HashMap<>();
+            Map<String, List<Integer>> byRoute = new HashMap<>();
+            int position = 4;
+            while (position + 4 <= size) {
+                int length = mapped.getInt(position);
+                if (length <= 0 || position + 4L + length > size) {
+                    // Torn write at the tail from an interrupted recording; ignore it
+                    break;
+                }
+                ByteBuffer record = mapped.duplicate();
+                record.position(position + 4);
+                byKey.computeIfAbsent(readString(record), k -> new ArrayList<>()).add(position);
+                byRoute.computeIfAbsent(readString(record), k -> new ArrayList<>()).add(position);
+                position += 4 + length;
+            }
+            return new Cassette(file, channel, mapped, byKey, byRoute);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Number of distinct requests available for replay
+     */
+    public int size() {
+        return byKey != null ? byKey.size() : 0;
+    }
+
+    /**
+     * Append one exchange
+     */
+    public void append(String key, String route, int statusCode, List<Map.Entry<String, String>> headers,
+            byte[] body, long timeMillis) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + body.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // length placeholder
+        writeString(out, key);
+        writeString(out, route);
+        out.writeInt(statusCode);
+        out.writeInt(headers.size());
+        for (Map.Entry<String, String> header : headers) {
+            writeString(out, header.getKey());
+            writeString(out, header.getValue());
+        }
+        out.writeInt(body.length);
+        out.write(body);
+        out.writeLong(timeMillis);
+        out.flush();
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - 4);
+        // The monitor orders this JVM's threads; the file lock orders other processes
+        synchronized (channel) {
+            try (FileLock lock = channel.lock()) {
+                long position = channel.size();
+                while (record.hasRemaining()) {
+                    position += channel.write(record, position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Next recorded exchange for the exact key, or else for the route, or null. Repeated
+     * requests are served in recording order; once exhausted the last one keeps being served.
+     */
+    public Recording next(String key, String route) {
+        Recording recording = next(byKey, key);
+        return recording != null ? recording : next(byRoute, route);
+    }
+
+    private Recording next(Map<String, List<Integer>> index, String key) {
+        List<Integer> offsets = index.get(key);
+        if (offsets == null) {
+            return null;
+        }
+        int call = replayCursors.computeIfAbsent((index == byKey ? "k:" : "r:") + key, k -> new AtomicInteger())
+            .getAndIncrement();
+        return read(offsets.get(Math.min(call, offsets.size() - 1)));
+    }
+
+    private Recording read(int offset) {
+        ByteBuffer buffer = mapped.duplicate();
+        buffer.position(offset + 4);
+        skipString(buffer);
+        skipString(buffer);
+        int status = buffer.getInt();
+        int headerCount = buffer.getInt();
+        List<Map.Entry<String, String>> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new AbstractMap.SimpleImmutableEntry<>(readString(buffer), readString(buffer)));
+        }
+        int bodyLength = buffer.getInt();
+        ByteBuffer body = buffer.slice();
+        body.limit(bodyLength);
+        buffer.position(buffer.position() + bodyLength);
+        long timeMillis = buffer.getLong();
+        return new Recording(status, Collections.unmodifiableList(headers), body, timeMillis);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (channel) {
+            if (channel.isOpen()) {
+                if (mapped == null) {
+                    channel.force(false);
+                }
+                channel.close();
+            }
+        }
+    }
+
+    private static void checkMagic(FileChannel channel, Path file) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(4);
+        channel.read(magic, 0);
+        magic.flip();
+        if (magic.remaining() < 4 || magic.getInt() != MAGIC) {
+            throw new IOException("Not a cassette file: " + file);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * One recorded response; the body is a read-only view into the mapped file
+     */
+    public static final class Recording {
+        private final int statusCode;
+        private final List<Map.Entry<String, String>> headers;
+        private final ByteBuffer body;
+        private final long timeMillis;
+
+        Recording(int statusCode, List<Map.Entry<String, String>> headers, ByteBuffer body, long timeMillis) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+            this.timeMillis = timeMillis;
+        }
+
+        public int getStatusCode() { return statusCode; }
+        public List<Map.Entry<String, String>> getHeaders() { return headers; }
+        public long getTimeMillis() { return timeMillis; }
+        public int getBodyLength() { return body.remaining(); }
+
+        /**
+         * First value of the header, matched ignoring case, or null
+         */
+        public String getHeader(String name) {
+            for (Map.Entry<String, String> header : headers) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Stream over the body, straight from the mapping
+         */
+        public InputStream openBody() {
+            return new ByteBufferBackedInputStream(body.duplicate());
+        }
+    }
+}
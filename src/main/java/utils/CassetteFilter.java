@@ -0,0 +1,165 @@
+package utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import config.ConfigSnapshot;
+
+/**
+ * RestAssured filter that records traffic to a Cassette or replays it without the network.
+ *
+ * Requests are keyed by method, path and query (host and port are left out, so a cassette
+ * recorded against an ephemeral stub port replays anywhere) plus a checksum of the body.
+ * Replay falls back to the same method and path with any body when there is no exact
+ * match, so tests that send random data still get a response. Runs just before the
+ * latency recorder, so replayed calls don't pollute latency metrics.
+ */
+public class CassetteFilter implements OrderedFilter {
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private static volatile CassetteFilter shared;
+
+    private final Mode mode;
+    private final Cassette cassette;
+
+    public CassetteFilter(Mode mode, Cassette cassette) {
+        this.mode = mode;
+        this.cassette = cassette;
+    }
+
+    /**
+     * Process-wide filter for cassette.mode / cassette.file, or null when the mode is OFF
+     */
+    public static CassetteFilter shared() {
+        ConfigSnapshot config = ConfigSnapshot.get();
+        Mode mode = Mode.valueOf(config.getCassette().getMode());
+        if (mode == Mode.OFF) {
+            return null;
+        }
+        if (shared == null) {
+            synchronized (CassetteFilter.class) {
+                if (shared == null) {
+                    Path file = Paths.get(config.getCassette().getFile());
+                    try {
+                        Cassette cassette = mode == Mode.RECORD ? Cassette.forRecording(file) : Cassette.forReplay(file);
+                        shared = new CassetteFilter(mode, cassette);
+                        LoggerUtils.info("📼 Cassette " + mode.name().toLowerCase() + ": " + file
+                            + (mode == Mode.REPLAY ? " (" + cassette.size() + " requests)" : ""));
+                    } catch (IOException e) {
+                        throw new RuntimeException("Unable to open cassette: " + file, e);
+                    }
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Close the shared cassette, if one was opened
+     */
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            try {
+                shared.cassette.close();
+            } catch (IOException e) {
+                LoggerUtils.error("Failed to close cassette: " + e.getMessage());
+            }
+            shared = null;
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+        if (mode == Mode.OFF) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String route = route(requestSpec);
+        String key = route + "#" + bodyChecksum(requestSpec.getBody());
+
+        if (mode == Mode.REPLAY) {
+            Cassette.Recording recording = cassette.next(key, route);
+            if (recording == null) {
+                throw new IllegalStateException("No recorded response in " + cassette.getFile() + " for " + route);
+            }
+            return toResponse(recording);
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        byte[] body = response.asByteArray();
+        List<Map.Entry<String, String>> headers = new ArrayList<>();
+        for (Header header : response.getHeaders()) {
+            headers.add(new AbstractMap.SimpleImmutableEntry<>(header.getName(), header.getValue()));
+        }
+        try {
+            cassette.append(key, route, response.getStatusCode(), headers, body, response.getTime());
+        } catch (IOException e) {
+            LoggerUtils.error("Failed to record " + route + ": " + e.getMessage());
+        }
+        return response;
+    }
+
+    /**
+     * Replayed calls must short-circuit before the latency recorder
+     */
+    @Override
+    public int getOrder() {
+        return OrderedFilter.LOWEST_PRECEDENCE - 1;
+    }
+
+    private static Response toResponse(Cassette.Recording recording) {
+        List<Header> headers = new ArrayList<>(recording.getHeaders().size());
+        for (Map.Entry<String, String> header : recording.getHeaders()) {
+            headers.add(new Header(header.getKey(), header.getValue()));
+        }
+        ResponseBuilder builder = new ResponseBuilder()
+            .setStatusCode(recording.getStatusCode())
+            .setStatusLine("HTTP/1.1 " + recording.getStatusCode());
+        String contentType = recording.getHeader("Content-Type");
+        if (contentType != null) {
+            // Before setHeaders, which then replaces the Content-Type header this adds with the recorded one
+            builder.setContentType(contentType);
+        }
+        return builder.setHeaders(new Headers(headers))
+            .setBody(recording.openBody())
+            .build();
+    }
+
+    private static String route(FilterableRequestSpecification requestSpec) {
+        URI uri = URI.create(requestSpec.getURI());
+        return requestSpec.getMethod() + " " + uri.getRawPath()
+            + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+    }
+
+    private static String bodyChecksum(Object body) {
+        if (body == null) {
+            return "-";
+        }
+        byte[] bytes = body instanceof byte[] ? (byte[]) body : body.toString().getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,203 @@
+package utils;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded JDBC connection pool.
+ *
+ * At most maxSize connections exist at once; borrowers beyond that wait up to the
+ * configured timeout. Idle connections are reused most-recently-returned first so
+ * a small warm set serves most requests. Pools are shared per database and user.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Map<String, ConnectionPool> SHARED = new ConcurrentHashMap<>();
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long timeoutMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    public ConnectionPool(String url, String user, String password, int maxSize, long timeoutMillis,
+            int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.timeoutMillis = timeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Get the process-wide pool for a database and user, creating it on first use
+     */
+    public static ConnectionPool shared(String url, String user, Supplier<ConnectionPool> factory) {
+        return SHARED.computeIfAbsent(url + "|" + user, key -> factory.get());
+    }
+
+    /**
+     * Borrow a connection, waiting up to the pool timeout for one to become free
+     */
+    public PooledConnection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed: " + url);
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Timed out after " + timeoutMillis + "ms waiting for a connection to " + url);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection to " + url, e);
+        }
+        long waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        acquisitions.increment();
+
+        try {
+            PooledConnection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                idleCount.decrementAndGet();
+                if (connection.isUsable()) {
+                    break;
+                }
+                connection.close();
+            }
+            if (connection == null) {
+                connection = new PooledConnection(DriverManager.getConnection(url, user, password),
+                    statementCacheSize, statementCacheHits, statementCacheMisses);
+                created.increment();
+            }
+            activeCount.incrementAndGet();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a borrowed connection to the pool
+     */
+    public void release(PooledConnection connection) {
+        activeCount.decrementAndGet();
+        try {
+            connection.reset();
+            if (!closed && connection.isUsable()) {
+                idle.offerFirst(connection);
+                idleCount.incrementAndGet();
+            } else {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            LoggerUtils.warn("Discarding connection that failed to reset: " + e.getMessage());
+            connection.close();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close all idle connections; borrowed connections are closed when released
+     */
+    @Override
+    public void close() {
+        closed = true;
+        SHARED.remove(url + "|" + user, this);
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            connection.close();
+        }
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(this);
+    }
+
+    /**
+     * Point-in-time snapshot of pool usage
+     */
+    public static class Metrics {
+
+        private final int maxSize;
+        private final int active;
+        private final int idle;
+        private final long acquisitions;
+        private final long created;
+        private final long timeouts;
+        private final long totalWaitMillis;
+        private final long maxWaitMillis;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+
+        private Metrics(ConnectionPool pool) {
+            this.maxSize = pool.maxSize;
+            this.active = pool.activeCount.get();
+            this.idle = pool.idleCount.get();
+            this.acquisitions = pool.acquisitions.sum();
+            this.created = pool.created.sum();
+            this.timeouts = pool.timeouts.sum();
+            this.totalWaitMillis = TimeUnit.NANOSECONDS.toMillis(pool.waitNanos.sum());
+            this.maxWaitMillis = TimeUnit.NANOSECONDS.toMillis(pool.maxWaitNanos.get());
+            this.statementCacheHits = pool.statementCacheHits.sum();
+            this.statementCacheMisses = pool.statementCacheMisses.sum();
+        }
+
+        public int getMaxSize() { return maxSize; }
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public long getAcquisitions() { return acquisitions; }
+        public long getCreated() { return created; }
+        public long getTimeouts() { return timeouts; }
+        public long getTotalWaitMillis() { return totalWaitMillis; }
+        public long getMaxWaitMillis() { return maxWaitMillis; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+
+        public double getAverageWaitMillis() {
+            return acquisitions == 0 ? 0 : (double) totalWaitMillis / acquisitions;
+        }
+
+        @Override
+        public String toString() {
+            return "active=" + active + ", idle=" + idle + ", max=" + maxSize
+                + ", acquisitions=" + acquisitions + ", created=" + created + ", timeouts=" + timeouts
+                + ", avgWait=" + String.format("%.2f", getAverageWaitMillis()) + "ms, maxWait=" + maxWaitMillis + "ms"
+                + ", statementCache(hits=" + statementCacheHits + ", misses=" + statementCacheMisses + ")";
+        }
+    }
+}
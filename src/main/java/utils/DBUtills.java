@@ -1,23 +1,52 @@
 package utils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 
 import config.ConfigReader;
+import config.ConfigSnapshot;
+import mdoels.response.UserResponse;
 
 public class DBUtills {
-    private ConfigReader config = new ConfigReader();
-    private Connection connection;
+    private static final String MYSQL_DRIVER = "com.mysql.cj.jdbc.Driver";
+
+    /*
+     * Maps a result row to an object; the row must not be advanced by the mapper
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet row) throws SQLException;
+    }
+
+    /*
+     * Maps id, name, username, email, phone and website columns to a UserResponse
+     */
+    public static final RowMapper<UserResponse> USER_ROW_MAPPER = row -> new UserResponse(
+        row.getInt("id"), row.getString("name"), row.getString("username"), row.getString("email"),
+        row.getString("phone"), row.getString("website"));
+
+    private final ConnectionPool pool;
+    private PooledConnection connection;
+    private int fetchSize = ConfigSnapshot.get().getDatabase().getFetchSize();
+    private int batchSize = ConfigSnapshot.get().getDatabase().getBatchSize();
 
 
     // Parameterized constructor : To connect to different DBs if needed
-    public DBUtills(String dbUrl, String dbUser, String dbPassword) throws SQLException, ClassNotFoundException {  
+    public DBUtills(String dbUrl, String dbUser, String dbPassword) throws SQLException, ClassNotFoundException {
+        loadDriver(dbUrl);
+        pool = sharedPool(dbUrl, dbUser, dbPassword);
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver"); // To ensure MySQL driver is loaded
-            connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+            connection = pool.acquire();
             LoggerUtils.success("Database connection established successfully");
         } catch (SQLException e) {
             LoggerUtils.error("Failed to establish database connection: " + e.getMessage());
@@ -29,13 +58,15 @@ public class DBUtills {
     // Default constructor : Reads DB config from properties file to connect to the environment-specific DB
     public DBUtills() throws SQLException, ClassNotFoundException {
 
-        Class.forName("com.mysql.cj.jdbc.Driver"); // Ensure MySQL driver is loaded
+        ConfigReader config = new ConfigReader();
         String dbUrl = System.getProperty("db.url", config.getDbUrl());
-        String dbUser = System.getProperty("db.user", config.getDbUsername());        
+        String dbUser = System.getProperty("db.user", config.getDbUsername());
         String dbPassword = System.getProperty("db.password", config.getDbPassword());
 
+        loadDriver(dbUrl);
+        pool = sharedPool(dbUrl, dbUser, dbPassword);
         try {
-            connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+            connection = pool.acquire();
             LoggerUtils.success("Database connection established successfully");
         } catch (SQLException e) {
             LoggerUtils.error("Failed to establish database connection: " + e.getMessage());
@@ -44,11 +75,33 @@ public class DBUtills {
 
     }
 
+    /*
+     * Get the pool shared by every DBUtills for this database and user.
+     * Pool sizing is read from config only when the pool is first created.
+     */
+    private static ConnectionPool sharedPool(String dbUrl, String dbUser, String dbPassword) {
+        return ConnectionPool.shared(dbUrl, dbUser, () -> {
+            ConfigReader config = new ConfigReader();
+            return new ConnectionPool(dbUrl, dbUser, dbPassword, config.getDbPoolSize(),
+                config.getDbPoolTimeout(), config.getDbStatementCacheSize());
+        });
+    }
+
+    // MySQL is the default database; other drivers register themselves through JDBC 4 service loading
+    private static void loadDriver(String dbUrl) throws ClassNotFoundException {
+        if (dbUrl.startsWith("jdbc:mysql:")) {
+            Class.forName(MYSQL_DRIVER);
+        }
+    }
+
 
-    public ResultSet executeQuery(String query) throws SQLException {
+    /*
+     * Execute a query through a cached prepared statement.
+     * The ResultSet stays valid until the same SQL is executed again on this connection.
+     */
+    public ResultSet executeQuery(String query, Object... params) throws SQLException {
         try {
-            Statement statement = connection.createStatement();
-            return statement.executeQuery(query);
+            return bind(query, params).executeQuery();
         } catch (SQLException e) {
             LoggerUtils.error("SQL query execution failed: " + e.getMessage());
             throw e;
@@ -58,10 +111,9 @@ public class DBUtills {
     /*
      * Execute an update/insert/delete SQL statement
      */
-    public int executeUpdate(String query) throws SQLException {
+    public int executeUpdate(String query, Object... params) throws SQLException {
         try {
-            Statement statement = connection.createStatement();
-            return statement.executeUpdate(query);
+            return bind(query, params).executeUpdate();
         } catch (SQLException e) {
             LoggerUtils.error("SQL update execution failed: " + e.getMessage());
             throw e;
@@ -69,16 +121,159 @@ public class DBUtills {
     }
 
     /*
-     * Close the database connection
+     * Execute one statement for every parameter row using JDBC batches of db.batch.size,
+     * all in a single transaction. Returns the total update count.
+     */
+    public int executeBatch(String query, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        PreparedStatement statement = bind(query);
+        Connection jdbc = connection.getConnection();
+        boolean autoCommit = jdbc.getAutoCommit();
+        jdbc.setAutoCommit(false);
+        int updated = 0;
+        try {
+            for (int start = 0; start < rows.size(); start += batchSize) {
+                for (Object[] params : rows.subList(start, Math.min(start + batchSize, rows.size()))) {
+                    for (int i = 0; i < params.length; i++) {
+                        statement.setObject(i + 1, params[i]);
+                    }
+                    statement.addBatch();
+                }
+                for (int count : statement.executeBatch()) {
+                    // SUCCESS_NO_INFO (-2): the driver ran the statement but didn't count rows
+                    updated += Math.max(count, 0);
+                }
+            }
+            jdbc.commit();
+            return updated;
+        } catch (SQLException e) {
+            statement.clearBatch();
+            jdbc.rollback();
+            LoggerUtils.error("SQL batch execution failed: " + e.getMessage());
+            throw e;
+        } finally {
+            jdbc.setAutoCommit(autoCommit);
+        }
+    }
+
+    /*
+     * Execute a query and hand each mapped row to the consumer as it is read, fetching
+     * db.fetch.size rows per round trip instead of materializing the whole result.
+     * Returns the number of rows. MySQL only streams with useCursorFetch=true on the URL.
+     */
+    public <T> int streamQuery(String query, RowMapper<? extends T> mapper, Consumer<? super T> consumer,
+            Object... params) throws SQLException {
+        PreparedStatement statement = bind(query, params);
+        statement.setFetchSize(fetchSize);
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                consumer.accept(mapper.map(resultSet));
+                count++;
+            }
+            return count;
+        } catch (SQLException e) {
+            LoggerUtils.error("SQL streaming query failed: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /*
+     * Execute a query and map every row
+     */
+    public <T> List<T> queryList(String query, RowMapper<? extends T> mapper, Object... params) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        streamQuery(query, mapper, rows::add, params);
+        return rows;
+    }
+
+    /*
+     * Check API users against the table's rows, fetching them with one IN query per
+     * db.batch.size ids. Only fields the API returned (non-null) are compared.
+     * Returns one message per mismatch; empty when everything matches.
+     */
+    public List<String> verifyUsers(String table, List<UserResponse> expected) throws SQLException {
+        if (expected.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, UserResponse> pending = new LinkedHashMap<>();
+        for (UserResponse user : expected) {
+            pending.put(user.getId(), user);
+        }
+        List<String> mismatches = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>(pending.keySet());
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            List<Integer> chunk = ids.subList(start, Math.min(start + batchSize, ids.size()));
+            String query = "SELECT id, name, username, email, phone, website FROM " + table
+                + " WHERE id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            streamQuery(query, USER_ROW_MAPPER, (UserResponse actual) -> {
+                UserResponse user = pending.remove(actual.getId());
+                if (user != null) {
+                    compareField(mismatches, user.getId(), "name", user.getName(), actual.getName());
+                    compareField(mismatches, user.getId(), "username", user.getUsername(), actual.getUsername());
+                    compareField(mismatches, user.getId(), "email", user.getEmail(), actual.getEmail());
+                    compareField(mismatches, user.getId(), "phone", user.getPhone(), actual.getPhone());
+                    compareField(mismatches, user.getId(), "website", user.getWebsite(), actual.getWebsite());
+                }
+            }, chunk.toArray());
+        }
+        for (Integer id : pending.keySet()) {
+            mismatches.add("user " + id + ": no row in " + table);
+        }
+        return mismatches;
+    }
+
+    private static void compareField(List<String> mismatches, int id, String field, String expected, String actual) {
+        if (expected != null && !Objects.equals(expected, actual)) {
+            mismatches.add("user " + id + ": " + field + " expected '" + expected + "' but was '" + actual + "'");
+        }
+    }
+
+    /*
+     * Rows fetched per round trip by streamQuery for this instance
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /*
+     * Statements per executeBatch round trip and ids per verifyUsers query for this instance
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    private PreparedStatement bind(String query, Object... params) throws SQLException {
+        if (connection == null) {
+            throw new SQLException("Database connection has already been released");
+        }
+        PreparedStatement statement = connection.prepare(query);
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+        return statement;
+    }
+
+    /*
+     * Pool usage metrics for the database this instance is connected to
+     */
+    public ConnectionPool.Metrics getPoolMetrics() {
+        return pool.getMetrics();
+    }
+
+    /*
+     * Return the database connection to the shared pool
      */
     public void closeConnection() {
         if (connection != null) {
-            try {
-                connection.close();
-                LoggerUtils.success("Database connection closed successfully");
-            } catch (SQLException e) {
-                LoggerUtils.error("Failed to close database connection: " + e.getMessage());
-            }
+            pool.release(connection);
+            connection = null;
+            LoggerUtils.success("Database connection released to pool");
         }
     }
 
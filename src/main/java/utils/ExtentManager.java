@@ -1,46 +1,115 @@
 package utils;
 
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 
+import config.ConfigSnapshot;
+import shard.Shard;
+
 /**
- * ExtentReports manager for test reporting
+ * ExtentReports manager for test reporting.
+ *
+ * Each thread works on its own ExtentTest (held in ThreadLocalClass), so parallel
+ * methods never overwrite each other's node. Every test event is also streamed to
+ * target/extent-reports/events.ndjson as it happens. With report.html.enabled=false
+ * only the stream is written and no report nodes are kept in memory. Shard JVMs write
+ * to target/extent-reports/shard-N instead.
  */
 public class ExtentManager {
 
-    private static ExtentReports extent;
-    private static ExtentTest test;
+    private static final Path REPORT_DIR = Shard.outputDir("target/extent-reports");
+
+    private static volatile ExtentReports extent;
+    private static volatile ReportEventStream events;
+    private static final boolean htmlEnabled = ConfigSnapshot.get().getReporting().isHtmlEnabled();
 
     public static void initReports() {
-        if (extent == null) {
-            ExtentSparkReporter spark = new ExtentSparkReporter("target/extent-reports/ExtentReport.html");
-            spark.config().setTheme(Theme.DARK);
-            spark.config().setDocumentTitle("Test_Report");
-            spark.config().setReportName("Test_Results_" + JavaUtils.getCurrentTimestamp());
-            spark.config().setEncoding("utf-8");
-            spark.config().setTimeStampFormat("dd-MM-yyyy HH:mm:ss");
-
-            extent = new ExtentReports();
-            extent.attachReporter(spark);
-            extent.setSystemInfo("Environment", System.getProperty("environment", "dev"));
-            extent.setSystemInfo("User", System.getProperty("user.name"));
+        if (events != null) {
+            return;
+        }
+        synchronized (ExtentManager.class) {
+            if (events != null) {
+                return;
+            }
+            if (htmlEnabled) {
+                ExtentSparkReporter spark = new ExtentSparkReporter(REPORT_DIR.resolve("ExtentReport.html").toString());
+                spark.config().setTheme(Theme.DARK);
+                spark.config().setDocumentTitle("Test_Report");
+                spark.config().setReportName("Test_Results_" + JavaUtils.getCurrentTimestamp());
+                spark.config().setEncoding("utf-8");
+                spark.config().setTimeStampFormat("dd-MM-yyyy HH:mm:ss");
+
+                ExtentReports reports = new ExtentReports();
+                reports.attachReporter(spark);
+                reports.setSystemInfo("Environment", System.getProperty("environment", "dev"));
+                reports.setSystemInfo("User", System.getProperty("user.name"));
+                extent = reports;
+            }
+            events = new ReportEventStream(REPORT_DIR.resolve("events.ndjson"));
         }
     }
 
     public static void createTest(String testName, String description) {
-        if (extent == null) {
-            initReports();
+        initReports();
+        if (extent != null) {
+            ThreadLocalClass.setExtentTest(extent.createTest(testName, description));
         }
-        test = extent.createTest(testName, description);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", testName);
+        fields.put("description", description);
+        events.emit("test", fields);
+        ThreadLocalClass.setCurrentTestName(testName);
     }
 
+    /**
+     * Get this thread's current test node, or null when HTML reporting is disabled
+     */
     public static ExtentTest getTest() {
-        return test;
+        return ThreadLocalClass.getExtentTest();
+    }
+
+    /**
+     * Log a step against this thread's current test
+     */
+    public static void log(Status status, String details) {
+        initReports();
+        ExtentTest test = ThreadLocalClass.getExtentTest();
+        if (test != null) {
+            test.log(status, details);
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("test", ThreadLocalClass.getCurrentTestName());
+        fields.put("status", status.toString());
+        fields.put("details", details);
+        events.emit("log", fields);
+    }
+
+    public static void pass(String details) {
+        log(Status.PASS, details);
+    }
+
+    public static void fail(String details) {
+        log(Status.FAIL, details);
+    }
+
+    /**
+     * Detach this thread from its test so pooled threads don't leak nodes between tests
+     */
+    public static void removeTest() {
+        ThreadLocalClass.removeExtentTest();
     }
 
     public static void flushReports() {
+        if (events != null) {
+            events.flush();
+        }
         if (extent != null) {
             extent.flush();
         }
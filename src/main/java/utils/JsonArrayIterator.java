@@ -0,0 +1,74 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Pulls the elements of a top-level JSON array one at a time from a token stream,
+ * so only the current element is ever materialized
+ */
+public class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+
+    private final JsonParser parser;
+    private final ObjectReader reader;
+    private JsonToken current;
+
+    JsonArrayIterator(JsonParser parser, ObjectReader reader) {
+        this.parser = parser;
+        this.reader = reader;
+        JsonToken first;
+        try {
+            first = parser.nextToken();
+            current = first == JsonToken.START_ARRAY ? parser.nextToken() : null;
+        } catch (IOException e) {
+            close();
+            throw new RuntimeException("Failed to read JSON array", e);
+        }
+        if (first != JsonToken.START_ARRAY) {
+            close();
+            throw new IllegalStateException("Expected a JSON array but found: " + first);
+        }
+        if (!hasNext()) {
+            // An empty array is already exhausted, and callers may never call next()
+            close();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return current != null && current != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            T value = reader.readValue(parser);
+            current = parser.nextToken();
+            if (!hasNext()) {
+                close();
+            }
+            return value;
+        } catch (IOException e) {
+            close();
+            throw new RuntimeException("Failed to convert JSON to object", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            LoggerUtils.warn("Failed to close JSON parser: " + e.getMessage());
+        }
+    }
+}
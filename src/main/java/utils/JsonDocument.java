@@ -0,0 +1,161 @@
+package utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.restassured.response.Response;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A response body parsed once into a Jackson tree, queried with compiled JsonPathExpressions.
+ *
+ * Replaces repeated response.jsonPath() calls, each of which re-parses the whole body.
+ * Numeric accessors return primitives straight from the tree nodes without boxing.
+ */
+public class JsonDocument {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JsonNode root;
+
+    private JsonDocument(JsonNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Parse the response body bytes
+     */
+    public static JsonDocument of(Response response) {
+        return of(response.asByteArray());
+    }
+
+    public static JsonDocument of(byte[] json) {
+        try {
+            return new JsonDocument(objectMapper.readTree(json));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse JSON document", e);
+        }
+    }
+
+    public JsonNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Node at the path, or MissingNode
+     */
+    public JsonNode get(String path) {
+        return JsonPathExpression.compile(path).evaluate(root);
+    }
+
+    /**
+     * True when the path resolves to a non-null value
+     */
+    public boolean has(String path) {
+        JsonNode node = get(path);
+        return !node.isMissingNode() && !node.isNull();
+    }
+
+    public int getInt(String path) {
+        return number(path).intValue();
+    }
+
+    public long getLong(String path) {
+        return number(path).longValue();
+    }
+
+    public double getDouble(String path) {
+        return number(path).doubleValue();
+    }
+
+    public boolean getBoolean(String path) {
+        JsonNode node = get(path);
+        if (!node.isBoolean()) {
+            throw new IllegalArgumentException("No boolean at path '" + path + "': " + node);
+        }
+        return node.booleanValue();
+    }
+
+    /**
+     * Text at the path, JSON text for objects and arrays, or null when missing
+     */
+    public String getString(String path) {
+        return asText(get(path));
+    }
+
+    /**
+     * Size of the array or object at the path, 0 when missing
+     */
+    public int size(String path) {
+        return get(path).size();
+    }
+
+    /**
+     * Array at the path as primitive ints
+     */
+    public int[] getIntArray(String path) {
+        JsonNode node = array(path);
+        int[] values = new int[node.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = node.get(i).asInt();
+        }
+        return values;
+    }
+
+    /**
+     * Array at the path as primitive longs
+     */
+    public long[] getLongArray(String path) {
+        JsonNode node = array(path);
+        long[] values = new long[node.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = node.get(i).asLong();
+        }
+        return values;
+    }
+
+    /**
+     * Array at the path with each element mapped to the given type
+     */
+    public <T> List<T> getList(String path, Class<T> type) {
+        JsonNode node = array(path);
+        List<T> values = new ArrayList<>(node.size());
+        try {
+            for (JsonNode element : node) {
+                values.add(objectMapper.treeToValue(element, type));
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to map '" + path + "' to " + type.getSimpleName(), e);
+        }
+        return values;
+    }
+
+    /**
+     * Text for a node: the scalar's text, JSON for containers, null when missing or null
+     */
+    public static String asText(JsonNode node) {
+        if (node.isMissingNode() || node.isNull()) {
+            return null;
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    private JsonNode number(String path) {
+        JsonNode node = get(path);
+        if (!node.isNumber()) {
+            throw new IllegalArgumentException("No number at path '" + path + "': " + node);
+        }
+        return node;
+    }
+
+    private JsonNode array(String path) {
+        JsonNode node = get(path);
+        if (!node.isArray()) {
+            throw new IllegalArgumentException("No array at path '" + path + "': " + node);
+        }
+        return node;
+    }
+}
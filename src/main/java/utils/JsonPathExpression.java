@@ -0,0 +1,232 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+/**
+ * A JSON path compiled once into steps and evaluated against Jackson trees or token streams.
+ *
+ * Supports the GPath subset the tests use: dotted field names ("address.city"), array
+ * indexes ("[0].id", "items[-1]"), and "$" or "" for the root. A field applied to an array
+ * is projected over its elements, as in GPath: "userId" on a list of posts yields the list
+ * of userIds. Compiled expressions are immutable and cached, so the same path string is
+ * only parsed once per JVM.
+ */
+public final class JsonPathExpression {
+
+    private static final Map<String, JsonPathExpression> cache = new ConcurrentHashMap<>();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String path;
+    private final List<Step> steps;
+
+    private JsonPathExpression(String path, List<Step> steps) {
+        this.path = path;
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Compiled expression for the path, parsed on first use and cached
+     */
+    public static JsonPathExpression compile(String path) {
+        JsonPathExpression expression = cache.get(path);
+        if (expression == null) {
+            expression = cache.computeIfAbsent(path, p -> new JsonPathExpression(p, parse(p)));
+        }
+        return expression;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Evaluate against a parsed tree; returns MissingNode when nothing matches
+     */
+    public JsonNode evaluate(JsonNode root) {
+        return evaluate(root, 0);
+    }
+
+    private JsonNode evaluate(JsonNode node, int fromStep) {
+        JsonNode current = node;
+        for (int i = fromStep; i < steps.size(); i++) {
+            current = steps.get(i).apply(current);
+            if (current.isMissingNode()) {
+                return current;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Evaluate in one forward pass over the JSON bytes, skipping everything off the path
+     * and stopping as soon as the value is read. Only subtrees that need random access
+     * (projections, negative indexes) are materialized. Results match evaluate.
+     */
+    public JsonNode stream(byte[] json) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return stream(parser);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read JSON for path: " + path, e);
+        }
+    }
+
+    /**
+     * Streaming evaluation straight off an input stream; the stream is closed afterwards
+     */
+    public JsonNode stream(InputStream json) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return stream(parser);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read JSON for path: " + path, e);
+        }
+    }
+
+    private JsonNode stream(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            if (token == JsonToken.START_ARRAY && (step.name != null || step.index < 0)) {
+                // Projection or index from the end: read just this array, finish on the tree
+                return evaluate(parser.readValueAsTree(), i);
+            }
+            token = step.name != null ? seekField(parser, token, step.name) : seekIndex(parser, token, step.index);
+            if (token == null) {
+                return MissingNode.getInstance();
+            }
+        }
+        JsonNode value = parser.readValueAsTree();
+        return value != null ? value : MissingNode.getInstance();
+    }
+
+    /**
+     * Move to the value of the field in the current object; returns the value's token, or null when absent
+     */
+    private static JsonToken seekField(JsonParser parser, JsonToken token, String name) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals(field)) {
+                return value;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private static JsonToken seekIndex(JsonParser parser, JsonToken token, int index) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        int position = 0;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (position++ == index) {
+                return token;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private static List<Step> parse(String path) {
+        List<Step> steps = new ArrayList<>();
+        String expression = path.trim();
+        if (expression.startsWith("$")) {
+            expression = expression.substring(1);
+        }
+        int i = 0;
+        int length = expression.length();
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (c == '.') {
+                i++;
+            } else if (c == '[') {
+                int close = expression.indexOf(']', i);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed '[' in JSON path: " + path);
+                }
+                String index = expression.substring(i + 1, close).trim();
+                try {
+                    steps.add(Step.index(Integer.parseInt(index)));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid index '" + index + "' in JSON path: " + path);
+                }
+                i = close + 1;
+            } else {
+                int end = i;
+                while (end < length && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                    end++;
+                }
+                steps.add(Step.field(expression.substring(i, end)));
+                i = end;
+            }
+        }
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /**
+     * One field or index step
+     */
+    private static final class Step {
+        private final String name;
+        private final int index;
+
+        private Step(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        static Step field(String name) {
+            return new Step(name, 0);
+        }
+
+        static Step index(int index) {
+            return new Step(null, index);
+        }
+
+        JsonNode apply(JsonNode node) {
+            if (name == null) {
+                if (!node.isArray()) {
+                    return MissingNode.getInstance();
+                }
+                int position = index < 0 ? node.size() + index : index;
+                return node.path(position);
+            }
+            if (node.isArray()) {
+                // GPath-style projection over the elements
+                ArrayNode projected = JsonNodeFactory.instance.arrayNode(node.size());
+                for (JsonNode element : node) {
+                    JsonNode value = element.path(name);
+                    if (!value.isMissingNode()) {
+                        projected.add(value);
+                    }
+                }
+                return projected;
+            }
+            return node.path(name);
+        }
+    }
+}
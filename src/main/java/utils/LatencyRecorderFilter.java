@@ -0,0 +1,49 @@
+package utils;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * RestAssured filter that records every request's latency into the LatencyRegistry,
+ * keyed by the endpoint template (e.g. /users/{userId}) rather than the resolved path
+ */
+public class LatencyRecorderFilter implements OrderedFilter {
+
+    public static final LatencyRecorderFilter INSTANCE = new LatencyRecorderFilter();
+
+    private final LatencyRegistry registry;
+
+    public LatencyRecorderFilter() {
+        this(LatencyRegistry.get());
+    }
+
+    public LatencyRecorderFilter(LatencyRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long elapsed = System.nanoTime() - start;
+
+        String endpoint = requestSpec.getUserDefinedPath();
+        if (endpoint == null || endpoint.isEmpty()) {
+            endpoint = requestSpec.getDerivedPath();
+        }
+        registry.record(requestSpec.getMethod(), endpoint, response.getStatusCode(), elapsed);
+        return response;
+    }
+
+    /**
+     * Run closest to the network so other filters' work isn't counted as latency
+     */
+    @Override
+    public int getOrder() {
+        return OrderedFilter.LOWEST_PRECEDENCE;
+    }
+}
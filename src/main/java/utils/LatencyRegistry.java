@@ -0,0 +1,210 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Process-wide latency histograms per method, endpoint template and status code.
+ *
+ * Recording goes through HdrHistogram Recorders, which are wait-free for writers,
+ * so any number of test threads can record without contending. Snapshots fold the
+ * recorded intervals into cumulative histograms on the reader side only.
+ */
+public class LatencyRegistry {
+
+    private static final LatencyRegistry INSTANCE = new LatencyRegistry();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+    private final long createdAtNanos = System.nanoTime();
+
+    public static LatencyRegistry get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record one request's latency
+     */
+    public void record(String method, String endpoint, int statusCode, long latencyNanos) {
+        String key = method + ' ' + endpoint + ' ' + statusCode;
+        EndpointLatency latency = endpoints.get(key);
+        if (latency == null) {
+            latency = endpoints.computeIfAbsent(key, k -> new EndpointLatency(method, endpoint, statusCode));
+        }
+        latency.recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    /**
+     * Cumulative statistics for every endpoint recorded so far, busiest first
+     */
+    public List<EndpointStats> snapshot() {
+        double elapsedSeconds = (System.nanoTime() - createdAtNanos) / 1e9;
+        List<EndpointStats> stats = new ArrayList<>();
+        for (EndpointLatency latency : endpoints.values()) {
+            stats.add(latency.snapshot(elapsedSeconds));
+        }
+        stats.sort(Comparator.comparingLong(EndpointStats::getCount).reversed());
+        return stats;
+    }
+
+    /**
+     * Latency at the given percentile (0-100) in milliseconds for one method, endpoint and status,
+     * or -1 while fewer than minCount requests have been recorded. Cheap enough to call per request.
+     */
+    public double percentileMillis(String method, String endpoint, int statusCode, double percentile, long minCount) {
+        EndpointLatency latency = endpoints.get(method + ' ' + endpoint + ' ' + statusCode);
+        return latency == null ? -1 : latency.percentileMillis(percentile, minCount);
+    }
+
+    /**
+     * Write latency.json and latency.prom (Prometheus text format) into the directory
+     */
+    public void export(Path directory) {
+        List<EndpointStats> stats = snapshot();
+        if (stats.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("latency.json"), APIUtils.toJsonBytes(toJson(stats)));
+            try (Writer out = Files.newBufferedWriter(directory.resolve("latency.prom"), StandardCharsets.UTF_8)) {
+                writePrometheus(stats, out);
+            }
+            LoggerUtils.success("Latency metrics exported to " + directory);
+        } catch (IOException e) {
+            LoggerUtils.error("Failed to export latency metrics: " + e.getMessage());
+        }
+    }
+
+    private static List<Map<String, Object>> toJson(List<EndpointStats> stats) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (EndpointStats s : stats) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("method", s.getMethod());
+            row.put("endpoint", s.getEndpoint());
+            row.put("status", s.getStatusCode());
+            row.put("count", s.getCount());
+            row.put("throughputPerSecond", s.getThroughput());
+            row.put("meanMs", s.getMeanMillis());
+            row.put("p50Ms", s.getPercentileMillis(50));
+            row.put("p90Ms", s.getPercentileMillis(90));
+            row.put("p99Ms", s.getPercentileMillis(99));
+            row.put("p999Ms", s.getPercentileMillis(99.9));
+            row.put("maxMs", s.getMaxMillis());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void writePrometheus(List<EndpointStats> stats, Writer out) throws IOException {
+        out.write("# HELP api_request_duration_seconds API request latency by endpoint template\n");
+        out.write("# TYPE api_request_duration_seconds summary\n");
+        for (EndpointStats s : stats) {
+            String labels = "method=\"" + s.getMethod() + "\",endpoint=\"" + escape(s.getEndpoint())
+                + "\",status=\"" + s.getStatusCode() + "\"";
+            for (double quantile : QUANTILES) {
+                out.write(String.format(Locale.ROOT, "api_request_duration_seconds{%s,quantile=\"%s\"} %.6f%n",
+                    labels, quantile, s.getPercentileMillis(quantile * 100) / 1000));
+            }
+            out.write(String.format(Locale.ROOT, "api_request_duration_seconds_sum{%s} %.6f%n",
+                labels, s.getMeanMillis() * s.getCount() / 1000));
+            out.write(String.format(Locale.ROOT, "api_request_duration_seconds_count{%s} %d%n", labels, s.getCount()));
+        }
+        out.write("# HELP api_requests_per_second Average request throughput over the run\n");
+        out.write("# TYPE api_requests_per_second gauge\n");
+        for (EndpointStats s : stats) {
+            out.write(String.format(Locale.ROOT,
+                "api_requests_per_second{method=\"%s\",endpoint=\"%s\",status=\"%d\"} %.3f%n",
+                s.getMethod(), escape(s.getEndpoint()), s.getStatusCode(), s.getThroughput()));
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static class EndpointLatency {
+        private final String method;
+        private final String endpoint;
+        private final int statusCode;
+        private final Recorder recorder = new Recorder(3);
+        private final Histogram total = new Histogram(3);
+        private Histogram interval;
+
+        EndpointLatency(String method, String endpoint, int statusCode) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.statusCode = statusCode;
+        }
+
+        synchronized EndpointStats snapshot(double elapsedSeconds) {
+            fold();
+            return new EndpointStats(method, endpoint, statusCode, total.copy(), elapsedSeconds);
+        }
+
+        synchronized double percentileMillis(double percentile, long minCount) {
+            fold();
+            return total.getTotalCount() < minCount ? -1 : total.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        private void fold() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+        }
+    }
+
+    /**
+     * Cumulative latency statistics for one method, endpoint template and status
+     */
+    public static class EndpointStats {
+        private final String method;
+        private final String endpoint;
+        private final int statusCode;
+        private final Histogram latencyMicros;
+        private final double throughput;
+
+        EndpointStats(String method, String endpoint, int statusCode, Histogram latencyMicros, double elapsedSeconds) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.statusCode = statusCode;
+            this.latencyMicros = latencyMicros;
+            this.throughput = elapsedSeconds > 0 ? latencyMicros.getTotalCount() / elapsedSeconds : 0;
+        }
+
+        public String getMethod() { return method; }
+        public String getEndpoint() { return endpoint; }
+        public int getStatusCode() { return statusCode; }
+        public long getCount() { return latencyMicros.getTotalCount(); }
+        public double getThroughput() { return throughput; }
+        public double getMeanMillis() { return latencyMicros.getMean() / 1000; }
+        public double getMaxMillis() { return latencyMicros.getMaxValue() / 1000.0; }
+
+        /**
+         * Latency at the given percentile (0-100) in milliseconds
+         */
+        public double getPercentileMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        /**
+         * Copy of the underlying histogram, in microseconds
+         */
+        public Histogram getHistogram() {
+            return latencyMicros.copy();
+        }
+    }
+}
@@ -1,29 +1,129 @@
 package utils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import config.ConfigSnapshot;
+
+/**
+ * Level-gated logging on top of AsyncLogWriter, written to stdout.
+ * Disabled levels return before any message is built; use the Supplier overloads
+ * when building the message itself costs something. With log.overflow=DROP only
+ * DEBUG and INFO records can be dropped; WARN and ERROR wait for buffer space.
+ */
 public class LoggerUtils {
-    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LoggerUtils.class);
+
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final Level level;
+    private static final int bodyMaxChars;
+    private static final double bodySampleRate;
+    private static final AsyncLogWriter writer;
+
+    static {
+        Level configuredLevel = Level.INFO;
+        int capacity = 8192;
+        AsyncLogWriter.OverflowPolicy policy = AsyncLogWriter.OverflowPolicy.DROP;
+        int maxChars = 2000;
+        double sampleRate = 1.0;
+        try {
+            ConfigSnapshot.Logging config = ConfigSnapshot.get().getLogging();
+            configuredLevel = Level.valueOf(config.getLevel().toUpperCase(Locale.ROOT));
+            capacity = config.getQueueCapacity();
+            policy = AsyncLogWriter.OverflowPolicy.valueOf(config.getOverflow().toUpperCase(Locale.ROOT));
+            maxChars = config.getBodyMaxChars();
+            sampleRate = config.getBodySampleRate();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Invalid logging configuration, using defaults: " + e.getMessage());
+        }
+        level = configuredLevel;
+        bodyMaxChars = maxChars;
+        bodySampleRate = sampleRate;
+        writer = new AsyncLogWriter(capacity, policy, System.out);
+    }
+
+    public static boolean isEnabled(Level candidate) {
+        return candidate != Level.OFF && candidate.ordinal() >= level.ordinal();
+    }
 
     public static void info(String message) {
-        logger.info("Info: " + message);
+        log(Level.INFO, "Info: ", message);
+    }
+
+    public static void info(Supplier<String> message) {
+        log(Level.INFO, "Info: ", message);
     }
 
     public static void error(String message) {
-        logger.error("Error: " + message);
+        log(Level.ERROR, "Error: ", message);
     }
 
     public static void debug(String message) {
-        logger.debug("Debug: " + message);
+        log(Level.DEBUG, "Debug: ", message);
+    }
+
+    public static void debug(Supplier<String> message) {
+        log(Level.DEBUG, "Debug: ", message);
     }
 
     public static void warn(String message) {
-        logger.warn("Warning: " + message);
+        log(Level.WARN, "Warning: ", message);
     }
 
     public static void success(String message) {
-        logger.info("Success: " + message);
+        log(Level.INFO, "Success: ", message);
+    }
+
+    public static void success(Supplier<String> message) {
+        log(Level.INFO, "Success: ", message);
     }
 
     public static void loading(String message) {
-        logger.info("Info: " + message);
+        log(Level.INFO, "Info: ", message);
+    }
+
+    /**
+     * Body text for a debug dump, capped at log.body.max.chars, or null when this
+     * dump is not sampled (log.body.sample.rate)
+     */
+    public static String sampleBody(byte[] body) {
+        if (bodySampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= bodySampleRate) {
+            return null;
+        }
+        // UTF-8 needs at most 4 bytes per char, so this decodes no more than needed
+        int length = (int) Math.min(body.length, (long) bodyMaxChars * 4);
+        String text = new String(body, 0, length, StandardCharsets.UTF_8);
+        if (text.length() > bodyMaxChars) {
+            return text.substring(0, bodyMaxChars) + "... [" + body.length + " bytes total]";
+        }
+        return length < body.length ? text + "... [" + body.length + " bytes total]" : text;
+    }
+
+    /**
+     * Number of log records dropped because the writer could not keep up
+     */
+    public static long getDroppedCount() {
+        return writer.getDroppedCount();
+    }
+
+    /**
+     * Wait for pending log records to be written
+     */
+    public static void flush() {
+        writer.flush(5000);
+    }
+
+    private static void log(Level recordLevel, String prefix, String message) {
+        if (isEnabled(recordLevel)) {
+            writer.submit(prefix, message, recordLevel.ordinal() >= Level.WARN.ordinal());
+        }
+    }
+
+    private static void log(Level recordLevel, String prefix, Supplier<String> message) {
+        if (isEnabled(recordLevel)) {
+            writer.submit(prefix, message.get(), recordLevel.ordinal() >= Level.WARN.ordinal());
+        }
     }
 }
@@ -0,0 +1,293 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import config.ConfigSnapshot;
+import shard.Shard;
+
+/**
+ * Compares this run's latency distributions with a rolling baseline of earlier runs.
+ *
+ * The baseline for an endpoint is the merged histograms of its last perf.baseline.runs runs
+ * in the same environment. An endpoint regresses when a two-sample Kolmogorov-Smirnov test
+ * says the distributions differ (alpha 0.01) and the median slowed by more than
+ * perf.regression.threshold.percent; the test alone flags harmless shifts on big samples,
+ * the threshold alone flags noise on small ones. perf.gate decides whether regressions
+ * only log warnings or fail the suite. The run is appended to the history either way.
+ *
+ * Shards of one run share perf.run.id, so their histograms merge into one run both as the
+ * current sample and later as baseline. A shard JVM only records its histograms; ShardRunner
+ * judges the run once every shard has exited (checkRun), so no verdict is ever reached on
+ * part of a run. Endpoints with too few samples for a verdict are listed in a warning
+ * rather than passed silently.
+ */
+public class PerfGate {
+
+    /** Fewer samples than this on either side can't support a verdict */
+    private static final int MIN_SAMPLES = 5;
+
+    /** Kolmogorov-Smirnov c(alpha) for alpha = 0.01 */
+    private static final double KS_C_ALPHA = 1.628;
+
+    /** One id for every shard JVM of a run; ShardRunner sets it, a single JVM makes its own */
+    public static final String RUN_ID_PROPERTY = "perf.run.id";
+
+    /**
+     * Record the run and, outside a shard, compare it with its baseline and warn or fail per perf.gate
+     */
+    public static void check(List<LatencyRegistry.EndpointStats> stats) {
+        ConfigSnapshot config = ConfigSnapshot.get();
+        ConfigSnapshot.Perf perf = config.getPerf();
+        if ("OFF".equals(perf.getGate()) || stats.isEmpty()) {
+            return;
+        }
+        String runId = System.getProperty(RUN_ID_PROPERTY, "").trim();
+        if (runId.isEmpty()) {
+            runId = UUID.randomUUID().toString();
+        }
+        PerfHistory history = new PerfHistory(Paths.get(perf.getHistoryFile()));
+        try {
+            record(history, config.getEnvironment(), runId, commit(), stats);
+        } catch (IOException e) {
+            LoggerUtils.error("Failed to update performance history: " + e.getMessage());
+            return;
+        }
+        if (Shard.index() >= 0) {
+            LoggerUtils.info("📈 Shard " + Shard.index() + " recorded its latencies; the run is gated once all shards finish");
+            return;
+        }
+        checkRun(runId);
+    }
+
+    /**
+     * Compare everything recorded under the run id with its baseline, and warn or fail per perf.gate
+     */
+    public static void checkRun(String runId) {
+        ConfigSnapshot config = ConfigSnapshot.get();
+        ConfigSnapshot.Perf perf = config.getPerf();
+        if ("OFF".equals(perf.getGate())) {
+            return;
+        }
+        List<Comparison> comparisons;
+        try {
+            comparisons = evaluate(new PerfHistory(Paths.get(perf.getHistoryFile())), config.getEnvironment(), runId,
+                perf.getBaselineRuns(), perf.getRegressionThresholdPercent());
+        } catch (IOException e) {
+            LoggerUtils.error("Failed to read performance history: " + e.getMessage());
+            return;
+        }
+
+        List<String> untested = new ArrayList<>();
+        StringBuilder message = new StringBuilder("Performance regressions against the last ")
+            .append(perf.getBaselineRuns()).append(" runs:");
+        boolean regressed = false;
+        for (Comparison comparison : comparisons) {
+            if (!comparison.isTested()) {
+                untested.add(comparison.getEndpoint() + " (n=" + comparison.getCurrentCount() + " vs "
+                    + comparison.getBaselineCount() + ")");
+            } else if (comparison.isRegression()) {
+                message.append("\n  ").append(comparison);
+                regressed = true;
+            }
+        }
+        if (!untested.isEmpty()) {
+            LoggerUtils.warn("⚠️ Performance gate has no verdict for " + untested.size() + " of " + comparisons.size()
+                + " endpoints, which need " + MIN_SAMPLES + " samples in this run and in the baseline: "
+                + String.join(", ", untested));
+        }
+        if (!regressed) {
+            return;
+        }
+        if ("FAIL".equals(perf.getGate())) {
+            throw new AssertionError(message.toString());
+        }
+        LoggerUtils.warn(message.toString());
+    }
+
+    /**
+     * Append this JVM's histograms to the history under the run id
+     */
+    public static void record(PerfHistory history, String environment, String runId, String commit,
+            List<LatencyRegistry.EndpointStats> stats) throws IOException {
+        long now = System.currentTimeMillis();
+        List<PerfHistory.Entry> entries = new ArrayList<>();
+        for (LatencyRegistry.EndpointStats s : stats) {
+            String endpoint = s.getMethod() + " " + s.getEndpoint() + " " + s.getStatusCode();
+            entries.add(new PerfHistory.Entry(now, runId, commit, environment, endpoint, s.getHistogram()));
+        }
+        history.append(entries);
+        LoggerUtils.info("📈 Recorded " + entries.size() + " latency distributions for " + commit + " in "
+            + history.getFile());
+    }
+
+    /**
+     * Compare each endpoint recorded under the run id, merged over all its shards, with its
+     * baseline; the baseline counts runs by id, not by shard. Returns one comparison per
+     * endpoint of the run.
+     */
+    public static List<Comparison> evaluate(PerfHistory history, String environment, String runId,
+            int baselineRuns, double thresholdPercent) throws IOException {
+        List<PerfHistory.Entry> earlierRuns = new ArrayList<>();
+        Map<String, Histogram> thisRun = new TreeMap<>();
+        for (PerfHistory.Entry entry : history.read(environment)) {
+            if (entry.getRunId().equals(runId)) {
+                thisRun.computeIfAbsent(entry.getEndpoint(), e -> new Histogram(3)).add(entry.getHistogram());
+            } else {
+                earlierRuns.add(entry);
+            }
+        }
+        Map<String, Histogram> baseline = baseline(earlierRuns, baselineRuns);
+        if (baseline.isEmpty()) {
+            LoggerUtils.info("📈 No performance baseline yet for " + environment);
+        }
+
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, Histogram> endpoint : thisRun.entrySet()) {
+            Histogram previous = baseline.get(endpoint.getKey());
+            comparisons.add(compare(endpoint.getKey(), endpoint.getValue(),
+                previous != null ? previous : new Histogram(3), thresholdPercent));
+        }
+        return comparisons;
+    }
+
+    /**
+     * Two-sample KS test plus median shift between current and baseline histograms
+     */
+    public static Comparison compare(String endpoint, Histogram current, Histogram baseline, double thresholdPercent) {
+        long n = current.getTotalCount();
+        long m = baseline.getTotalCount();
+        if (n < MIN_SAMPLES || m < MIN_SAMPLES) {
+            return new Comparison(endpoint, n, m, 0, Double.NaN, 0, false);
+        }
+        // Walk the union of recorded values in order, tracking both empirical CDFs
+        TreeMap<Long, long[]> counts = new TreeMap<>();
+        for (HistogramIterationValue value : current.recordedValues()) {
+            counts.computeIfAbsent(value.getValueIteratedTo(), v -> new long[2])[0] += value.getCountAtValueIteratedTo();
+        }
+        for (HistogramIterationValue value : baseline.recordedValues()) {
+            counts.computeIfAbsent(value.getValueIteratedTo(), v -> new long[2])[1] += value.getCountAtValueIteratedTo();
+        }
+        long cumulativeCurrent = 0;
+        long cumulativeBaseline = 0;
+        double statistic = 0;
+        for (long[] count : counts.values()) {
+            cumulativeCurrent += count[0];
+            cumulativeBaseline += count[1];
+            statistic = Math.max(statistic,
+                Math.abs((double) cumulativeCurrent / n - (double) cumulativeBaseline / m));
+        }
+        double critical = KS_C_ALPHA * Math.sqrt((double) (n + m) / ((double) n * m));
+
+        double baselineMedian = baseline.getValueAtPercentile(50);
+        double medianChange = baselineMedian > 0
+            ? (current.getValueAtPercentile(50) - baselineMedian) / baselineMedian * 100 : 0;
+        boolean regression = statistic > critical && medianChange > thresholdPercent;
+        return new Comparison(endpoint, n, m, statistic, critical, medianChange, regression);
+    }
+
+    /**
+     * Merged histogram per endpoint over each endpoint's most recent runs
+     */
+    private static Map<String, Histogram> baseline(List<PerfHistory.Entry> entries, int runs) {
+        Map<String, Set<String>> runsByEndpoint = new HashMap<>();
+        Map<String, Histogram> merged = new HashMap<>();
+        // Newest first, so each endpoint takes its latest runs
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            PerfHistory.Entry entry = entries.get(i);
+            Set<String> seen = runsByEndpoint.computeIfAbsent(entry.getEndpoint(), e -> new LinkedHashSet<>());
+            if (seen.size() >= runs && !seen.contains(entry.getRunId())) {
+                continue;
+            }
+            seen.add(entry.getRunId());
+            merged.computeIfAbsent(entry.getEndpoint(), e -> new Histogram(3)).add(entry.getHistogram());
+        }
+        return merged;
+    }
+
+    /**
+     * Commit under test: -Dperf.commit, then common CI variables, then git itself
+     */
+    private static String commit() {
+        String commit = System.getProperty("perf.commit");
+        for (String variable : new String[]{"GIT_COMMIT", "GITHUB_SHA", "CI_COMMIT_SHA"}) {
+            if (commit == null || commit.isEmpty()) {
+                commit = System.getenv(variable);
+            }
+        }
+        if (commit == null || commit.isEmpty()) {
+            try {
+                Process git = new ProcessBuilder("git", "rev-parse", "--short=12", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+                byte[] output = git.getInputStream().readAllBytes();
+                if (git.waitFor(5, TimeUnit.SECONDS) && git.exitValue() == 0) {
+                    commit = new String(output, StandardCharsets.UTF_8).trim();
+                }
+            } catch (IOException e) {
+                // git not installed
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return commit == null || commit.isEmpty() ? "unknown" : commit;
+    }
+
+    /**
+     * Result of comparing one endpoint with its baseline
+     */
+    public static final class Comparison {
+        private final String endpoint;
+        private final long currentCount;
+        private final long baselineCount;
+        private final double statistic;
+        private final double critical;
+        private final double medianChangePercent;
+        private final boolean regression;
+
+        Comparison(String endpoint, long currentCount, long baselineCount, double statistic, double critical,
+                double medianChangePercent, boolean regression) {
+            this.endpoint = endpoint;
+            this.currentCount = currentCount;
+            this.baselineCount = baselineCount;
+            this.statistic = statistic;
+            this.critical = critical;
+            this.medianChangePercent = medianChangePercent;
+            this.regression = regression;
+        }
+
+        public String getEndpoint() { return endpoint; }
+        public long getCurrentCount() { return currentCount; }
+        public long getBaselineCount() { return baselineCount; }
+        public double getStatistic() { return statistic; }
+        public double getMedianChangePercent() { return medianChangePercent; }
+        public boolean isRegression() { return regression; }
+
+        /**
+         * Whether both samples were large enough to test
+         */
+        public boolean isTested() {
+            return !Double.isNaN(critical);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: median %+.1f%%, KS D=%.3f (critical %.3f), n=%d vs %d",
+                endpoint, medianChangePercent, statistic, critical, currentCount, baselineCount);
+        }
+    }
+}
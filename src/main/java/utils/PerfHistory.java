@@ -0,0 +1,175 @@
+package utils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Append-only store of per-run latency histograms, keyed by commit, environment and endpoint.
+ *
+ * Layout: a 4-byte magic, then records of [int length][long time][run][commit][environment]
+ * [endpoint][int size][compressed HdrHistogram]. A histogram compresses to a few hundred
+ * bytes, so years of runs stay small. Appends take an OS file lock, so shard JVMs finishing
+ * together can share one file; reads skip records for other environments without decoding
+ * their histograms and ignore a torn record at the tail.
+ */
+public class PerfHistory {
+
+    private static final int MAGIC = 0x50524631; // "PRF1"
+
+    private final Path file;
+
+    public PerfHistory(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Append all entries of one run in a single locked write
+     */
+    public void append(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Entry entry : entries) {
+            ByteBuffer histogram = ByteBuffer.allocate(entry.histogram.getNeededByteBufferCapacity());
+            int histogramLength = entry.histogram.encodeIntoCompressedByteBuffer(histogram);
+
+            ByteArrayOutputStream record = new ByteArrayOutputStream(128 + histogramLength);
+            DataOutputStream recordOut = new DataOutputStream(record);
+            recordOut.writeLong(entry.timeMillis);
+            recordOut.writeUTF(entry.runId);
+            recordOut.writeUTF(entry.commit);
+            recordOut.writeUTF(entry.environment);
+            recordOut.writeUTF(entry.endpoint);
+            recordOut.writeInt(histogramLength);
+            recordOut.write(histogram.array(), 0, histogramLength);
+            recordOut.flush();
+
+            out.writeInt(record.size());
+            record.writeTo(out);
+        }
+        out.flush();
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ);
+             FileLock lock = channel.lock()) {
+            long position = channel.size();
+            if (position == 0) {
+                position += channel.write(ByteBuffer.allocate(4).putInt(MAGIC).flip(), 0);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * All entries for the environment, oldest first; empty when there is no history yet
+     */
+    public List<Entry> read(String environment) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            return entries;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a performance history file: " + file);
+            }
+            while (true) {
+                int length;
+                byte[] record;
+                try {
+                    length = in.readInt();
+                    record = new byte[length];
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    // End of file, or a torn write from an interrupted run
+                    break;
+                }
+                Entry entry = decode(record, environment);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        } catch (EOFException e) {
+            // Empty file
+        }
+        return entries;
+    }
+
+    private Entry decode(byte[] record, String environment) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        long timeMillis = in.readLong();
+        String runId = in.readUTF();
+        String commit = in.readUTF();
+        String recordEnvironment = in.readUTF();
+        if (!recordEnvironment.equals(environment)) {
+            return null;
+        }
+        String endpoint = in.readUTF();
+        int histogramLength = in.readInt();
+        ByteBuffer histogram = ByteBuffer.wrap(record, record.length - in.available(), histogramLength);
+        try {
+            return new Entry(timeMillis, runId, commit, recordEnvironment, endpoint,
+                Histogram.decodeFromCompressedByteBuffer(histogram, 0));
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt histogram for " + endpoint + " in " + file, e);
+        }
+    }
+
+    /**
+     * One endpoint's latency distribution from one run, in microseconds
+     */
+    public static final class Entry {
+        private final long timeMillis;
+        private final String runId;
+        private final String commit;
+        private final String environment;
+        private final String endpoint;
+        private final Histogram histogram;
+
+        public Entry(long timeMillis, String runId, String commit, String environment, String endpoint,
+                Histogram histogram) {
+            this.timeMillis = timeMillis;
+            this.runId = runId;
+            this.commit = commit;
+            this.environment = environment;
+            this.endpoint = endpoint;
+            this.histogram = histogram;
+        }
+
+        public long getTimeMillis() { return timeMillis; }
+        public String getRunId() { return runId; }
+        public String getCommit() { return commit; }
+        public String getEnvironment() { return environment; }
+        public String getEndpoint() { return endpoint; }
+        public Histogram getHistogram() { return histogram; }
+    }
+}
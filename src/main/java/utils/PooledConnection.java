@@ -0,0 +1,125 @@
+package utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pooled JDBC connection with its own LRU cache of prepared statements.
+ * A connection is only ever used by the thread that borrowed it, so the cache
+ * needs no locking. A cache size of 0 disables caching: every call prepares a fresh
+ * statement, which is closed when the same SQL is prepared again or the connection
+ * goes back to the pool.
+ */
+public class PooledConnection {
+
+    private final Connection connection;
+    private final int statementCacheSize;
+    private final Map<String, PreparedStatement> statements;
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
+
+    PooledConnection(Connection connection, int statementCacheSize, LongAdder cacheHits, LongAdder cacheMisses) {
+        this.connection = connection;
+        this.statementCacheSize = statementCacheSize;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (statementCacheSize > 0 && size() > statementCacheSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a cached prepared statement for the SQL, preparing it on first use.
+     * Re-executing a cached statement closes the ResultSet of its previous execution.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        if (statementCacheSize == 0) {
+            return prepareUncached(sql);
+        }
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            cacheHits.increment();
+            statement.clearParameters();
+            return statement;
+        }
+        cacheMisses.increment();
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * Fresh statement for every call. Only the latest one per SQL is kept open, so results
+     * stay valid exactly as long as with a cache.
+     */
+    private PreparedStatement prepareUncached(String sql) throws SQLException {
+        cacheMisses.increment();
+        PreparedStatement previous = statements.remove(sql);
+        if (previous != null) {
+            closeQuietly(previous);
+        }
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    boolean isUsable() {
+        try {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Undo per-borrower state before the connection goes back to the pool
+     */
+    void reset() throws SQLException {
+        if (statementCacheSize == 0) {
+            closeStatements();
+        }
+        if (!connection.getAutoCommit()) {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    void close() {
+        closeStatements();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LoggerUtils.error("Failed to close database connection: " + e.getMessage());
+        }
+    }
+
+    private void closeStatements() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LoggerUtils.warn("Failed to close prepared statement: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams test report events to an NDJSON file while the suite runs.
+ *
+ * Test threads append to a lock-free queue; one daemon thread drains it and flushes
+ * each batch to disk, so the file always holds every event up to the last batch and
+ * survives a crash as a usable partial report. Nothing is retained in memory once
+ * written, so memory stays flat however many tests run.
+ */
+public class ReportEventStream {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final Path file;
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public ReportEventStream(Path file) {
+        this.file = file;
+        try {
+            Files.createDirectories(file.getParent());
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create report directory: " + file.getParent(), e);
+        }
+        this.worker = new Thread(this::drain, "report-event-stream");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "report-event-stream-shutdown"));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Record an event; fields are written in insertion order
+     */
+    public void emit(String type, Map<String, Object> fields) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("ts", System.currentTimeMillis());
+        event.put("thread", Thread.currentThread().getName());
+        event.putAll(fields);
+        queue.offer(APIUtils.toJson(event));
+        enqueued.incrementAndGet();
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Wait until everything emitted so far is on disk
+     */
+    public void flush() {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (written.get() < target && worker.isAlive() && System.nanoTime() < deadline) {
+            LockSupport.unpark(worker);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Flush remaining events and stop the writer
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (running || !queue.isEmpty()) {
+                String line = queue.poll();
+                if (line == null) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                long batch = 0;
+                do {
+                    out.write(line);
+                    out.newLine();
+                    batch++;
+                } while ((line = queue.poll()) != null);
+                out.flush();
+                written.addAndGet(batch);
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Report event stream stopped: " + e.getMessage());
+        }
+    }
+}
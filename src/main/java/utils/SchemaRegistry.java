@@ -0,0 +1,88 @@
+package utils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Compiled JSON schemas for response contracts, loaded from /schemas/<name>.json on the classpath.
+ *
+ * Each schema is parsed and compiled once, on first use, and the compiled JsonSchema is
+ * shared by every thread (it is immutable). Bodies are parsed straight from the response
+ * bytes into a tree, so validation never builds an intermediate String.
+ */
+public final class SchemaRegistry {
+
+    public static final String USER = "user";
+    public static final String USERS = "users";
+    public static final String POST = "post";
+    public static final String POSTS = "posts";
+
+    private static final String SCHEMA_ROOT = "resource:/schemas/";
+    private static final JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Map<String, JsonSchema> schemas = new ConcurrentHashMap<>();
+
+    private SchemaRegistry() {
+    }
+
+    /**
+     * Compiled schema by name, compiling it on first use
+     */
+    public static JsonSchema get(String name) {
+        JsonSchema schema = schemas.get(name);
+        if (schema == null) {
+            schema = schemas.computeIfAbsent(name, SchemaRegistry::compile);
+        }
+        return schema;
+    }
+
+    /**
+     * Validate raw JSON bytes against the named schema
+     */
+    public static ProcessingReport validate(String name, byte[] json) {
+        JsonSchema schema = get(name);
+        try {
+            return schema.validate(objectMapper.readTree(json), true);
+        } catch (IOException e) {
+            throw new AssertionError("Response body is not valid JSON: " + e.getMessage(), e);
+        } catch (ProcessingException e) {
+            throw new RuntimeException("Failed to validate against schema: " + name, e);
+        }
+    }
+
+    /**
+     * Fail with every schema violation if the bytes don't match the named schema
+     */
+    public static void assertValid(String name, byte[] json) {
+        ProcessingReport report = validate(name, json);
+        if (report.isSuccess()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("Response does not match schema '").append(name).append("':");
+        for (ProcessingMessage violation : report) {
+            JsonNode pointer = violation.asJson().path("instance").path("pointer");
+            message.append("\n  ").append(pointer.asText().isEmpty() ? "/" : pointer.asText())
+                .append(": ").append(violation.getMessage());
+        }
+        throw new AssertionError(message.toString());
+    }
+
+    private static JsonSchema compile(String name) {
+        try {
+            JsonSchema schema = factory.getJsonSchema(SCHEMA_ROOT + name + ".json");
+            LoggerUtils.debug(() -> "Compiled JSON schema: " + name);
+            return schema;
+        } catch (ProcessingException e) {
+            throw new RuntimeException("Failed to load JSON schema: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import com.github.javafaker.Faker;
+
+import config.ConfigSnapshot;
+import mdoels.request.UserRequest;
+
+/**
+ * Pre-generated pool of UserRequest test data.
+ *
+ * Users are generated up front in parallel chunks, each chunk with its own Faker seeded
+ * with the chunk's value from a SplittableRandom stream of the seed. The same seed and
+ * size always produce the same data no matter how many cores did the work, and no chunk
+ * of one seed repeats a chunk of another. Readers claim rows through a single atomic cursor,
+ * so parallel data providers never block each other. Pools can be spilled to a compact
+ * binary file and reloaded on later runs without paying Faker's cost again.
+ */
+public class TestDataPool {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int FILE_MAGIC = 0x55445032; // "UDP2", chunks seeded from SplittableRandom
+    private static final Path SPILL_DIR = Paths.get("target", "test-data");
+    private static final Map<String, TestDataPool> SHARED = new ConcurrentHashMap<>();
+
+    private final long seed;
+    private final UserRequest[] users;
+    private final AtomicLong cursor = new AtomicLong();
+
+    private TestDataPool(long seed, UserRequest[] users) {
+        this.seed = seed;
+        this.users = users;
+    }
+
+    /**
+     * Process-wide pool for the configured seed, generated (or loaded from disk) on first use
+     */
+    public static TestDataPool shared(int count) {
+        ConfigSnapshot.TestData config = ConfigSnapshot.get().getTestData();
+        long seed = config.getSeed();
+        boolean spill = config.isSpillEnabled();
+        return SHARED.computeIfAbsent(seed + ":" + count,
+            k -> spill ? loadOrGenerate(seed, count, SPILL_DIR) : generate(seed, count));
+    }
+
+    /**
+     * Generate count users from the seed, in parallel chunks
+     */
+    public static TestDataPool generate(long seed, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Test data pool needs at least one user: " + count);
+        }
+        long start = System.nanoTime();
+        UserRequest[] users = new UserRequest[count];
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        long[] chunkSeeds = new SplittableRandom(seed).longs(chunks).toArray();
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            Faker faker = new Faker(Locale.ENGLISH, new Random(chunkSeeds[chunk]));
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(count, from + CHUNK_SIZE);
+            for (int i = from; i < to; i++) {
+                users[i] = newUser(faker, i);
+            }
+        });
+        LoggerUtils.info(() -> "🧪 Generated " + count + " test users (seed " + seed + ") in "
+            + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return new TestDataPool(seed, users);
+    }
+
+    /**
+     * Load users-seed-count.bin from the directory, or generate the pool and spill it there
+     */
+    public static TestDataPool loadOrGenerate(long seed, int count, Path directory) {
+        Path file = directory.resolve("users-" + seed + "-" + count + ".bin");
+        if (Files.isRegularFile(file)) {
+            try {
+                TestDataPool pool = readFrom(file);
+                if (pool.seed == seed && pool.size() == count) {
+                    LoggerUtils.info(() -> "🧪 Loaded " + count + " test users from " + file);
+                    return pool;
+                }
+                LoggerUtils.warn("Test data file does not match seed/size, regenerating: " + file);
+            } catch (IOException e) {
+                LoggerUtils.warn("Unreadable test data file, regenerating: " + file + " (" + e.getMessage() + ")");
+            }
+        }
+        TestDataPool pool = generate(seed, count);
+        try {
+            pool.writeTo(file);
+        } catch (IOException e) {
+            LoggerUtils.warn("Failed to spill test data to " + file + ": " + e.getMessage());
+        }
+        return pool;
+    }
+
+    /**
+     * Read a pool written by writeTo
+     */
+    public static TestDataPool readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a test data file: " + file);
+            }
+            long seed = in.readLong();
+            int count = in.readInt();
+            UserRequest[] users = new UserRequest[count];
+            for (int i = 0; i < count; i++) {
+                users[i] = new UserRequest(readString(in), readString(in), readString(in),
+                    readString(in), readString(in));
+            }
+            return new TestDataPool(seed, users);
+        }
+    }
+
+    /**
+     * Write the pool to a binary file (written to a temp file first, then moved into place)
+     */
+    public void writeTo(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeLong(seed);
+            out.writeInt(users.length);
+            for (UserRequest user : users) {
+                writeString(out, user.getName());
+                writeString(out, user.getUsername());
+                writeString(out, user.getEmail());
+                writeString(out, user.getPhone());
+                writeString(out, user.getWebsite());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int size() {
+        return users.length;
+    }
+
+    /**
+     * User at a fixed index; callers must not modify the returned object
+     */
+    public UserRequest get(int index) {
+        return users[index];
+    }
+
+    /**
+     * Claim the next user; wraps around once the pool is exhausted
+     */
+    public UserRequest next() {
+        return users[(int) (cursor.getAndIncrement() % users.length)];
+    }
+
+    /**
+     * Claim count consecutive users as rows for a @DataProvider
+     */
+    public Object[][] rows(int count) {
+        long first = cursor.getAndAdd(count);
+        Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[]{users[(int) ((first + i) % users.length)]};
+        }
+        return rows;
+    }
+
+    /**
+     * Claim count consecutive users, handed out lazily; suits very large lazy @DataProviders
+     */
+    public Iterator<Object[]> iterator(int count) {
+        long first = cursor.getAndAdd(count);
+        return new Iterator<Object[]>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < count;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new Object[]{users[(int) ((first + position++) % users.length)]};
+            }
+        };
+    }
+
+    private static UserRequest newUser(Faker faker, int index) {
+        String username = faker.name().username() + index;
+        return new UserRequest(
+            faker.name().fullName(),
+            username,
+            username + "@" + faker.internet().domainName(),
+            faker.phoneNumber().phoneNumber(),
+            faker.internet().url());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
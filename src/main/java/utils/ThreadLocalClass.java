@@ -1,42 +1,114 @@
 package utils;
 
-import com.aventstack.extentreports.ExtentReports;
+import java.sql.SQLException;
+
 import com.aventstack.extentreports.ExtentTest;
 
 /**
- * ThreadLocal utility to provide thread-safe ExtentReports, ExtentTest, and DBUtils instances.
+ * ThreadLocal utility to provide thread-safe ExtentTest, test name and DBUtils instances.
+ *
+ * All per-thread state lives in one Context object behind a single ThreadLocal, so a
+ * thread carries one map entry instead of one per field, and nothing is allocated for
+ * threads that only read. Executors that start a thread per task (virtual threads) must
+ * call clear() when the task ends, or the thread's pooled DB connection is never returned.
  */
 public class ThreadLocalClass {
-    // ThreadLocal for ExtentTest
-    private static final ThreadLocal<ExtentTest> extentTestThreadLocal = new ThreadLocal<>();
 
-    // ThreadLocal for DBUtills
-    private static final ThreadLocal<DBUtills> dbUtilsThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<Context> context = new ThreadLocal<>();
+
+    private static final class Context {
+        private ExtentTest extentTest;
+        private String testName;
+        private DBUtills dbUtils;
+
+        private boolean isEmpty() {
+            return extentTest == null && testName == null && dbUtils == null;
+        }
+    }
+
+    private static Context current() {
+        Context current = context.get();
+        if (current == null) {
+            current = new Context();
+            context.set(current);
+        }
+        return current;
+    }
 
     // Setters
     public static void setExtentTest(ExtentTest test) {
-        extentTestThreadLocal.set(test);
+        current().extentTest = test;
+    }
+
+    public static void setCurrentTestName(String testName) {
+        current().testName = testName;
     }
 
     public static void setDBUtills(DBUtills dbUtils) {
-        dbUtilsThreadLocal.set(dbUtils); 
+        current().dbUtils = dbUtils;
     }
 
     // Getters
     public static ExtentTest getExtentTest() {
-        return extentTestThreadLocal.get();
+        Context current = context.get();
+        return current != null ? current.extentTest : null;
+    }
+
+    public static String getCurrentTestName() {
+        Context current = context.get();
+        return current != null ? current.testName : null;
     }
 
+    /**
+     * Get this thread's DBUtills, borrowing a connection from the shared pool on first use
+     */
     public static DBUtills getDBUtills() {
-        return dbUtilsThreadLocal.get();
+        Context current = current();
+        if (current.dbUtils == null) {
+            try {
+                current.dbUtils = new DBUtills();
+            } catch (SQLException | ClassNotFoundException e) {
+                throw new RuntimeException("Unable to obtain database connection", e);
+            }
+        }
+        return current.dbUtils;
     }
 
     // Remove (cleanup)
     public static void removeExtentTest() {
-        extentTestThreadLocal.remove();
+        Context current = context.get();
+        if (current != null) {
+            current.extentTest = null;
+            current.testName = null;
+            removeIfEmpty(current);
+        }
     }
 
+    /**
+     * Release this thread's connection back to the shared pool
+     */
     public static void removeDBUtills() {
-        dbUtilsThreadLocal.remove();
+        Context current = context.get();
+        if (current != null) {
+            if (current.dbUtils != null) {
+                current.dbUtils.closeConnection();
+                current.dbUtils = null;
+            }
+            removeIfEmpty(current);
+        }
+    }
+
+    /**
+     * Release everything this thread holds; call when a task's thread is about to be discarded
+     */
+    public static void clear() {
+        removeDBUtills();
+        context.remove();
+    }
+
+    private static void removeIfEmpty(Context current) {
+        if (current.isEmpty()) {
+            context.remove();
+        }
     }
 }
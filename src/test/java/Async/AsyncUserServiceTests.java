@@ -0,0 +1,174 @@
+package Async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+
+import mdoels.request.UserRequest;
+import mdoels.response.UserResponse;
+import services.AsyncResponse;
+import services.AsyncUserService;
+import stub.FaultProfile;
+import stub.LocalStubServer;
+
+/**
+ * AsyncUserService Test Class
+ * Sends non-blocking requests to a private stub and checks statuses, body mapping, timeouts and cancellation
+ */
+@Epic("Test Infrastructure")
+@Feature("Async Requests")
+public class AsyncUserServiceTests {
+
+    private static final long SLOW_USER_MILLIS = 2000;
+
+    private LocalStubServer server;
+    private AsyncUserService async;
+
+    @BeforeClass
+    public void startStub() {
+        Map<String, String> values = new HashMap<>();
+        values.put("stub.fault.enabled", "true");
+        values.put("stub.fault.latency./users/3", "fixed:" + SLOW_USER_MILLIS);
+        List<String> errors = new ArrayList<>();
+        FaultProfile faults = FaultProfile.parse(values, errors);
+        Assert.assertEquals(errors, new ArrayList<String>(), "Profile should be valid");
+        server = LocalStubServer.create(0, 4, faults);
+        async = new AsyncUserService(stubUri(), Duration.ofSeconds(5));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    @Story("Status Codes")
+    @Description("Verify each operation completes with the status the backend answered")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testStatusCodes() {
+        UserRequest request = new UserRequest("Ada Lovelace", "ada", "ada@example.com", "1-770-736-8031", "ada.org");
+        Assert.assertEquals(async.getAllUsers().join().getStatusCode(), 200);
+        Assert.assertEquals(async.getUserById(1).join().getStatusCode(), 200);
+        Assert.assertEquals(async.getUserById(999).join().getStatusCode(), 404, "Unknown users should be 404");
+        Assert.assertEquals(async.createUser(request).join().getStatusCode(), 201);
+        Assert.assertEquals(async.updateUser(2, request).join().getStatusCode(), 200);
+        Assert.assertEquals(async.updateUser(999, request).join().getStatusCode(), 404);
+        Assert.assertEquals(async.deleteUser(2).join().getStatusCode(), 200);
+
+        AsyncResponse response = async.getUserById(1).join();
+        Assert.assertTrue(response.getContentType().startsWith("application/json"), response.getContentType());
+        Assert.assertTrue(response.getTime() >= 0);
+    }
+
+    @Test
+    @Story("Body Mapping")
+    @Description("Verify responses map to UserResponse objects and writes echo the request body")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testBodyMapping() {
+        UserResponse user = async.convertToUserResponse(async.getUserById(1).join());
+        Assert.assertEquals(user.getId(), 1);
+        Assert.assertEquals(user.getName(), "Leanne Graham");
+        Assert.assertEquals(user.getEmail(), "leanne.graham@example.com");
+
+        UserResponse[] users = async.convertToUserResponseArray(async.getAllUsers().join());
+        Assert.assertEquals(users.length, 10);
+        for (int i = 0; i < users.length; i++) {
+            Assert.assertEquals(users[i].getId(), i + 1, "Users should arrive in id order");
+        }
+
+        UserRequest request = new UserRequest("Ada Lovelace", "ada", "ada@example.com", "1-770-736-8031", "ada.org");
+        UserResponse created = async.convertToUserResponse(async.createUser(request).join());
+        Assert.assertEquals(created.getName(), request.getName());
+        Assert.assertEquals(created.getEmail(), request.getEmail());
+        Assert.assertTrue(created.getId() > 0, "Created users should be given an id");
+        UserResponse updated = async.convertToUserResponse(async.updateUser(2, request).join());
+        Assert.assertEquals(updated.getId(), 2);
+        Assert.assertEquals(updated.getUsername(), "ada");
+    }
+
+    @Test
+    @Story("Timeouts")
+    @Description("Verify a response slower than the request timeout fails the future with HttpTimeoutException")
+    @Severity(SeverityLevel.NORMAL)
+    public void testRequestTimeout() {
+        AsyncUserService impatient = new AsyncUserService(stubUri(), Duration.ofMillis(200));
+        long start = System.nanoTime();
+        CompletionException error = Assert.expectThrows(CompletionException.class,
+            () -> impatient.getUserById(3).join());
+        long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertTrue(error.getCause() instanceof HttpTimeoutException, "Unexpected failure: " + error.getCause());
+        Assert.assertTrue(tookMillis < SLOW_USER_MILLIS, "The timeout should fire before the response, took "
+            + tookMillis + " ms");
+
+        Assert.assertEquals(impatient.getUserById(1).join().getStatusCode(), 200,
+            "Fast responses should still arrive within the timeout");
+    }
+
+    @Test
+    @Story("Cancellation")
+    @Description("Verify cancelling the returned future aborts the exchange, so the backend sees the connection close")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testCancelAbortsExchange() throws Exception {
+        // A bare socket that never answers shows whether the client hangs up
+        try (ServerSocket silent = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            AsyncUserService service = new AsyncUserService(
+                URI.create(LocalStubServer.BASE_URL + ":" + silent.getLocalPort()), Duration.ofSeconds(30));
+            CompletableFuture<AsyncResponse> pending = service.getUserById(1);
+            silent.setSoTimeout(5000);
+            try (Socket connection = silent.accept()) {
+                connection.setSoTimeout(5000);
+                InputStream in = connection.getInputStream();
+                Assert.assertTrue(in.read() > 0, "The request should reach the backend");
+
+                Assert.assertTrue(pending.cancel(true));
+                // The client aborts the exchange first, which may fail the future with a wrapped cancellation
+                Throwable failure = pending.handle((r, e) -> e).join();
+                Assert.assertTrue(failure instanceof CancellationException
+                    || failure.getCause() instanceof CancellationException, "Unexpected failure: " + failure);
+                // The socket timeout is far below the request timeout, so only the client hanging up gives -1
+                Assert.assertEquals(drain(in), -1, "Cancelling should close the connection");
+            }
+        }
+    }
+
+    /**
+     * Read until the peer closes the connection; a reset counts as closed
+     */
+    private static int drain(InputStream in) {
+        try {
+            int read;
+            do {
+                read = in.read();
+            } while (read >= 0);
+            return read;
+        } catch (SocketTimeoutException e) {
+            return 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private URI stubUri() {
+        return URI.create(LocalStubServer.BASE_URL + ":" + server.getPort());
+    }
+}
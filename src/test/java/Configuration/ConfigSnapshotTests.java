@@ -0,0 +1,104 @@
+package Configuration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+
+import config.ConfigSnapshot;
+
+/**
+ * ConfigSnapshot Test Class
+ * Builds snapshots from explicit sources to check precedence, system property scoping and validation
+ */
+@Epic("Test Infrastructure")
+@Feature("Configuration")
+public class ConfigSnapshotTests {
+
+    @Test
+    @Story("Precedence")
+    @Description("Verify a system property beats an API_ environment variable, which beats the file")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testSourcesOverrideInOrder() {
+        Properties file = file("port", "1000", "db.pool.size", "5", "cache.ttl.millis", "100");
+        Map<String, String> environment = new HashMap<>();
+        environment.put("API_PORT", "2000");
+        environment.put("API_DB_POOL_SIZE", "6");
+        // Unprefixed variables such as the PORT containers set are not config
+        environment.put("PORT", "9999");
+        Properties system = properties("port", "3000");
+
+        ConfigSnapshot snapshot = ConfigSnapshot.of("test", file, environment, system);
+        Assert.assertEquals(snapshot.getPort(), 3000, "System property should win");
+        Assert.assertEquals(snapshot.getDatabase().getPoolSize(), 6, "Environment variable should beat the file");
+        Assert.assertEquals(snapshot.getCache().getTtlMillis(), 100, "The file applies when nothing overrides it");
+
+        ConfigSnapshot withoutOverrides = ConfigSnapshot.of("test", file, Collections.singletonMap("PORT", "9999"),
+            new Properties());
+        Assert.assertEquals(withoutOverrides.getPort(), 1000);
+    }
+
+    @Test
+    @Story("System Properties")
+    @Description("Verify only system properties under config prefixes or named in the file are read")
+    @Severity(SeverityLevel.NORMAL)
+    public void testOnlyConfigSystemPropertiesAreRead() {
+        Properties file = file("custom.flag", "off");
+        Properties system = properties("user.home", "/home/tester", "java.version", "17", "custom.flag", "on",
+            "stub.fault.enabled", "true", "retry.max.attempts", "7");
+
+        ConfigSnapshot snapshot = ConfigSnapshot.of("test", file, Collections.emptyMap(), system);
+        Assert.assertNull(snapshot.getProperty("user.home"), "JVM properties are not config");
+        Assert.assertNull(snapshot.getProperty("java.version"), "JVM properties are not config");
+        Assert.assertEquals(snapshot.getProperty("custom.flag"), "on", "Keys named in the file can be overridden");
+        Assert.assertEquals(snapshot.getProperty("stub.fault.enabled"), "true");
+        Assert.assertEquals(snapshot.getResilience().getRetryMaxAttempts(), 7);
+    }
+
+    @Test
+    @Story("Validation")
+    @Description("Verify invalid values fail the load with every bad key listed, and booleans accept only true or false")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testInvalidValuesAreReported() {
+        ConfigSnapshot valid = ConfigSnapshot.of("test", file("stub.enabled", " TRUE ", "cache.enabled", "false"),
+            Collections.emptyMap(), new Properties());
+        Assert.assertTrue(valid.getStub().isEnabled(), "Booleans should ignore case and whitespace");
+        Assert.assertFalse(valid.getCache().isEnabled());
+
+        Properties invalid = file("stub.enabled", "yes", "port", "70000", "db.pool.size", "many", "perf.gate",
+            "LOUD", "log.body.sample.rate", "1.5");
+        IllegalStateException error = Assert.expectThrows(IllegalStateException.class,
+            () -> ConfigSnapshot.of("test", invalid, Collections.emptyMap(), new Properties()));
+        String message = error.getMessage();
+        for (String expected : new String[]{"stub.enabled must be true or false: yes", "port must be between 0 and 65535",
+                "db.pool.size is not an integer", "perf.gate must be one of OFF, WARN, FAIL",
+                "log.body.sample.rate is out of range"}) {
+            Assert.assertTrue(message.contains(expected), "Missing '" + expected + "' in: " + message);
+        }
+
+        IllegalStateException missingUrl = Assert.expectThrows(IllegalStateException.class,
+            () -> ConfigSnapshot.of("test", new Properties(), Collections.emptyMap(), new Properties()));
+        Assert.assertTrue(missingUrl.getMessage().contains("base.url is required"), missingUrl.getMessage());
+    }
+
+    /**
+     * A minimal valid file plus the given key/value pairs
+     */
+    private static Properties file(String... pairs) {
+        Properties file = properties(pairs);
+        file.setProperty("base.url", "http://127.0.0.1");
+        return file;
+    }
+
+    private static Properties properties(String... pairs) {
+        Properties properties = new Properties();
+        for (int i = 0; i < pairs.length; i += 2) {
+            properties.setProperty(pairs[i], pairs[i + 1]);
+        }
+        return properties;
+    }
+}
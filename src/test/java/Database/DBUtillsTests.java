@@ -0,0 +1,216 @@
+package Database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+
+import utils.ConnectionPool;
+import utils.DBUtills;
+import utils.PooledConnection;
+import mdoels.response.UserResponse;
+
+/**
+ * DBUtills Test Class
+ * Exercises the pooled JDBC layer against an embedded H2 database
+ */
+@Epic("Test Infrastructure")
+@Feature("Database Utilities")
+public class DBUtillsTests {
+
+    private static final String DB_URL = "jdbc:h2:mem:dbutills;DB_CLOSE_DELAY=-1";
+    private static final String DB_USER = "sa";
+    private static final String DB_PASSWORD = "";
+
+    @BeforeClass
+    public void setupDatabase() throws SQLException, ClassNotFoundException {
+        System.out.println("\n🔧 Setting up embedded database...");
+        DBUtills db = new DBUtills(DB_URL, DB_USER, DB_PASSWORD);
+        db.executeUpdate("CREATE TABLE users (id INT PRIMARY KEY, name VARCHAR(100), email VARCHAR(100))");
+        db.executeUpdate("CREATE TABLE api_users (id INT PRIMARY KEY, name VARCHAR(100), username VARCHAR(100), "
+            + "email VARCHAR(100), phone VARCHAR(40), website VARCHAR(100))");
+        db.closeConnection();
+        System.out.println("✅ Embedded database ready\n");
+    }
+
+    @Test(priority = 1)
+    @Story("Parameterized Statements")
+    @Description("Verify inserts and queries bind parameters through prepared statements")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testParameterizedInsertAndQuery() throws SQLException, ClassNotFoundException {
+        DBUtills db = new DBUtills(DB_URL, DB_USER, DB_PASSWORD);
+        try {
+            int inserted = db.executeUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)",
+                1, "O'Brien", "obrien@example.com");
+            Assert.assertEquals(inserted, 1, "One row should be inserted");
+
+            ResultSet resultSet = db.executeQuery("SELECT name, email FROM users WHERE id = ?", 1);
+            Assert.assertTrue(resultSet.next(), "Inserted user should be found");
+            Assert.assertEquals(resultSet.getString("name"), "O'Brien", "Quotes should survive binding");
+            Assert.assertEquals(resultSet.getString("email"), "obrien@example.com");
+        } finally {
+            db.closeConnection();
+        }
+    }
+
+    @Test(priority = 2)
+    @Story("Statement Cache")
+    @Description("Verify repeated SQL reuses the cached prepared statement")
+    @Severity(SeverityLevel.NORMAL)
+    public void testStatementCacheReuse() throws SQLException, ClassNotFoundException {
+        DBUtills db = new DBUtills(DB_URL, DB_USER, DB_PASSWORD);
+        try {
+            long hitsBefore = db.getPoolMetrics().getStatementCacheHits();
+            for (int i = 0; i < 5; i++) {
+                db.executeQuery("SELECT COUNT(*) FROM users WHERE id > ?", i);
+            }
+            long hits = db.getPoolMetrics().getStatementCacheHits() - hitsBefore;
+            Assert.assertTrue(hits >= 4, "Repeated SQL should hit the statement cache, hits: " + hits);
+        } finally {
+            db.closeConnection();
+        }
+    }
+
+    @Test(priority = 3, invocationCount = 40, threadPoolSize = 8)
+    @Story("Connection Pool")
+    @Description("Verify parallel borrowers share a bounded set of connections")
+    @Severity(SeverityLevel.NORMAL)
+    public void testParallelBorrowers() throws SQLException, ClassNotFoundException {
+        DBUtills db = new DBUtills(DB_URL, DB_USER, DB_PASSWORD);
+        try {
+            ResultSet resultSet = db.executeQuery("SELECT COUNT(*) FROM users");
+            Assert.assertTrue(resultSet.next());
+        } finally {
+            db.closeConnection();
+        }
+    }
+
+    @Test(priority = 4, dependsOnMethods = "testParallelBorrowers")
+    @Story("Connection Pool")
+    @Description("Verify released connections return to the idle set and pool size is respected")
+    @Severity(SeverityLevel.NORMAL)
+    public void testPoolMetrics() throws SQLException, ClassNotFoundException {
+        DBUtills db = new DBUtills(DB_URL, DB_USER, DB_PASSWORD);
+        ConnectionPool.Metrics borrowed = db.getPoolMetrics();
+        db.closeConnection();
+        ConnectionPool.Metrics released = db.getPoolMetrics();
+
+        System.out.println("📊 Pool metrics: " + released);
+        Assert.assertEquals(borrowed.getActive(), 1, "One connection should be active while borrowed");
+        Assert.assertEquals(released.getActive(), 0, "No connection should be active after release");
+        Assert.assertTrue(released.getIdle() >= 1, "Released connection should be idle");
+        Assert.assertTrue(released.getCreated() <= released.getMaxSize(),
+            "Pool should never open more than its maximum size");
+        Assert.assertEquals(released.getTimeouts(), 0, "No borrower should time out");
+    }
+
+    @Test(priority = 5)
+    @Story("Batch Statements")
+    @Description("Verify fixture rows are inserted in chunked batches and a failing batch rolls back")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testBatchInsertAndRollback() throws SQLException, ClassNotFoundException {
+        DBUtills db = new DBUtills(DB_URL, DB_USER, DB_PASSWORD);
+        try {
+            db.setBatchSize(7);
+            List<Object[]> rows = new ArrayList<>();
+            for (int id = 1; id <= 50; id++) {
+                rows.add(new Object[]{id, "User " + id, "user" + id, "user" + id + "@example.com", "555-" + id,
+                    "user" + id + ".example.com"});
+            }
+            int inserted = db.executeBatch(
+                "INSERT INTO api_users (id, name, username, email, phone, website) VALUES (?, ?, ?, ?, ?, ?)", rows);
+            Assert.assertEquals(inserted, 50, "Every batched row should be inserted");
+
+            List<Object[]> conflicting = new ArrayList<>();
+            conflicting.add(new Object[]{51, "User 51", "user51", null, null, null});
+            conflicting.add(new Object[]{1, "Duplicate", "duplicate", null, null, null});
+            Assert.assertThrows(SQLException.class, () -> db.executeBatch(
+                "INSERT INTO api_users (id, name, username, email, phone, website) VALUES (?, ?, ?, ?, ?, ?)",
+                conflicting));
+
+            ResultSet resultSet = db.executeQuery("SELECT COUNT(*) FROM api_users");
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(resultSet.getInt(1), 50, "The failed batch should be rolled back as a whole");
+        } finally {
+            db.closeConnection();
+        }
+    }
+
+    @Test(priority = 6, dependsOnMethods = "testBatchInsertAndRollback")
+    @Story("Streaming Queries")
+    @Description("Verify rows stream through the row mapper and API users are verified in bulk")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testStreamingAndBulkVerification() throws SQLException, ClassNotFoundException {
+        DBUtills db = new DBUtills(DB_URL, DB_USER, DB_PASSWORD);
+        try {
+            db.setFetchSize(8);
+            AtomicInteger seen = new AtomicInteger();
+            int streamed = db.streamQuery("SELECT * FROM api_users WHERE id > ? ORDER BY id", DBUtills.USER_ROW_MAPPER,
+                (UserResponse user) -> Assert.assertEquals(user.getUsername(), "user" + (10 + seen.incrementAndGet())),
+                10);
+            Assert.assertEquals(streamed, 40);
+            Assert.assertEquals(seen.get(), 40);
+
+            List<UserResponse> expected = new ArrayList<>();
+            for (int id = 1; id <= 30; id++) {
+                expected.add(new UserResponse(id, "User " + id, "user" + id, "user" + id + "@example.com", null, null));
+            }
+            db.setBatchSize(12);
+            Assert.assertEquals(db.verifyUsers("api_users", expected), new ArrayList<String>(),
+                "Matching users should produce no mismatches");
+
+            expected.get(4).setEmail("wrong@example.com");
+            expected.add(new UserResponse(999, "Ghost", null, null, null, null));
+            List<String> mismatches = db.verifyUsers("api_users", expected);
+            System.out.println("📊 Mismatches: " + mismatches);
+            Assert.assertEquals(mismatches.size(), 2, "Expected one field mismatch and one missing row");
+            Assert.assertTrue(mismatches.get(0).startsWith("user 5: email"), mismatches.get(0));
+            Assert.assertEquals(mismatches.get(1), "user 999: no row in api_users");
+        } finally {
+            db.closeConnection();
+        }
+    }
+
+    @Test(priority = 7, dataProvider = "smallStatementCaches")
+    @Story("Statement Cache")
+    @Description("Verify a cache of 0 prepares fresh statements and a cache of 1 never hands out an evicted one")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testSmallStatementCaches(int cacheSize) throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD, 1, 1000, cacheSize)) {
+            PooledConnection connection = pool.acquire();
+            PreparedStatement previous = null;
+            for (int i = 0; i < 4; i++) {
+                // Alternate two statements so a cache of one evicts on every call
+                String sql = "SELECT COUNT(*) FROM users WHERE id " + (i % 2 == 0 ? ">" : "<") + " ?";
+                PreparedStatement statement = connection.prepare(sql);
+                statement.setObject(1, i);
+                ResultSet resultSet = statement.executeQuery();
+                Assert.assertTrue(resultSet.next(), "Statement " + i + " should be usable");
+                Assert.assertNotSame(statement, previous);
+                previous = statement;
+            }
+            PreparedStatement update = connection.prepare("UPDATE users SET name = name WHERE id = ?");
+            update.setObject(1, 1);
+            update.executeUpdate();
+            pool.release(connection);
+
+            Assert.assertEquals(pool.getMetrics().getStatementCacheHits(), 0, "Nothing should be served from cache");
+            if (cacheSize == 0) {
+                Assert.assertTrue(update.isClosed(), "Uncached statements should be closed when the connection is released");
+            } else {
+                Assert.assertFalse(update.isClosed(), "The cached statement should stay open for the next borrower");
+            }
+        }
+    }
+
+    @DataProvider
+    public Object[][] smallStatementCaches() {
+        return new Object[][]{{0}, {1}};
+    }
+}
@@ -0,0 +1,79 @@
+package Execution;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import utils.ThreadLocalClass;
+
+/**
+ * Sample class run by TestExecutorFactoryTests, not by the suites: six independent
+ * 100 ms methods and one that depends on all of them
+ */
+public class ExecutorSample {
+
+    static final AtomicInteger running = new AtomicInteger();
+    static final AtomicInteger maxRunning = new AtomicInteger();
+    static final AtomicInteger leaked = new AtomicInteger();
+    static final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    static void reset() {
+        running.set(0);
+        maxRunning.set(0);
+        leaked.set(0);
+        threads.clear();
+    }
+
+    @Test
+    public void step1() throws InterruptedException {
+        work("step1");
+    }
+
+    @Test
+    public void step2() throws InterruptedException {
+        work("step2");
+    }
+
+    @Test
+    public void step3() throws InterruptedException {
+        work("step3");
+    }
+
+    @Test
+    public void step4() throws InterruptedException {
+        work("step4");
+    }
+
+    @Test
+    public void step5() throws InterruptedException {
+        work("step5");
+    }
+
+    @Test
+    public void step6() throws InterruptedException {
+        work("step6");
+    }
+
+    @Test(dependsOnMethods = {"step1", "step2", "step3", "step4", "step5", "step6"})
+    public void summary() throws InterruptedException {
+        Assert.assertEquals(running.get(), 0, "Dependent method should start after all its dependencies");
+        work("summary");
+    }
+
+    private static void work(String name) throws InterruptedException {
+        if (ThreadLocalClass.getCurrentTestName() != null) {
+            leaked.incrementAndGet();
+        }
+        ThreadLocalClass.setCurrentTestName(name);
+        threads.add(Thread.currentThread().getName() + "#" + System.identityHashCode(Thread.currentThread()));
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(100);
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package Execution;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import io.restassured.specification.SpecificationQuerier;
+
+import base.RequestSpecFactory;
+import config.ConfigReader;
+import stub.FaultProfile;
+import stub.LocalStubServer;
+
+/**
+ * RequestSpecFactory Test Class
+ * Points the shared specifications at private stubs and checks they follow a restarted stub
+ */
+@Epic("Test Infrastructure")
+@Feature("Request Specifications")
+public class RequestSpecFactoryTests {
+
+    private LocalStubServer server;
+
+    @BeforeClass
+    public void startStub() {
+        server = LocalStubServer.create(0, 2, FaultProfile.NONE);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restoreConfiguredTarget() {
+        if (server != null) {
+            server.close();
+        }
+        // A stopped local stub leaves no configured target to go back to
+        ConfigReader config = new ConfigReader();
+        if (!config.isLocalStub() || LocalStubServer.isRunning()) {
+            RequestSpecFactory.initialize(config);
+        }
+    }
+
+    @Test
+    @Story("Stub Restarts")
+    @Description("Verify the shared specification follows the stub to its new port and is kept while the target is unchanged")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testSpecFollowsRestartedStub() {
+        LocalStubServer first = LocalStubServer.create(0, 2, FaultProfile.NONE);
+        int firstPort = first.getPort();
+        RequestSpecFactory.initialize(pointingAt(firstPort));
+        Assert.assertEquals(query().getPort(), firstPort);
+        Assert.assertEquals(RequestSpecFactory.newRequest().get("/users/1").getStatusCode(), 200);
+        first.close();
+
+        // The restarted stub is the class's own, on another ephemeral port
+        RequestSpecFactory.initialize(pointingAt(server.getPort()));
+        Assert.assertEquals(query().getPort(), server.getPort(), "The spec should move to the restarted stub");
+        Assert.assertEquals(RequestSpecFactory.newRequest().get("/users/1").getStatusCode(), 200);
+
+        ResponseSpecification built = RequestSpecFactory.response();
+        RequestSpecFactory.initialize(pointingAt(server.getPort()));
+        Assert.assertSame(RequestSpecFactory.response(), built, "An unchanged target should not rebuild the specs");
+    }
+
+    @Test
+    @Story("Per-Call Copies")
+    @Description("Verify each call gets its own copy, so path params never leak between requests")
+    @Severity(SeverityLevel.NORMAL)
+    public void testRequestsAreIndependentCopies() {
+        RequestSpecFactory.initialize(pointingAt(server.getPort()));
+        RequestSpecFactory.newRequest().pathParam("userId", 1);
+        QueryableRequestSpecification fresh = query();
+        Assert.assertTrue(fresh.getPathParams().isEmpty(), "Path params leaked into a new request: "
+            + fresh.getPathParams());
+    }
+
+    private static QueryableRequestSpecification query() {
+        return SpecificationQuerier.query(RequestSpecFactory.newRequest());
+    }
+
+    private static ConfigReader pointingAt(int port) {
+        return new ConfigReader() {
+            @Override
+            public String getBaseUrl() {
+                return LocalStubServer.BASE_URL;
+            }
+
+            @Override
+            public String getBasePath() {
+                return "";
+            }
+
+            @Override
+            public int getPort() {
+                return port;
+            }
+        };
+    }
+}
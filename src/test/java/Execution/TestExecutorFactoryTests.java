@@ -0,0 +1,111 @@
+package Execution;
+
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.*;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import io.qameta.allure.*;
+import io.qameta.allure.testng.AllureTestNg;
+
+import base.TestExecutorFactory;
+
+/**
+ * TestExecutorFactory Test Class
+ * Runs a small parallel suite through the factory and checks the concurrency limit,
+ * dependency ordering and per-thread state cleanup
+ */
+@Epic("Test Infrastructure")
+@Feature("Test Executor")
+public class TestExecutorFactoryTests {
+
+    @Test
+    @Story("Concurrency Limit")
+    @Description("Verify platform mode never runs more methods than permitted and clears thread state between tasks")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testPlatformThreadsRespectLimit() throws Exception {
+        TestListenerAdapter results = run(new TestExecutorFactory(false, 2));
+
+        Assert.assertEquals(results.getPassedTests().size(), 7, "Every sample method should pass: " + results);
+        Assert.assertEquals(ExecutorSample.maxRunning.get(), 2, "Two permits should allow exactly two methods at once");
+        Assert.assertTrue(ExecutorSample.threads.size() <= 2,
+            "Pool should not grow past the limit: " + ExecutorSample.threads);
+        Assert.assertEquals(ExecutorSample.leaked.get(), 0, "Reused threads should start without the previous test's state");
+    }
+
+    @Test
+    @Story("Virtual Threads")
+    @Description("Verify virtual mode runs one thread per method when supported and falls back to platform threads otherwise")
+    @Severity(SeverityLevel.NORMAL)
+    public void testVirtualModeOrFallback() throws Exception {
+        TestListenerAdapter results = run(new TestExecutorFactory(true, 3));
+
+        Assert.assertEquals(results.getPassedTests().size(), 7, "Every sample method should pass: " + results);
+        Assert.assertTrue(ExecutorSample.maxRunning.get() <= 3, "At most three methods should run at once");
+        Assert.assertEquals(ExecutorSample.leaked.get(), 0);
+        if (TestExecutorFactory.isVirtualThreadSupported()) {
+            Assert.assertEquals(ExecutorSample.threads.size(), 7, "Each method should get its own virtual thread");
+        } else {
+            Assert.assertTrue(ExecutorSample.threads.size() <= 3, "Fallback pool should be sized to the limit");
+        }
+    }
+
+    @Test
+    @Story("Thread Affinity")
+    @Description("Verify enforced thread affinity runs every method on one thread, so dependents share their upstream's thread")
+    @Severity(SeverityLevel.NORMAL)
+    public void testThreadAffinityRunsOnOneThread() throws Exception {
+        String previous = System.getProperty(TestExecutorFactory.THREAD_AFFINITY_PROPERTY);
+        System.setProperty(TestExecutorFactory.THREAD_AFFINITY_PROPERTY, "true");
+        try {
+            TestListenerAdapter results = run(new TestExecutorFactory(true, 3));
+            Assert.assertEquals(results.getPassedTests().size(), 7, "Every sample method should pass: " + results);
+            Assert.assertEquals(ExecutorSample.maxRunning.get(), 1);
+            Assert.assertEquals(ExecutorSample.threads.size(), 1, "Threads used: " + ExecutorSample.threads);
+        } finally {
+            if (previous == null) {
+                System.clearProperty(TestExecutorFactory.THREAD_AFFINITY_PROPERTY);
+            } else {
+                System.setProperty(TestExecutorFactory.THREAD_AFFINITY_PROPERTY, previous);
+            }
+        }
+    }
+
+    private TestListenerAdapter run(TestExecutorFactory factory) throws Exception {
+        ExecutorSample.reset();
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Executor Sample");
+        suite.setParallel(XmlSuite.ParallelMode.METHODS);
+        suite.setThreadCount(6);
+        XmlTest test = new XmlTest(suite);
+        test.setName("Sample");
+        test.setXmlClasses(Collections.singletonList(new XmlClass(ExecutorSample.class)));
+
+        TestNG testng = new TestNG(false);
+        testng.setXmlSuites(Collections.singletonList(suite));
+        testng.setOutputDirectory(Files.createTempDirectory("executor-sample").toString());
+        testng.setListenersToSkipFromBeingWiredInViaServiceLoaders(AllureTestNg.class.getName());
+        factory.installOn(testng);
+        testng.setVerbose(0);
+        TestListenerAdapter results = new TestListenerAdapter();
+        testng.addListener(results);
+
+        String previous = System.getProperty(TestExecutorFactory.ENABLE_PROPERTY);
+        System.setProperty(TestExecutorFactory.ENABLE_PROPERTY, "true");
+        try {
+            testng.run();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(TestExecutorFactory.ENABLE_PROPERTY);
+            } else {
+                System.setProperty(TestExecutorFactory.ENABLE_PROPERTY, previous);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,108 @@
+package Json;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import utils.APIUtils;
+import utils.JsonArrayIterator;
+import utils.JsonDocument;
+import utils.JsonPathExpression;
+
+/**
+ * JsonPathExpression Test Class
+ * Verifies the GPath subset and that streaming matches tree evaluation
+ */
+@Epic("Test Infrastructure")
+@Feature("JSON Path Extraction")
+public class JsonPathExpressionTests {
+
+    private static final byte[] POSTS = ("[{\"userId\":1,\"id\":1,\"title\":\"a\",\"tags\":[\"x\",\"y\"]},"
+        + "{\"userId\":1,\"id\":2,\"title\":\"b\",\"author\":{\"name\":\"Leanne\"}},"
+        + "{\"userId\":2,\"id\":3,\"title\":null}]").getBytes(StandardCharsets.UTF_8);
+
+    @DataProvider(name = "paths")
+    public Object[][] paths() {
+        return new Object[][]{
+            {"[0].id", "1"},
+            {"$[1].title", "b"},
+            {"[1].author.name", "Leanne"},
+            {"[0].tags[1]", "y"},
+            {"[-1].id", "3"},
+            {"userId", "[1,1,2]"},
+            {"[2].title", null},
+            {"[5].id", null},
+            {"[0].missing", null},
+            {"[0].tags", "[\"x\",\"y\"]"}
+        };
+    }
+
+    @Test(dataProvider = "paths")
+    @Story("Path Evaluation")
+    @Description("Verify tree and streaming evaluation agree for each supported path form")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testTreeAndStreamAgree(String path, String expected) {
+        JsonPathExpression expression = JsonPathExpression.compile(path);
+        Assert.assertEquals(JsonDocument.of(POSTS).getString(path), expected, "Tree result for " + path);
+        Assert.assertEquals(JsonDocument.asText(expression.stream(POSTS)), expected, "Streaming result for " + path);
+    }
+
+    @Test
+    @Story("Typed Accessors")
+    @Description("Verify typed accessors, projections and compilation caching")
+    @Severity(SeverityLevel.NORMAL)
+    public void testTypedAccessors() {
+        JsonDocument document = JsonDocument.of(POSTS);
+        Assert.assertEquals(document.size("$"), 3);
+        Assert.assertEquals(document.getInt("[1].id"), 2);
+        Assert.assertEquals(document.getLong("[-1].userId"), 2L);
+        Assert.assertEquals(document.getIntArray("id"), new int[]{1, 2, 3});
+        Assert.assertEquals(document.getList("[0].tags", String.class).size(), 2);
+        Assert.assertTrue(document.has("[1].author"));
+        Assert.assertFalse(document.has("[2].title"), "Explicit null is not a value");
+        Assert.assertSame(JsonPathExpression.compile("[0].id"), JsonPathExpression.compile("[0].id"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> document.getInt("[0].title"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> JsonPathExpression.compile("[0.id"));
+    }
+
+    @Test
+    @Story("Array Streaming")
+    @Description("Verify the array iterator closes its input when exhausted, when empty and when not an array")
+    @Severity(SeverityLevel.NORMAL)
+    public void testArrayIteratorClosesInput() {
+        TrackedInput posts = new TrackedInput(POSTS);
+        JsonArrayIterator<JsonNode> iterator = APIUtils.iterateJsonArray(posts, JsonNode.class);
+        int count = 0;
+        while (iterator.hasNext()) {
+            Assert.assertEquals(iterator.next().get("id").asInt(), ++count);
+        }
+        Assert.assertEquals(count, 3);
+        Assert.assertTrue(posts.closed, "Input should be closed once the array is exhausted");
+
+        TrackedInput empty = new TrackedInput("[]".getBytes(StandardCharsets.UTF_8));
+        JsonArrayIterator<JsonNode> none = APIUtils.iterateJsonArray(empty, JsonNode.class);
+        Assert.assertFalse(none.hasNext());
+        Assert.assertTrue(empty.closed, "Input should be closed when the array is empty");
+
+        TrackedInput object = new TrackedInput("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        Assert.assertThrows(IllegalStateException.class, () -> APIUtils.iterateJsonArray(object, JsonNode.class));
+        Assert.assertTrue(object.closed, "Input should be closed when it is not an array");
+    }
+
+    private static class TrackedInput extends ByteArrayInputStream {
+        private boolean closed;
+
+        TrackedInput(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
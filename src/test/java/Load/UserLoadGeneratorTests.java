@@ -0,0 +1,107 @@
+package Load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+
+import load.LoadProfile;
+import load.LoadReport;
+import load.UserLoadGenerator;
+import services.UserService;
+import stub.FaultProfile;
+import stub.LocalStubServer;
+
+/**
+ * UserLoadGenerator Test Class
+ * Drives a short open-model run against a private stub that is slower than the arrival rate
+ */
+@Epic("Test Infrastructure")
+@Feature("Load Generation")
+public class UserLoadGeneratorTests {
+
+    private LocalStubServer server;
+
+    @BeforeClass
+    public void startSlowStub() {
+        Map<String, String> values = new HashMap<>();
+        values.put("stub.fault.enabled", "true");
+        values.put("stub.fault.latency", "fixed:200");
+        List<String> errors = new ArrayList<>();
+        FaultProfile faults = FaultProfile.parse(values, errors);
+        Assert.assertEquals(errors, new ArrayList<String>(), "Profile should be valid");
+        server = LocalStubServer.create(0, 16, faults);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopSlowStub() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    @Story("Saturation")
+    @Description("Verify the in-flight limit holds and every arrival is either sent or reported as rejected")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testSaturatedRunReportsRejectedArrivals() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        AtomicInteger reachedStub = new AtomicInteger();
+        RequestSpecification spec = RestAssured.given()
+            .baseUri(LocalStubServer.BASE_URL)
+            .port(server.getPort())
+            .contentType(ContentType.JSON)
+            .filter((request, response, ctx) -> {
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                reachedStub.incrementAndGet();
+                try {
+                    return ctx.next(request, response);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        // 100 arrivals in one second against 5 slots held at least 200 ms each: capacity is about 25
+        LoadProfile profile = LoadProfile.builder()
+            .targetRate(100)
+            .steadyState(Duration.ofSeconds(1))
+            .maxInFlight(5)
+            .build();
+
+        LoadReport report = new UserLoadGenerator(() -> new UserService(spec)).run(profile);
+        report.print();
+
+        long sent = 0;
+        long rejected = 0;
+        double throughput = 0;
+        for (LoadReport.OperationStats stats : report.getStats().values()) {
+            sent += stats.getCount();
+            rejected += stats.getRejected();
+            throughput += stats.getThroughput();
+            Assert.assertEquals(stats.getErrors(), 0, "The stub answers every sent request: " + stats);
+        }
+        Assert.assertEquals(sent + rejected, 100, "Every scheduled arrival is either sent or rejected");
+        Assert.assertEquals(reachedStub.get(), sent, "Only sent arrivals should reach the backend");
+        Assert.assertTrue(peakInFlight.get() <= 5, "In-flight requests exceeded the limit: " + peakInFlight.get());
+        // Nothing frees a slot before it is taken, so the first five arrivals always find one
+        Assert.assertTrue(sent >= 5, "At least one request per slot should be sent, got " + sent);
+        // Sending all 100 would need the one-second schedule to stretch past 3.8 s
+        Assert.assertTrue(rejected > 0, "The in-flight limit should reject arrivals");
+        Assert.assertEquals(throughput, (double) sent, 0.001, "Throughput should count sent requests only");
+        for (LoadReport.OperationStats stats : report.getStats().values()) {
+            if (stats.getCount() > 0) {
+                Assert.assertTrue(stats.getMaxMillis() >= 200,
+                    "Sent requests should take at least the backend latency: " + stats);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package Logging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+
+import utils.AsyncLogWriter;
+
+/**
+ * AsyncLogWriter Test Class
+ * Stalls the output so the buffer fills, then checks which records are dropped, counted or waited for
+ */
+@Epic("Test Infrastructure")
+@Feature("Logging")
+public class AsyncLogWriterTests {
+
+    private static final int CAPACITY = 4;
+
+    @Test
+    @Story("Overflow Policy")
+    @Description("Verify DROP discards and counts records once the buffer is full, and reports the count in the log")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testDropPolicyCountsDroppedRecords() throws Exception {
+        StalledOutput output = new StalledOutput();
+        AsyncLogWriter writer = new AsyncLogWriter(CAPACITY, AsyncLogWriter.OverflowPolicy.DROP, output.stream());
+        try {
+            fillBuffer(writer, output);
+            for (int i = 0; i < 3; i++) {
+                writer.submit("Info: ", "overflow " + i, false);
+            }
+            Assert.assertEquals(writer.getDroppedCount(), 3, "Records past the capacity should be dropped");
+
+            output.release();
+            writer.flush(5000);
+            String written = output.text();
+            for (int i = 0; i < CAPACITY; i++) {
+                Assert.assertTrue(written.contains("queued " + i), "Buffered records should be written: " + written);
+            }
+            Assert.assertFalse(written.contains("overflow"), "Dropped records should not be written: " + written);
+            Assert.assertTrue(written.contains("3 log records dropped (buffer full)"), written);
+            Assert.assertEquals(writer.getDroppedCount(), 3);
+        } finally {
+            output.release();
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    @Story("Overflow Policy")
+    @Description("Verify urgent records such as WARN and ERROR wait for space under DROP instead of being dropped")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testUrgentRecordsAreNeverDropped() throws Exception {
+        StalledOutput output = new StalledOutput();
+        AsyncLogWriter writer = new AsyncLogWriter(CAPACITY, AsyncLogWriter.OverflowPolicy.DROP, output.stream());
+        try {
+            fillBuffer(writer, output);
+            Thread caller = submitInBackground(writer, "Error: ", "must arrive", true);
+            awaitWaiting(caller);
+            Assert.assertEquals(writer.getDroppedCount(), 0, "An urgent record should wait, not drop");
+
+            output.release();
+            caller.join(5000);
+            Assert.assertFalse(caller.isAlive(), "The urgent record should be accepted once there is space");
+            writer.flush(5000);
+            Assert.assertTrue(output.text().contains("Error: must arrive"), output.text());
+            Assert.assertEquals(writer.getDroppedCount(), 0);
+        } finally {
+            output.release();
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    @Story("Overflow Policy")
+    @Description("Verify BLOCK makes every caller wait for space, so nothing is dropped")
+    @Severity(SeverityLevel.NORMAL)
+    public void testBlockPolicyWaitsForSpace() throws Exception {
+        StalledOutput output = new StalledOutput();
+        AsyncLogWriter writer = new AsyncLogWriter(CAPACITY, AsyncLogWriter.OverflowPolicy.BLOCK, output.stream());
+        try {
+            fillBuffer(writer, output);
+            Thread caller = submitInBackground(writer, "Info: ", "waited", false);
+            awaitWaiting(caller);
+
+            output.release();
+            caller.join(5000);
+            Assert.assertFalse(caller.isAlive());
+            writer.flush(5000);
+            Assert.assertTrue(output.text().contains("Info: waited"), output.text());
+            Assert.assertEquals(writer.getDroppedCount(), 0);
+        } finally {
+            output.release();
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Park the worker inside its first write, then fill the buffer behind it
+     */
+    private static void fillBuffer(AsyncLogWriter writer, StalledOutput output) throws InterruptedException {
+        writer.submit("Info: ", "first", false);
+        Assert.assertTrue(output.awaitWriting(), "The worker should start writing");
+        for (int i = 0; i < CAPACITY; i++) {
+            writer.submit("Info: ", "queued " + i, false);
+        }
+        Assert.assertEquals(writer.getDroppedCount(), 0, "The buffer should hold its capacity");
+    }
+
+    private static Thread submitInBackground(AsyncLogWriter writer, String prefix, String message, boolean urgent) {
+        Thread caller = new Thread(() -> writer.submit(prefix, message, urgent), "log-caller");
+        caller.setDaemon(true);
+        caller.start();
+        return caller;
+    }
+
+    private static void awaitWaiting(Thread caller) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (caller.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(caller.getState(), Thread.State.WAITING, "The caller should wait for buffer space");
+    }
+
+    /**
+     * Output whose writes block until released, standing in for a slow console
+     */
+    private static class StalledOutput extends OutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        PrintStream stream() {
+            return new PrintStream(this, false, StandardCharsets.UTF_8);
+        }
+
+        boolean awaitWriting() throws InterruptedException {
+            return writing.await(5, TimeUnit.SECONDS);
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        synchronized String text() {
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writing.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                bytes.write(b, off, len);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package Logging;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+
+import config.ConfigSnapshot;
+import utils.LoggerUtils;
+
+/**
+ * LoggerUtils Test Class
+ * Checks level gating against the configured log.level
+ */
+@Epic("Test Infrastructure")
+@Feature("Logging")
+public class LoggerUtilsTests {
+
+    @Test
+    @Story("Level Gating")
+    @Description("Verify levels at or above log.level are enabled, lower levels and OFF are not")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testLevelsFollowConfiguredThreshold() {
+        LoggerUtils.Level configured = configuredLevel();
+        for (LoggerUtils.Level candidate : LoggerUtils.Level.values()) {
+            boolean expected = candidate != LoggerUtils.Level.OFF && candidate.compareTo(configured) >= 0;
+            Assert.assertEquals(LoggerUtils.isEnabled(candidate), expected,
+                candidate + " with log.level=" + configured);
+        }
+    }
+
+    @Test
+    @Story("Level Gating")
+    @Description("Verify a disabled level never builds its message, and an enabled one builds it once")
+    @Severity(SeverityLevel.NORMAL)
+    public void testDisabledLevelsSkipMessageSuppliers() {
+        AtomicInteger debugBuilt = new AtomicInteger();
+        AtomicInteger infoBuilt = new AtomicInteger();
+        AtomicInteger successBuilt = new AtomicInteger();
+        LoggerUtils.debug(() -> "debug " + debugBuilt.incrementAndGet());
+        LoggerUtils.info(() -> "info " + infoBuilt.incrementAndGet());
+        LoggerUtils.success(() -> "success " + successBuilt.incrementAndGet());
+
+        Assert.assertEquals(debugBuilt.get(), LoggerUtils.isEnabled(LoggerUtils.Level.DEBUG) ? 1 : 0);
+        Assert.assertEquals(infoBuilt.get(), LoggerUtils.isEnabled(LoggerUtils.Level.INFO) ? 1 : 0);
+        Assert.assertEquals(successBuilt.get(), LoggerUtils.isEnabled(LoggerUtils.Level.INFO) ? 1 : 0);
+    }
+
+    private static LoggerUtils.Level configuredLevel() {
+        String level = ConfigSnapshot.get().getLogging().getLevel();
+        return LoggerUtils.Level.valueOf(level.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,153 @@
+package Perf;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import stub.FaultProfile;
+import stub.LocalStubServer;
+import utils.APIUtils;
+import utils.LatencyRecorderFilter;
+import utils.LatencyRegistry;
+
+/**
+ * LatencyRegistry Test Class
+ * Records through the RestAssured filter against a private stub and checks the key template and export formats
+ */
+@Epic("Test Infrastructure")
+@Feature("Latency Metrics")
+public class LatencyRegistryTests {
+
+    private LocalStubServer server;
+
+    @BeforeClass
+    public void startStub() {
+        server = LocalStubServer.create(0, 2, FaultProfile.NONE);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    @Story("Recording")
+    @Description("Verify the filter keys latencies by the path template as written, falling back to the derived path")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testFilterKeysByPathTemplate() {
+        LatencyRegistry registry = new LatencyRegistry();
+        LatencyRecorderFilter filter = new LatencyRecorderFilter(registry);
+
+        for (int userId = 1; userId <= 3; userId++) {
+            request(filter).get("/users/{userId}", userId);
+        }
+        request(filter).get("/users/99");
+        request(filter).basePath("/posts").get();
+
+        Map<String, Long> counts = registry.snapshot().stream().collect(Collectors.toMap(
+            s -> s.getMethod() + " " + s.getEndpoint() + " " + s.getStatusCode(),
+            LatencyRegistry.EndpointStats::getCount));
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("GET /users/{userId} 200", 3L);
+        // A literal path is its own template, so the 404 is kept apart
+        expected.put("GET /users/99 404", 1L);
+        // No path of its own, so the request is keyed by the base path it went to
+        expected.put("GET /posts 200", 1L);
+        Assert.assertEquals(counts, expected);
+        Assert.assertEquals(registry.snapshot().get(0).getEndpoint(), "/users/{userId}", "Busiest endpoint first");
+        Assert.assertTrue(registry.percentileMillis("GET", "/users/{userId}", 200, 50, 1) >= 0);
+        Assert.assertEquals(registry.percentileMillis("GET", "/users/{userId}", 200, 50, 4), -1.0,
+            "Too few samples should give -1");
+    }
+
+    @Test
+    @Story("Export")
+    @Description("Verify latency.json rows and latency.prom summary lines carry the recorded counts and quantiles")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testExportFormats() throws Exception {
+        LatencyRegistry registry = new LatencyRegistry();
+        Path empty = Files.createTempDirectory("latency");
+        registry.export(empty);
+        Assert.assertFalse(Files.exists(empty.resolve("latency.json")), "Nothing recorded, nothing exported");
+
+        for (int i = 1; i <= 100; i++) {
+            registry.record("GET", "/users/{userId}", 200, TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        registry.record("POST", "/odd\"path", 201, TimeUnit.MILLISECONDS.toNanos(40));
+        Path directory = Files.createTempDirectory("latency");
+        registry.export(directory);
+
+        JsonNode rows = APIUtils.fromJson(Files.readAllBytes(directory.resolve("latency.json")), JsonNode.class);
+        Assert.assertEquals(rows.size(), 2);
+        JsonNode users = rows.get(0);
+        Assert.assertEquals(users.get("method").asText(), "GET");
+        Assert.assertEquals(users.get("endpoint").asText(), "/users/{userId}");
+        Assert.assertEquals(users.get("status").asInt(), 200);
+        Assert.assertEquals(users.get("count").asLong(), 100);
+        assertClose(users.get("p50Ms").asDouble(), 50);
+        assertClose(users.get("p99Ms").asDouble(), 99);
+        assertClose(users.get("maxMs").asDouble(), 100);
+        assertClose(users.get("meanMs").asDouble(), 50.5);
+        for (String field : new String[]{"throughputPerSecond", "p90Ms", "p999Ms"}) {
+            Assert.assertTrue(users.has(field), "Missing " + field + " in " + users);
+        }
+
+        List<String> lines = Files.readAllLines(directory.resolve("latency.prom"), StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.get(0),
+            "# HELP api_request_duration_seconds API request latency by endpoint template");
+        Assert.assertEquals(lines.get(1), "# TYPE api_request_duration_seconds summary");
+        String labels = "method=\"GET\",endpoint=\"/users/{userId}\",status=\"200\"";
+        Assert.assertEquals(lines.get(2).substring(0, lines.get(2).lastIndexOf(' ')),
+            "api_request_duration_seconds{" + labels + ",quantile=\"0.5\"}");
+        assertClose(value(lines.get(2)) * 1000, 50);
+        Assert.assertTrue(lines.contains("api_request_duration_seconds_count{" + labels + "} 100"), lines.toString());
+        assertClose(value(find(lines, "api_request_duration_seconds_sum{" + labels + "}")), 5.05);
+        for (String quantile : new String[]{"0.5", "0.9", "0.99", "0.999"}) {
+            find(lines, "api_request_duration_seconds{" + labels + ",quantile=\"" + quantile + "\"}");
+        }
+        Assert.assertTrue(lines.contains("# TYPE api_requests_per_second gauge"), lines.toString());
+        find(lines, "api_requests_per_second{" + labels + "}");
+        String escaped = "method=\"POST\",endpoint=\"/odd\\\"path\",status=\"201\"";
+        Assert.assertEquals(find(lines, "api_request_duration_seconds_count{" + escaped + "}"),
+            "api_request_duration_seconds_count{" + escaped + "} 1", "Quotes in labels should be escaped");
+    }
+
+    private RequestSpecification request(LatencyRecorderFilter filter) {
+        return RestAssured.given().baseUri(LocalStubServer.BASE_URL).port(server.getPort()).filter(filter);
+    }
+
+    /**
+     * The one line starting with the given series and labels
+     */
+    private static String find(List<String> lines, String series) {
+        List<String> found = lines.stream().filter(line -> line.startsWith(series + " "))
+            .collect(Collectors.toList());
+        Assert.assertEquals(found.size(), 1, "Expected one " + series + " line in " + lines);
+        return found.get(0);
+    }
+
+    private static double value(String line) {
+        return Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+    }
+
+    /**
+     * HdrHistogram keeps three significant digits, so values round within a fraction of a percent
+     */
+    private static void assertClose(double actual, double expected) {
+        Assert.assertEquals(actual, expected, expected * 0.01, "Expected about " + expected);
+    }
+}
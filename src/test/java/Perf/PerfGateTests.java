@@ -0,0 +1,120 @@
+package Perf;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.HdrHistogram.Histogram;
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+
+import utils.LatencyRegistry;
+import utils.PerfGate;
+import utils.PerfHistory;
+
+/**
+ * PerfGate Test Class
+ * Verifies the history store round trip and the regression verdicts
+ */
+@Epic("Test Infrastructure")
+@Feature("Performance Baseline")
+public class PerfGateTests {
+
+    @Test
+    @Story("History Store")
+    @Description("Verify appended runs read back per environment with their histograms intact")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testHistoryRoundTrip() throws Exception {
+        Path file = Files.createTempDirectory("perf").resolve("results.bin");
+        PerfHistory history = new PerfHistory(file);
+        Histogram latency = latencies(200, 10_000, 1_000, 1);
+
+        history.append(Arrays.asList(
+            new PerfHistory.Entry(1L, "run-1", "abc123", "dev", "GET /users/{id} 200", latency),
+            new PerfHistory.Entry(1L, "run-1", "abc123", "stage", "GET /users/{id} 200", latency)));
+        history.append(Arrays.asList(
+            new PerfHistory.Entry(2L, "run-2", "def456", "dev", "GET /users 200", latency)));
+
+        List<PerfHistory.Entry> dev = history.read("dev");
+        Assert.assertEquals(dev.size(), 2);
+        Assert.assertEquals(dev.get(0).getCommit(), "abc123");
+        Assert.assertEquals(dev.get(1).getEndpoint(), "GET /users 200");
+        Assert.assertEquals(dev.get(0).getHistogram(), latency);
+        Assert.assertEquals(history.read("local").size(), 0);
+    }
+
+    @Test
+    @Story("Regression Gate")
+    @Description("Verify a real slowdown is flagged while noise, speedups and tiny samples are not")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testRegressionVerdicts() {
+        Histogram baseline = latencies(500, 10_000, 1_000, 1);
+        double threshold = 20;
+
+        PerfGate.Comparison slower = PerfGate.compare("GET /users 200", latencies(100, 13_000, 1_000, 2), baseline,
+            threshold);
+        Assert.assertTrue(slower.isRegression(), slower.toString());
+
+        PerfGate.Comparison same = PerfGate.compare("GET /users 200", latencies(100, 10_000, 1_000, 3), baseline,
+            threshold);
+        Assert.assertFalse(same.isRegression(), same.toString());
+
+        PerfGate.Comparison faster = PerfGate.compare("GET /users 200", latencies(100, 7_000, 1_000, 4), baseline,
+            threshold);
+        Assert.assertFalse(faster.isRegression(), faster.toString());
+
+        PerfGate.Comparison tiny = PerfGate.compare("GET /users 200", latencies(3, 30_000, 1_000, 5), baseline,
+            threshold);
+        Assert.assertFalse(tiny.isTested());
+        Assert.assertFalse(tiny.isRegression());
+    }
+
+    @Test
+    @Story("Sharded Runs")
+    @Description("Verify shards sharing a run id merge into one sample and count as one baseline run")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testShardsMergeByRunId() throws Exception {
+        PerfHistory history = new PerfHistory(Files.createTempDirectory("perf").resolve("results.bin"));
+        for (int run = 1; run <= 3; run++) {
+            for (int shard = 0; shard < 2; shard++) {
+                PerfGate.record(history, "dev", "run-" + run, "abc123", shardStats(3, run * 10 + shard));
+            }
+        }
+
+        // What a gate would see if it ran inside the first shard to finish
+        PerfGate.record(history, "dev", "run-4", "def456", shardStats(3, 40));
+        List<PerfGate.Comparison> partial = PerfGate.evaluate(history, "dev", "run-4", 2, 20);
+        Assert.assertFalse(partial.get(0).isTested(), "Three samples alone can't support a verdict");
+        Assert.assertEquals(partial.get(0).getBaselineCount(), 12, "Two runs of two shards with three samples each");
+
+        // What ShardRunner sees once both shards have exited
+        PerfGate.record(history, "dev", "run-4", "def456", shardStats(3, 41));
+        List<PerfGate.Comparison> whole = PerfGate.evaluate(history, "dev", "run-4", 2, 20);
+        Assert.assertEquals(whole.size(), 1);
+        Assert.assertEquals(whole.get(0).getCurrentCount(), 6, "Both shards' samples form the current run");
+        Assert.assertEquals(whole.get(0).getBaselineCount(), 12, "The run under test never joins its own baseline");
+        Assert.assertTrue(whole.get(0).isTested(), whole.get(0).toString());
+        Assert.assertFalse(whole.get(0).isRegression(), whole.get(0).toString());
+    }
+
+    private static List<LatencyRegistry.EndpointStats> shardStats(int count, long seed) {
+        LatencyRegistry registry = new LatencyRegistry();
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++) {
+            registry.record("GET", "/users/{userId}", 200, Math.round((10_000 + random.nextGaussian() * 1_000) * 1000));
+        }
+        return registry.snapshot();
+    }
+
+    private static Histogram latencies(int count, double meanMicros, double sdMicros, long seed) {
+        Random random = new Random(seed);
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < count; i++) {
+            histogram.recordValue(Math.max(1, Math.round(meanMicros + random.nextGaussian() * sdMicros)));
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,100 @@
+package Reporting;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+import io.qameta.allure.model.TestResult;
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+
+import stub.LocalStubServer;
+import utils.AllureAttachmentFilter;
+
+/**
+ * AllureAttachmentFilter Test Class
+ * Verifies sampling, failure capture, size capping and header masking against the local stub
+ */
+@Epic("Test Infrastructure")
+@Feature("Allure Attachments")
+public class AllureAttachmentFilterTests {
+
+    private boolean startedStub;
+    private int port;
+
+    @BeforeClass
+    public void startStub() {
+        startedStub = !LocalStubServer.isRunning();
+        port = LocalStubServer.start(0, 4).getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        if (startedStub) {
+            LocalStubServer.stop();
+        }
+    }
+
+    @Test
+    @Story("Sampling")
+    @Description("Verify failures are always attached, successes are sampled, bodies are capped on a character boundary and credentials masked")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testSamplingAndCapping() throws IOException {
+        Path results = Files.createTempDirectory("allure-results");
+        AllureLifecycle lifecycle = new AllureLifecycle(new FileSystemResultsWriter(results));
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult().setUuid(uuid).setName("attachments"));
+        lifecycle.startTestCase(uuid);
+
+        try (AllureAttachmentFilter neverSample = new AllureAttachmentFilter(lifecycle, 64, 0.0, 16)) {
+            Assert.assertEquals(request(neverSample).get("/users").getStatusCode(), 200);
+            Assert.assertEquals(request(neverSample).get("/users/9999").getStatusCode(), 404);
+        }
+
+        // 9 ASCII bytes, then two-byte characters: byte 64 falls inside one
+        StringBuilder name = new StringBuilder("{\"name\":\"");
+        for (int i = 0; i < 40; i++) {
+            name.append('\u00e9');
+        }
+        String body = name.append("\"}").toString();
+        try (AllureAttachmentFilter alwaysSample = new AllureAttachmentFilter(lifecycle, 64, 1.0, 16)) {
+            Assert.assertEquals(request(alwaysSample).get("/users").getStatusCode(), 200);
+            Assert.assertEquals(request(alwaysSample).header("Authorization", "Bearer s3cr3t-token")
+                .contentType("application/json; charset=UTF-8").body(body).post("/users").getStatusCode(), 201);
+        }
+
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+
+        List<String> attachments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(results)) {
+            for (Path file : files.filter(f -> f.toString().endsWith("-attachment.txt")).collect(Collectors.toList())) {
+                attachments.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            }
+        }
+        Assert.assertEquals(attachments.size(), 3, "Only the 404 and the always-sampled calls should be attached");
+        Assert.assertTrue(attachments.stream().anyMatch(a -> a.startsWith("GET ") && a.contains(" 404")),
+            "Failed call should be attached: " + attachments);
+        Assert.assertTrue(attachments.stream().anyMatch(a -> a.contains("[truncated ")),
+            "Large body should be capped: " + attachments);
+        for (String attachment : attachments) {
+            Assert.assertFalse(attachment.contains("\uFFFD"), "Capping should not split a character: " + attachment);
+            Assert.assertFalse(attachment.contains("s3cr3t-token"), "Credentials should be masked: " + attachment);
+        }
+        Assert.assertTrue(attachments.stream().anyMatch(a -> a.contains("Authorization: ***")),
+            "Masked header should still be listed: " + attachments);
+    }
+
+    private RequestSpecification request(AllureAttachmentFilter filter) {
+        return RestAssured.given().baseUri(LocalStubServer.BASE_URL).port(port).filter(filter);
+    }
+}
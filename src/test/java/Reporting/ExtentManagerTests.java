@@ -0,0 +1,129 @@
+package Reporting;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+
+import utils.ExtentManager;
+import utils.JsonDocument;
+import utils.ReportEventStream;
+
+/**
+ * ExtentManager Test Class
+ * Verifies per-thread test nodes and the NDJSON event stream behind them
+ */
+@Epic("Test Infrastructure")
+@Feature("Extent Reporting")
+public class ExtentManagerTests {
+
+    @Test
+    @Story("Event Stream")
+    @Description("Verify every event from parallel threads reaches the file, in order per thread")
+    @Severity(SeverityLevel.NORMAL)
+    public void testEventStreamWritesEveryEvent() throws Exception {
+        Path file = Files.createTempDirectory("events").resolve("events.ndjson");
+        ReportEventStream stream = new ReportEventStream(file);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    Map<String, Object> fields = new HashMap<>();
+                    fields.put("seq", i);
+                    stream.emit("log", fields);
+                }
+            }, "emitter-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        stream.flush();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.size(), 1000, "Every emitted event should be on disk after flush");
+        Map<String, Integer> lastSeq = new HashMap<>();
+        for (String line : lines) {
+            JsonDocument event = JsonDocument.of(line.getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(event.getString("type"), "log");
+            String thread = event.getString("thread");
+            int seq = event.getInt("seq");
+            Assert.assertEquals(seq, lastSeq.getOrDefault(thread, -1) + 1, "Events of " + thread + " out of order");
+            lastSeq.put(thread, seq);
+        }
+        stream.close();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.getParent());
+    }
+
+    @Test
+    @Story("Per-Thread Nodes")
+    @Description("Verify parallel threads log against their own test node and detach it afterwards")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testNodesStayWithTheirThread() throws Exception {
+        String run = UUID.randomUUID().toString();
+        int threads = 3;
+        CountDownLatch created = new CountDownLatch(threads);
+        List<Throwable> errors = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String name = "node-" + t + "-" + run;
+            Thread worker = new Thread(() -> {
+                try {
+                    ExtentManager.createTest(name, "per-thread node");
+                    // Every thread holds a node at once, like parallel methods do
+                    created.countDown();
+                    created.await();
+                    ExtentManager.pass(name + " passed");
+                    ExtentManager.removeTest();
+                    Assert.assertNull(ExtentManager.getTest(), "removeTest should detach the node");
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Assert.assertEquals(errors, new ArrayList<Throwable>());
+        ExtentManager.flushReports();
+
+        // No shard index in unit runs, so the stream is the top-level one
+        Path events = Paths.get("target", "extent-reports", "events.ndjson");
+        List<JsonDocument> logs = readEvents(events, run).stream()
+            .filter(event -> "log".equals(event.getString("type")))
+            .collect(Collectors.toList());
+        Assert.assertEquals(logs.size(), threads, "One result per node");
+        for (JsonDocument log : logs) {
+            Assert.assertEquals(log.getString("details"), log.getString("test") + " passed",
+                "Each result should be logged against its own thread's node");
+        }
+    }
+
+    private static List<JsonDocument> readEvents(Path file, String run) throws IOException {
+        List<JsonDocument> events = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.contains(run)) {
+                events.add(JsonDocument.of(line.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,179 @@
+package Resilience;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+
+import services.AsyncResponse;
+import services.AsyncUserService;
+import services.HedgedUserService;
+import services.RetryBudget;
+import stub.FaultProfile;
+import stub.LocalStubServer;
+import utils.LatencyRegistry;
+
+/**
+ * HedgedUserService Test Class
+ * Runs hedged and retried reads against a private stub with a long-tailed and failing backend
+ */
+@Epic("Test Infrastructure")
+@Feature("Hedged Requests")
+public class HedgedUserServiceTests {
+
+    private static final String USER_ENDPOINT = "/users/{userId}";
+    private static final String SEED = "526";
+    private static final int WARM_UP_CALLS = 20;
+    private static final long HEDGE_DELAY_MILLIS = 100;
+    // Draws this close to a hedge decision could go either way under load, so they are not predicted
+    private static final long MARGIN_MILLIS = 40;
+
+    private LocalStubServer server;
+    private AsyncUserService async;
+
+    @BeforeClass
+    public void startFaultyStub() {
+        server = LocalStubServer.create(0, 16, profile());
+        async = new AsyncUserService(URI.create(LocalStubServer.BASE_URL + ":" + server.getPort()),
+            Duration.ofSeconds(5));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopFaultyStub() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private static FaultProfile profile() {
+        Map<String, String> values = new HashMap<>();
+        values.put("stub.fault.enabled", "true");
+        values.put("stub.fault.seed", SEED);
+        // Median about 8 ms, but one request in twelve takes 300 ms or more
+        values.put("stub.fault.latency./users", "pareto:2,0.5,1500");
+        values.put("stub.fault.error.rate./users/8", "0.5");
+        values.put("stub.fault.error.rate./users/9", "1");
+        List<String> errors = new ArrayList<>();
+        FaultProfile faults = FaultProfile.parse(values, errors);
+        Assert.assertEquals(errors, new ArrayList<String>(), "Profile should be valid");
+        return faults;
+    }
+
+    /**
+     * Which calls the delays the stub draws for each primary allow to hedge or run slow
+     */
+    private static class TailReplay {
+        private long possibleHedges;
+        private long certainHedges;
+        private long slowUnhedged;
+
+        void call(FaultProfile twin, String path) {
+            long primary = twin.decide("GET", path).getDelayMillis();
+            if (primary >= HEDGE_DELAY_MILLIS - MARGIN_MILLIS) {
+                possibleHedges++;
+            }
+            if (primary > HEDGE_DELAY_MILLIS + MARGIN_MILLIS) {
+                certainHedges++;
+                // The hedge takes the path's next draw
+                twin.decide("GET", path);
+            }
+            slowUnhedged += primary >= 300 ? 1 : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d to %d hedges, %d slow calls unhedged", certainHedges, possibleHedges,
+                slowUnhedged);
+        }
+    }
+
+    @Test
+    @Story("Hedging")
+    @Description("Verify hedges start once latencies are known, fire only for slow primaries and cut the slow calls")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testHedgingCutsTail() {
+        HedgedUserService service = new HedgedUserService(async, new LatencyRegistry(), new RetryBudget(1, 100),
+            50, WARM_UP_CALLS, HEDGE_DELAY_MILLIS, 1, 0);
+        // Replays the stub's primary draws; each path has its own seeded sequence, used in the same order here
+        FaultProfile twin = profile();
+        TailReplay replay = new TailReplay();
+
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            twin.decide("GET", "/users/" + (i % 7 + 1));
+            Assert.assertEquals(service.getUserById(i % 7 + 1).join().getStatusCode(), 200);
+        }
+        Assert.assertEquals(service.getHedges(), 0, "No hedging before the endpoint has enough latencies");
+        // The median of this profile is far below the floor, so the floor is the delay
+        Assert.assertEquals(service.getHedgeDelayMillis(USER_ENDPOINT), HEDGE_DELAY_MILLIS);
+
+        long slowCalls = 0;
+        for (int i = 0; i < 60; i++) {
+            int userId = i % 7 + 1;
+            replay.call(twin, "/users/" + userId);
+            long start = System.nanoTime();
+            AsyncResponse response = service.getUserById(userId).join();
+            slowCalls += System.nanoTime() - start >= 300_000_000L ? 1 : 0;
+            Assert.assertEquals(response.getStatusCode(), 200);
+            Assert.assertEquals(async.convertToUserResponse(response).getId(), userId);
+        }
+        // A hedge the replay can't call either way would shift the path's later draws
+        Assert.assertEquals(replay.possibleHedges, replay.certainHedges, "Seed " + SEED
+            + " draws delays too close to the hedge delay to replay; pick another seed");
+        Assert.assertTrue(replay.certainHedges > 0 && replay.slowUnhedged > 0,
+            "Seed " + SEED + " should draw slow primaries: " + replay);
+        // Timing decides the exact counts, so only bound them
+        Assert.assertTrue(service.getHedges() > 0, "Slow primaries should hedge: " + service);
+        Assert.assertTrue(service.getHedges() <= replay.possibleHedges,
+            "Only primaries near or past the hedge delay should hedge (" + replay + "): " + service);
+        Assert.assertTrue(service.getHedgeWins() > 0 && service.getHedgeWins() <= service.getHedges(),
+            "Some hedges should beat their primary: " + service);
+        Assert.assertTrue(slowCalls < replay.slowUnhedged,
+            "Hedging should leave fewer slow calls than the " + replay.slowUnhedged + " slow primaries, got "
+                + slowCalls + ": " + service);
+        Assert.assertEquals(service.getRetries(), 0);
+    }
+
+    @Test
+    @Story("Retries")
+    @Description("Verify transient 5xx responses are retried until a request succeeds")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testRetriesRecoverFromTransientErrors() {
+        HedgedUserService service = new HedgedUserService(async, new LatencyRegistry(), new RetryBudget(1, 100),
+            95, 1000, 10, 4, 1);
+
+        int succeeded = 0;
+        for (int i = 0; i < 30; i++) {
+            int status = service.getUserById(8).join().getStatusCode();
+            Assert.assertTrue(status == 200 || status >= 500, "Unexpected status " + status);
+            succeeded += status == 200 ? 1 : 0;
+        }
+        // Half the requests fail, so without retries about 15 calls would
+        Assert.assertTrue(succeeded >= 26, "Retries should recover most calls, " + succeeded + " of 30: " + service);
+        Assert.assertTrue(service.getRetries() > 0, "Failures should have been retried: " + service);
+    }
+
+    @Test
+    @Story("Retry Budget")
+    @Description("Verify a failing backend gets at most the budgeted share of extra requests")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testRetryBudgetCapsExtraLoad() {
+        RetryBudget budget = new RetryBudget(0.1, 5);
+        HedgedUserService service = new HedgedUserService(async, new LatencyRegistry(), budget, 95, 1000, 10, 3, 1);
+
+        for (int i = 0; i < 50; i++) {
+            int status = service.getUserById(9).join().getStatusCode();
+            Assert.assertTrue(status >= 500, "Calls should end with the backend's error once retries are spent, got "
+                + status);
+        }
+        // Five tokens up front plus a tenth of a token for each of the 50 calls
+        Assert.assertTrue(service.getRetries() <= 10, "Retries should stay within the budget: " + service);
+        Assert.assertTrue(service.getRetries() >= 5, "The initial tokens should be spent: " + service);
+        Assert.assertTrue(budget.getDenied() > 0, "The budget should have refused retries: " + service);
+    }
+}
@@ -0,0 +1,101 @@
+package Sharding;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import io.qameta.allure.*;
+
+import Users.PostsAPITests;
+import Users.UserAPITests;
+import shard.DurationHistory;
+import shard.ShardPlanner;
+
+/**
+ * ShardPlanner Test Class
+ * Verifies balancing and that dependent methods are never split across shards
+ */
+@Epic("Test Infrastructure")
+@Feature("Test Sharding")
+public class ShardPlannerTests {
+
+    private static final Path REGRESSION = Paths.get("src/test/resources/testNG/regression.xml");
+    private static final String USERS = "Users.UserAPITests";
+
+    @Test
+    @Story("Dependency Groups")
+    @Description("Verify a method and the methods it depends on land in the same shard")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testDependentMethodsShareShard() throws Exception {
+        List<ShardPlanner.Plan> plans = new ShardPlanner(new HashMap<>()).plan(REGRESSION, 4);
+
+        int total = 0;
+        for (ShardPlanner.Plan plan : plans) {
+            List<String> methods = includedMethods(plan.toSuite(), USERS);
+            Assert.assertEquals(methods.contains("testUpdateUser"), methods.contains("testCreateUser"),
+                "testUpdateUser must run with testCreateUser in " + plan);
+            total += plan.getMethodCount();
+        }
+        Assert.assertEquals(plans.size(), 4);
+        Assert.assertEquals(total, testMethodCount(UserAPITests.class, PostsAPITests.class),
+            "Every regression method is planned exactly once");
+    }
+
+    @Test
+    @Story("Balancing")
+    @Description("Verify longest-first assignment isolates a dominant method in its own shard")
+    @Severity(SeverityLevel.NORMAL)
+    public void testLongestMethodGetsOwnShard() throws Exception {
+        Map<String, Long> history = new HashMap<>();
+        for (String method : new String[]{"testGetAllUsers", "testGetUserById", "testCreateUser", "testUpdateUser",
+                "testDeleteUser", "testGetUserNotFound", "testUserDataValidation", "testCachedGetUserById"}) {
+            history.put(DurationHistory.key(USERS, method), 100L);
+        }
+        history.put(DurationHistory.key(USERS, "testBulkCreateAndDeleteUsers"), 60_000L);
+
+        List<ShardPlanner.Plan> plans = new ShardPlanner(history).plan(REGRESSION, 2);
+
+        ShardPlanner.Plan heavy = plans.get(0);
+        Assert.assertEquals(heavy.getMethodCount(), 1, "Dominant method should be alone: " + plans);
+        Assert.assertEquals(includedMethods(heavy.toSuite(), USERS), List.of("testBulkCreateAndDeleteUsers"));
+        Assert.assertTrue(plans.get(1).getEstimateMillis() < heavy.getEstimateMillis());
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ShardPlanner(history).plan(REGRESSION, 0));
+    }
+
+    /**
+     * Number of test methods in the regression classes, so adding a test keeps the count right
+     */
+    private static int testMethodCount(Class<?>... classes) {
+        int count = 0;
+        for (Class<?> testClass : classes) {
+            for (Method method : testClass.getDeclaredMethods()) {
+                count += method.isAnnotationPresent(Test.class) ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    private static List<String> includedMethods(XmlSuite suite, String className) {
+        List<String> methods = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                if (xmlClass.getName().equals(className)) {
+                    for (XmlInclude include : xmlClass.getIncludedMethods()) {
+                        methods.add(include.getName());
+                    }
+                }
+            }
+        }
+        return methods;
+    }
+}
@@ -0,0 +1,113 @@
+package Stub;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+
+import stub.FaultProfile;
+import stub.LocalStubServer;
+import utils.Cassette;
+import utils.CassetteFilter;
+
+/**
+ * Cassette Replay Test Class
+ * Records traffic from a private stub and replays it with the stub gone
+ */
+@Epic("Test Infrastructure")
+@Feature("Cassette Record and Replay")
+public class CassetteReplayTests {
+
+    private Path file;
+
+    @BeforeMethod
+    public void createCassetteFile() throws IOException {
+        file = Files.createTempFile("cassette", ".bin");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteCassetteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @Story("Round Trip")
+    @Description("Verify responses recorded from the stub replay with the same status, headers and body once it is stopped")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testRecordAndReplayAgainstStub() throws IOException {
+        LocalStubServer server = LocalStubServer.create(0, 2, FaultProfile.NONE);
+        int port = server.getPort();
+        List<Response> recorded = new ArrayList<>();
+        try (Cassette cassette = Cassette.forRecording(file)) {
+            CassetteFilter filter = new CassetteFilter(CassetteFilter.Mode.RECORD, cassette);
+            for (String path : new String[]{"/users/1", "/users", "/users/1"}) {
+                Response response = RestAssured.given().baseUri(LocalStubServer.BASE_URL).port(port).filter(filter)
+                    .get(path);
+                Assert.assertEquals(response.getStatusCode(), 200);
+                recorded.add(response);
+            }
+        } finally {
+            server.close();
+        }
+
+        try (Cassette cassette = Cassette.forReplay(file)) {
+            Assert.assertEquals(cassette.size(), 2, "Repeated requests share a key");
+            CassetteFilter filter = new CassetteFilter(CassetteFilter.Mode.REPLAY, cassette);
+            for (int i = 0; i < recorded.size(); i++) {
+                String path = i == 1 ? "/users" : "/users/1";
+                // The stub is closed, so only the cassette can answer
+                Response replayed = RestAssured.given().baseUri(LocalStubServer.BASE_URL).port(port).filter(filter)
+                    .get(path);
+                Response original = recorded.get(i);
+                Assert.assertEquals(replayed.getStatusCode(), original.getStatusCode(), path);
+                Assert.assertEquals(replayed.getContentType(), original.getContentType(), path);
+                Assert.assertEquals(replayed.getHeader("ETag"), original.getHeader("ETag"), path);
+                Assert.assertEquals(headers(replayed), headers(original), "Headers of " + path);
+                Assert.assertEquals(replayed.asByteArray(), original.asByteArray(), "Body of " + path);
+            }
+        }
+    }
+
+    @Test
+    @Story("Repeated Headers")
+    @Description("Verify every value of a repeated header is kept in order")
+    @Severity(SeverityLevel.NORMAL)
+    public void testRepeatedHeadersSurvive() throws IOException {
+        List<Map.Entry<String, String>> headers = Arrays.asList(
+            new AbstractMap.SimpleImmutableEntry<>("Set-Cookie", "session=abc; Path=/"),
+            new AbstractMap.SimpleImmutableEntry<>("Content-Type", "application/json"),
+            new AbstractMap.SimpleImmutableEntry<>("Set-Cookie", "theme=dark; Path=/"));
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        try (Cassette cassette = Cassette.forRecording(file)) {
+            cassette.append("GET /login#-", "GET /login", 200, headers, body, 12);
+        }
+
+        try (Cassette cassette = Cassette.forReplay(file)) {
+            Cassette.Recording recording = cassette.next("GET /login#-", "GET /login");
+            Assert.assertEquals(recording.getHeaders(), headers);
+            Assert.assertEquals(recording.getHeader("content-type"), "application/json");
+            Assert.assertEquals(recording.getBodyLength(), body.length);
+            Assert.assertEquals(recording.getTimeMillis(), 12);
+        }
+    }
+
+    private static List<String> headers(Response response) {
+        List<String> headers = new ArrayList<>();
+        for (Header header : response.getHeaders()) {
+            headers.add(header.getName() + ": " + header.getValue());
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,197 @@
+package Stub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import stub.FaultProfile;
+import stub.LatencyDistribution;
+import stub.LocalStubServer;
+
+/**
+ * Stub Fault Injection Test Class
+ * Verifies latency distributions, profile parsing and each injected fault against a private stub
+ */
+@Epic("Test Infrastructure")
+@Feature("Stub Fault Injection")
+public class StubFaultInjectionTests {
+
+    private LocalStubServer server;
+
+    @BeforeClass
+    public void startFaultyStub() {
+        Map<String, String> values = new HashMap<>();
+        values.put("stub.fault.enabled", "true");
+        values.put("stub.fault.error.rate./users", "1");
+        values.put("stub.fault.error.statuses./users", "503");
+        values.put("stub.fault.reset.rate./users/1", "1");
+        values.put("stub.fault.truncate.rate./users/2", "1");
+        values.put("stub.fault.error.rate./users/3", "0");
+        values.put("stub.fault.latency./users/3", "fixed:300");
+        values.put("stub.fault.bandwidth.kbps./posts", "160");
+        server = LocalStubServer.create(0, 4, profile(values));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopFaultyStub() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    @Story("Latency Distributions")
+    @Description("Verify each latency distribution produces samples with the configured shape")
+    @Severity(SeverityLevel.NORMAL)
+    public void testLatencyDistributions() {
+        Random random = new Random(7);
+        Assert.assertEquals(LatencyDistribution.parse("fixed:25").sample(random), 25);
+
+        long[] uniform = samples(LatencyDistribution.parse("uniform:10,20"), 2000);
+        Assert.assertTrue(uniform[0] >= 10 && uniform[uniform.length - 1] <= 20, "Uniform samples out of range");
+
+        long[] logNormal = samples(LatencyDistribution.parse("lognormal:50,0.5"), 2001);
+        long median = logNormal[1000];
+        Assert.assertTrue(median >= 43 && median <= 57, "Log-normal median should be near 50, was " + median);
+
+        long[] pareto = samples(LatencyDistribution.parse("pareto:10,1.5,60000"), 2000);
+        Assert.assertTrue(pareto[0] >= 10, "Pareto samples start at the minimum");
+        Assert.assertTrue(pareto[1979] > 100, "Pareto p99 should sit far out in the tail, was " + pareto[1979]);
+
+        long[] capped = samples(LatencyDistribution.parse("pareto:10,0.5,500"), 2000);
+        Assert.assertEquals(capped[capped.length - 1], 500, "Cap should bound the tail");
+
+        for (String invalid : new String[]{"gaussian:5", "fixed", "uniform:20,10", "lognormal:0,1", "fixed:-1"}) {
+            Assert.assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse(invalid));
+        }
+    }
+
+    @Test
+    @Story("Fault Profile")
+    @Description("Verify per-endpoint rules, validation and that the same seed reproduces the same decisions")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testProfileParsingAndReproducibility() {
+        Map<String, String> values = new HashMap<>();
+        values.put("stub.fault.enabled", "true");
+        values.put("stub.fault.seed", "1234");
+        values.put("stub.fault.latency", "lognormal:40,0.8");
+        values.put("stub.fault.error.rate", "0.2");
+        values.put("stub.fault.latency./posts", "fixed:5");
+        FaultProfile first = profile(values);
+        FaultProfile second = profile(values);
+
+        List<String> decisions = new ArrayList<>();
+        Map<String, List<String>> byPath = new HashMap<>();
+        int errors = 0;
+        for (int i = 0; i < 500; i++) {
+            String path = "/users/" + (i % 10 + 1);
+            FaultProfile.Decision a = first.decide(path);
+            FaultProfile.Decision b = second.decide(path);
+            Assert.assertEquals(b.getDelayMillis(), a.getDelayMillis(), "Same seed should give the same delay");
+            Assert.assertEquals(b.getStatus(), a.getStatus(), "Same seed should give the same fault");
+            decisions.add(a.getDelayMillis() + "/" + a.getStatus());
+            byPath.computeIfAbsent(path, k -> new ArrayList<>()).add(decisions.get(i));
+            errors += a.getStatus() > 0 ? 1 : 0;
+            // Requests to another rule must not shift this rule's sequence
+            if (i % 3 == 0) {
+                Assert.assertEquals(first.decide("/posts/1").getDelayMillis(), 5);
+            }
+        }
+        Assert.assertTrue(errors > 60 && errors < 140, "About 20% of requests should fail, got " + errors);
+        Assert.assertTrue(decisions.stream().distinct().count() > 50, "Delays should vary");
+
+        // Each path keeps its own sequence, so parallel tests on other paths of the same rule cannot shift it
+        FaultProfile third = profile(values);
+        for (int user = 10; user >= 1; user--) {
+            String path = "/users/" + user;
+            List<String> alone = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                FaultProfile.Decision c = third.decide(path);
+                alone.add(c.getDelayMillis() + "/" + c.getStatus());
+            }
+            Assert.assertEquals(alone, byPath.get(path), "Path " + path + " should not depend on other paths");
+        }
+
+        Map<String, String> invalid = new HashMap<>();
+        invalid.put("stub.fault.error.rate", "0.7");
+        invalid.put("stub.fault.reset.rate./users", "0.5");
+        invalid.put("stub.fault.error.statuses", "404");
+        invalid.put("stub.fault.latency./posts", "sometimes");
+        invalid.put("stub.fault.jitter", "5");
+        List<String> problems = new ArrayList<>();
+        Assert.assertSame(FaultProfile.parse(invalid, problems), FaultProfile.NONE);
+        Assert.assertEquals(problems.size(), 4, "Every invalid setting should be reported: " + problems);
+    }
+
+    @Test
+    @Story("Injected Faults")
+    @Description("Verify 5xx, connection resets, truncated bodies, added latency and throttled bandwidth")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testInjectedFaults() {
+        Response error = request().get("/users");
+        Assert.assertEquals(error.getStatusCode(), 503, "Every /users request should be answered with a 503");
+
+        Assert.assertThrows(Exception.class, () -> request().get("/users/1"));
+        Assert.assertThrows(Exception.class, () -> request().get("/users/2").asByteArray());
+
+        Response slow = request().get("/users/3");
+        Assert.assertEquals(slow.getStatusCode(), 200);
+        Assert.assertEquals(slow.jsonPath().getInt("id"), 3);
+        Assert.assertTrue(slow.getTime() >= 290, "Fixed latency should delay the response, took " + slow.getTime());
+
+        // Response.getTime() stops at the headers, so time the whole body
+        long start = System.nanoTime();
+        Response throttled = request().get("/posts");
+        int bytes = throttled.asByteArray().length;
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+        long expectedMillis = bytes * 8L * 1000 / 160_000;
+        Assert.assertEquals(throttled.getStatusCode(), 200);
+        Assert.assertEquals(throttled.jsonPath().getList("$").size(), 100, "Throttled body should arrive whole");
+        Assert.assertTrue(tookMillis >= expectedMillis * 8 / 10,
+            "160 kbps should take about " + expectedMillis + " ms for " + bytes + " bytes, took " + tookMillis);
+    }
+
+    @Test
+    @Story("Routing")
+    @Description("Verify resource paths match whole segments, so neighbouring names are 404")
+    @Severity(SeverityLevel.NORMAL)
+    public void testRoutesMatchWholeSegments() {
+        Assert.assertEquals(request().get("/posts/1").getStatusCode(), 200);
+        for (String path : new String[]{"/postsfoo", "/postsfoo/1", "/posts/1/comments"}) {
+            Response response = request().get(path);
+            Assert.assertEquals(response.getStatusCode(), 404, path);
+            Assert.assertEquals(response.asString(), "{}", path);
+        }
+    }
+
+    private RequestSpecification request() {
+        return RestAssured.given().baseUri(LocalStubServer.BASE_URL).port(server.getPort());
+    }
+
+    private static FaultProfile profile(Map<String, String> values) {
+        List<String> errors = new ArrayList<>();
+        FaultProfile profile = FaultProfile.parse(values, errors);
+        Assert.assertEquals(errors, new ArrayList<String>(), "Profile should be valid");
+        return profile;
+    }
+
+    private static long[] samples(LatencyDistribution distribution, int count) {
+        Random random = new Random(11);
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = distribution.sample(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+}
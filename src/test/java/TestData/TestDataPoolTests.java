@@ -0,0 +1,84 @@
+package TestData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testng.Assert;
+import org.testng.annotations.*;
+import io.qameta.allure.*;
+
+import mdoels.request.UserRequest;
+import utils.TestDataPool;
+
+/**
+ * TestDataPool Test Class
+ * Verifies deterministic generation, binary spill and contention-free claiming
+ */
+@Epic("Test Infrastructure")
+@Feature("Test Data Pools")
+public class TestDataPoolTests {
+
+    private static final long SEED = 7;
+    private static final int SIZE = 25_000; // spans several generation chunks
+
+    private TestDataPool pool;
+    private final Set<String> claimed = ConcurrentHashMap.newKeySet();
+
+    @BeforeClass
+    public void setupPool() {
+        pool = TestDataPool.generate(SEED, SIZE);
+    }
+
+    @Test(priority = 1)
+    @Story("Deterministic Generation")
+    @Description("Verify the same seed produces the same users regardless of parallelism")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testSameSeedSameData() {
+        TestDataPool again = TestDataPool.generate(SEED, SIZE);
+        for (int i = 0; i < SIZE; i += 997) {
+            assertSameUser(again.get(i), pool.get(i));
+        }
+        UserRequest other = TestDataPool.generate(SEED + 1, 1).get(0);
+        Assert.assertNotEquals(other.getEmail(), pool.get(0).getEmail(), "A different seed should produce different data");
+    }
+
+    @Test(priority = 2)
+    @Story("Binary Spill")
+    @Description("Verify a spilled pool reloads identically")
+    @Severity(SeverityLevel.NORMAL)
+    public void testSpillRoundTrip() throws IOException {
+        Path directory = Files.createTempDirectory("test-data");
+        TestDataPool spilled = TestDataPool.loadOrGenerate(SEED, 1000, directory);
+        Path file = directory.resolve("users-" + SEED + "-1000.bin");
+        Assert.assertTrue(Files.isRegularFile(file), "Pool should be spilled to disk");
+
+        TestDataPool reloaded = TestDataPool.readFrom(file);
+        Assert.assertEquals(reloaded.size(), 1000);
+        Assert.assertEquals(reloaded.getSeed(), SEED);
+        for (int i = 0; i < 1000; i++) {
+            assertSameUser(reloaded.get(i), spilled.get(i));
+        }
+    }
+
+    @Test(priority = 3, invocationCount = 40, threadPoolSize = 8)
+    @Story("Contention-Free Claiming")
+    @Description("Verify parallel callers never receive the same user")
+    @Severity(SeverityLevel.NORMAL)
+    public void testParallelClaimsAreDisjoint() {
+        for (Object[] row : pool.rows(100)) {
+            UserRequest user = (UserRequest) row[0];
+            Assert.assertTrue(claimed.add(user.getUsername()), "User claimed twice: " + user.getUsername());
+        }
+    }
+
+    private static void assertSameUser(UserRequest actual, UserRequest expected) {
+        Assert.assertEquals(actual.getName(), expected.getName());
+        Assert.assertEquals(actual.getUsername(), expected.getUsername());
+        Assert.assertEquals(actual.getEmail(), expected.getEmail());
+        Assert.assertEquals(actual.getPhone(), expected.getPhone());
+        Assert.assertEquals(actual.getWebsite(), expected.getWebsite());
+    }
+}
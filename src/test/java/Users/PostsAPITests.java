@@ -1,5 +1,7 @@
 package Users;
 
+import java.util.List;
+import java.util.Random;
 
 import org.testng.annotations.*;
 import org.testng.Assert;
@@ -8,7 +10,11 @@ import io.qameta.allure.*;
 import com.github.javafaker.Faker;
 
 import base.BaseTest;
+import mdoels.request.PostRequest;
+import mdoels.response.PostResponse;
+import services.PostService;
 import utils.APIUtils;
+import utils.SchemaRegistry;
 
 /**
  * Posts API Test Class
@@ -18,12 +24,15 @@ import utils.APIUtils;
 @Feature("Posts Operations")
 public class PostsAPITests extends BaseTest {
 
+    private PostService postService;
     private Faker faker;
 
     @BeforeClass
     public void setupPostsTests() {
         System.out.println("\n🔧 Setting up Posts API Tests...");
-        faker = new Faker();
+        postService = new PostService();
+        // Seeded so request bodies repeat across runs and replay from cassettes exactly
+        faker = new Faker(new Random(config.getTestDataSeed()));
         System.out.println("✅ Posts API Tests setup completed\n");
     }
 
@@ -34,28 +43,26 @@ public class PostsAPITests extends BaseTest {
     public void testGetAllPosts() {
         System.out.println("🧪 TEST: Get All Posts");
 
-        Response response = getRequest()
-            .when()
-                .get("/posts")
-            .then()
-                .extract()
-                .response();
+        Response response = postService.getAllPosts();
 
         // Validations
         APIUtils.validateStatusCode(response, 200);
         APIUtils.validateResponseTime(response, 3000);
+        APIUtils.validateSchema(response, SchemaRegistry.POSTS);
+
+        PostResponse[] posts = postService.readArray(response);
 
         // Validate response is array and not empty
-        Assert.assertTrue(response.jsonPath().getList("$").size() > 0, 
+        Assert.assertTrue(posts.length > 0, 
             "Posts list should not be empty");
 
         // Validate first post structure
-        Assert.assertNotNull(response.jsonPath().get("[0].id"), "Post should have ID");
-        Assert.assertNotNull(response.jsonPath().get("[0].title"), "Post should have title");
-        Assert.assertNotNull(response.jsonPath().get("[0].body"), "Post should have body");
-        Assert.assertNotNull(response.jsonPath().get("[0].userId"), "Post should have userId");
+        Assert.assertTrue(posts[0].getId() > 0, "Post should have ID");
+        Assert.assertNotNull(posts[0].getTitle(), "Post should have title");
+        Assert.assertNotNull(posts[0].getBody(), "Post should have body");
+        Assert.assertTrue(posts[0].getUserId() > 0, "Post should have userId");
 
-        int postsCount = response.jsonPath().getList("$").size();
+        int postsCount = posts.length;
         System.out.println("✅ Total posts found: " + postsCount);
         System.out.println("✅ Test passed: Get All Posts\n");
     }
@@ -69,29 +76,25 @@ public class PostsAPITests extends BaseTest {
 
         int postId = 1;
 
-        Response response = getRequest()
-            .pathParam("postId", postId)
-            .when()
-                .get("/posts/{postId}")
-            .then()
-                .extract()
-                .response();
+        Response response = postService.getPostById(postId);
 
         APIUtils.printResponse(response);
 
         // Validations
         APIUtils.validateStatusCode(response, 200);
         APIUtils.validateResponseTime(response, 2000);
+        APIUtils.validateSchema(response, SchemaRegistry.POST);
 
         // Validate response data
-        Assert.assertEquals(response.jsonPath().getInt("id"), postId, 
+        PostResponse post = postService.read(response);
+        Assert.assertEquals(post.getId(), postId, 
             "Post ID should match requested ID");
-        Assert.assertNotNull(response.jsonPath().getString("title"), 
+        Assert.assertNotNull(post.getTitle(), 
             "Post title should not be null");
-        Assert.assertTrue(response.jsonPath().getString("body").length() > 0, 
+        Assert.assertTrue(post.getBody().length() > 0, 
             "Post body should not be empty");
 
-        String postTitle = response.jsonPath().getString("title");
+        String postTitle = post.getTitle();
         System.out.println("✅ Post retrieved: " + postTitle);
         System.out.println("✅ Test passed: Get Post By ID\n");
     }
@@ -108,35 +111,28 @@ public class PostsAPITests extends BaseTest {
         String body = faker.lorem().paragraph(3);
         int userId = faker.number().numberBetween(1, 10);
 
-        String requestBody = String.format(
-            "{\"title\": \"%s\", \"body\": \"%s\", \"userId\": %d}",
-            title, body, userId
-        );
+        PostRequest postRequest = new PostRequest(userId, title, body);
 
-        Response response = getRequest()
-            .body(requestBody)
-            .when()
-                .post("/posts")
-            .then()
-                .extract()
-                .response();
+        Response response = postService.createPost(postRequest);
 
         APIUtils.printResponse(response);
 
         // Validations
         APIUtils.validateStatusCode(response, 201);
         APIUtils.validateResponseTime(response, 3000);
+        APIUtils.validateSchema(response, SchemaRegistry.POST);
 
         // Validate created post data
-        Assert.assertNotNull(response.jsonPath().get("id"), "Created post should have ID");
-        Assert.assertEquals(response.jsonPath().getString("title"), title, 
+        PostResponse createdPost = postService.read(response);
+        Assert.assertTrue(createdPost.getId() > 0, "Created post should have ID");
+        Assert.assertEquals(createdPost.getTitle(), title, 
             "Title should match input");
-        Assert.assertEquals(response.jsonPath().getString("body"), body, 
+        Assert.assertEquals(createdPost.getBody(), body, 
             "Body should match input");
-        Assert.assertEquals(response.jsonPath().getInt("userId"), userId, 
+        Assert.assertEquals(createdPost.getUserId(), userId, 
             "UserId should match input");
 
-        int createdPostId = response.jsonPath().getInt("id");
+        int createdPostId = createdPost.getId();
         System.out.println("✅ Post created with ID: " + createdPostId);
         System.out.println("✅ Test passed: Create Post\n");
     }
@@ -150,26 +146,20 @@ public class PostsAPITests extends BaseTest {
 
         int userId = 1;
 
-        Response response = getRequest()
-            .queryParam("userId", userId)
-            .when()
-                .get("/posts")
-            .then()
-                .extract()
-                .response();
+        Response response = postService.getPostsByUser(userId);
 
         // Validations
         APIUtils.validateStatusCode(response, 200);
         APIUtils.validateResponseTime(response, 3000);
 
         // Validate all returned posts belong to the specified user
-        java.util.List<Integer> userIds = response.jsonPath().getList("userId", Integer.class);
-        for (Integer returnedUserId : userIds) {
-            Assert.assertEquals(returnedUserId.intValue(), userId, 
+        List<PostResponse> posts = postService.readList(response);
+        for (PostResponse post : posts) {
+            Assert.assertEquals(post.getUserId(), userId, 
                 "All posts should belong to user " + userId);
         }
 
-        System.out.println("✅ Found " + userIds.size() + " posts for user " + userId);
+        System.out.println("✅ Found " + posts.size() + " posts for user " + userId);
         System.out.println("✅ Test passed: Get Posts By User\n");
     }
 
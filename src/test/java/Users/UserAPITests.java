@@ -1,17 +1,27 @@
 package Users;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.testng.annotations.*;
 import org.testng.Assert;
+import org.testng.SkipException;
 import io.restassured.response.Response;
 import io.qameta.allure.*;
-import com.github.javafaker.Faker;
 
 import base.BaseTest;
+import base.RequestSpecFactory;
+import services.AsyncUserService;
+import services.BulkResult;
+import services.BulkUserService;
+import services.ResponseCache;
 import services.UserService;
 import mdoels.request.UserRequest;
 import mdoels.response.UserResponse;
 import utils.APIUtils;
 import utils.ExtentManager;
+import utils.SchemaRegistry;
+import utils.TestDataPool;
 
 /**
  * Comprehensive User API Test Class
@@ -22,14 +32,14 @@ import utils.ExtentManager;
 public class UserAPITests extends BaseTest {
 
     private UserService userService;
-    private Faker faker;
+    private TestDataPool testData;
     private int createdUserId;
 
     @BeforeClass
     public void setupUserTests() {
         System.out.println("\n🔧 Setting up User API Tests...");
-        userService = new UserService(getRequest());
-        faker = new Faker();
+        userService = new UserService();
+        testData = TestDataPool.shared(config.getTestDataUsers());
         System.out.println("✅ User API Tests setup completed\n");
     }
 
@@ -39,7 +49,6 @@ public class UserAPITests extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     public void testGetAllUsers() {
         System.out.println("🧪 TEST: Get All Users");
-        ExtentManager.createTest("Get All Users", "Verify API returns all users");
 
         // Execute API call
         Response response = userService.getAllUsers();
@@ -50,6 +59,7 @@ public class UserAPITests extends BaseTest {
         // Validations
         APIUtils.validateStatusCode(response, 200);
         APIUtils.validateResponseTime(response, 3000);
+        APIUtils.validateSchema(response, SchemaRegistry.USERS);
 
         // Validate response structure
         UserResponse[] users = userService.convertToUserResponseArray(response);
@@ -71,7 +81,6 @@ public class UserAPITests extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     public void testGetUserById() {
         System.out.println("🧪 TEST: Get User By ID");
-        ExtentManager.createTest("Get User By ID", "Verify API returns specific user");
 
         int userId = 1;
 
@@ -81,6 +90,7 @@ public class UserAPITests extends BaseTest {
         // Validations
         APIUtils.validateStatusCode(response, 200);
         APIUtils.validateResponseTime(response, 2000);
+        APIUtils.validateSchema(response, SchemaRegistry.USER);
 
         // Validate response data
         UserResponse user = userService.convertToUserResponse(response);
@@ -96,17 +106,10 @@ public class UserAPITests extends BaseTest {
     @Story("Create User")
     @Description("Verify that API can create new users with valid data")
     @Severity(SeverityLevel.CRITICAL)
-    public void testCreateUser(String name, String username, String email) {
+    public void testCreateUser(UserRequest userRequest) {
+        String name = userRequest.getName();
+        String email = userRequest.getEmail();
         System.out.println("🧪 TEST: Create User - " + name);
-        ExtentManager.createTest("Create User", "Verify user creation with data: " + name);
-
-        // Prepare test data
-        UserRequest userRequest = new UserRequest();
-        userRequest.setName(name);
-        userRequest.setUsername(username);
-        userRequest.setEmail(email);
-        userRequest.setPhone(faker.phoneNumber().phoneNumber());
-        userRequest.setWebsite(faker.internet().url());
 
         // Execute API call
         Response response = userService.createUser(userRequest);
@@ -117,6 +120,7 @@ public class UserAPITests extends BaseTest {
         // Validations
         APIUtils.validateStatusCode(response, 201);
         APIUtils.validateResponseTime(response, 3000);
+        APIUtils.validateSchema(response, SchemaRegistry.USER);
 
         // Validate response data
         UserResponse createdUser = userService.convertToUserResponse(response);
@@ -139,16 +143,16 @@ public class UserAPITests extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     public void testUpdateUser() {
         System.out.println("🧪 TEST: Update User");
-        ExtentManager.createTest("Update User", "Verify user update functionality");
 
         int userIdToUpdate = 1; // Using existing user from JSONPlaceholder
 
-        // Prepare updated data
+        // Prepare updated data (pooled users are shared, so copy rather than modify)
+        UserRequest source = testData.next();
         UserRequest updateRequest = new UserRequest();
-        updateRequest.setName("Updated " + faker.name().fullName());
-        updateRequest.setUsername("updated_" + faker.name().username());
-        updateRequest.setEmail("updated." + faker.internet().emailAddress());
-        updateRequest.setPhone(faker.phoneNumber().phoneNumber());
+        updateRequest.setName("Updated " + source.getName());
+        updateRequest.setUsername("updated_" + source.getUsername());
+        updateRequest.setEmail("updated." + source.getEmail());
+        updateRequest.setPhone(source.getPhone());
 
         // Execute API call
         Response response = userService.updateUser(userIdToUpdate, updateRequest);
@@ -173,7 +177,6 @@ public class UserAPITests extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     public void testDeleteUser() {
         System.out.println("🧪 TEST: Delete User");
-        ExtentManager.createTest("Delete User", "Verify user deletion functionality");
 
         int userIdToDelete = 1; // Using existing user from JSONPlaceholder
 
@@ -194,7 +197,6 @@ public class UserAPITests extends BaseTest {
     @Severity(SeverityLevel.MINOR)
     public void testGetUserNotFound() {
         System.out.println("🧪 TEST: Get Non-Existent User");
-        ExtentManager.createTest("Get Non-Existent User", "Verify 404 error handling");
 
         int invalidUserId = 999999;
 
@@ -218,7 +220,6 @@ public class UserAPITests extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     public void testUserDataValidation() {
         System.out.println("🧪 TEST: User Data Validation");
-        ExtentManager.createTest("User Data Validation", "Verify user data structure");
 
         // Get a specific user
         Response response = userService.getUserById(2);
@@ -239,16 +240,142 @@ public class UserAPITests extends BaseTest {
         System.out.println("✅ Test passed: Data Validation\n");
     }
 
+    @Test(priority = 8)
+    @Story("Response Cache")
+    @Description("Verify cached GETs are served locally, revalidated when stale and invalidated by writes")
+    @Severity(SeverityLevel.MINOR)
+    public void testCachedGetUserById() {
+        System.out.println("🧪 TEST: Cached Get User By ID");
+
+        // Fresh entries are served without a request
+        UserService cachedService = new UserService(RequestSpecFactory::newRequest, new ResponseCache(10, 60_000));
+        Response first = cachedService.getUserById(3);
+        Response second = cachedService.getUserById(3);
+        APIUtils.validateStatusCode(second, 200);
+        Assert.assertSame(second, first, "Second GET should be served from the cache");
+        Assert.assertEquals(cachedService.convertToUserResponse(second).getId(), 3);
+        Assert.assertEquals(cachedService.getCacheStats().getHits(), 1);
+
+        // Writes invalidate the affected entries
+        UserRequest update = new UserRequest();
+        update.setName(testData.next().getName());
+        cachedService.updateUser(3, update);
+        Assert.assertNotSame(cachedService.getUserById(3), first, "Update should invalidate the cached user");
+        Assert.assertEquals(cachedService.getCacheStats().getInvalidations(), 1);
+
+        // Entries that are always stale are revalidated with conditional requests
+        UserService revalidatingService = new UserService(RequestSpecFactory::newRequest, new ResponseCache(10, 0));
+        Response original = revalidatingService.getUserById(3);
+        Response revalidated = revalidatingService.getUserById(3);
+        APIUtils.validateStatusCode(revalidated, 200);
+        Assert.assertSame(revalidated, original, "304 should reuse the cached body");
+        Assert.assertEquals(revalidatingService.getCacheStats().getRevalidations(), 1);
+
+        System.out.println("✅ Cache stats: " + cachedService.getCacheStats());
+        System.out.println("✅ Test passed: Cached Get User By ID\n");
+    }
+
+    @Test(priority = 8)
+    @Story("Response Cache")
+    @Description("Verify responses read before an invalidation or a newer store are never cached over them")
+    @Severity(SeverityLevel.NORMAL)
+    public void testCacheRejectsOutdatedStores() {
+        System.out.println("🧪 TEST: Cache Rejects Outdated Stores");
+
+        ResponseCache cache = new ResponseCache(10, 60_000);
+        Response older = userService.getUserById(1);
+        Response newer = userService.getUserById(2);
+
+        // A GET that started before a write must not refill the entry the write invalidated
+        long beforeWrite = cache.ticket();
+        cache.invalidate("/users/1");
+        cache.store("/users/1", beforeWrite, older);
+        Assert.assertNull(cache.lookup("/users/1"), "Store from before the invalidation should be dropped");
+
+        // Of two overlapping GETs, the one that started last wins whatever order they finish in
+        long first = cache.ticket();
+        long second = cache.ticket();
+        cache.store("/users/1", second, newer);
+        cache.store("/users/1", first, older);
+        Assert.assertSame(cache.lookup("/users/1").getResponse(), newer, "Older response should not overwrite a newer one");
+
+        System.out.println("✅ Test passed: Cache Rejects Outdated Stores\n");
+    }
+
+    @Test(priority = 9)
+    @Story("Bulk Operations")
+    @Description("Verify bulk create and delete pipeline requests and report per-item results")
+    @Severity(SeverityLevel.NORMAL)
+    public void testBulkCreateAndDeleteUsers() {
+        // Hundreds of writes are fine against the local stub, not against a shared public API
+        if (!config.isLocalStub()) {
+            throw new SkipException("Bulk operations only run against the local stub");
+        }
+        System.out.println("🧪 TEST: Bulk Create And Delete Users");
+
+        BulkUserService bulkService = new BulkUserService(config);
+        List<UserRequest> users = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            users.add(testData.next());
+        }
+
+        BulkResult<UserRequest> created = bulkService.createUsers(users);
+        Assert.assertEquals(created.getTotal(), users.size(), "Every input should have a result");
+        Assert.assertTrue(created.isAllSucceeded(), "Failures: " + created.getFailures());
+        Assert.assertTrue(created.getPeakInFlight() <= config.getBulkMaxInFlight(), "In-flight limit exceeded");
+        for (BulkResult.Item<UserRequest> item : created.getItems()) {
+            Assert.assertSame(item.getInput(), users.get(item.getIndex()), "Results should keep input order");
+            Assert.assertEquals(item.getResponse().getStatusCode(), 201);
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= 10; id++) {
+            ids.add(id);
+        }
+        BulkResult<Integer> deleted = bulkService.deleteUsers(ids);
+        Assert.assertTrue(deleted.isAllSucceeded(), "Failures: " + deleted.getFailures());
+
+        System.out.println("✅ " + created);
+        System.out.println("✅ Test passed: Bulk Create And Delete Users\n");
+    }
+
+    @Test(priority = 9)
+    @Story("Bulk Operations")
+    @Description("Verify an interrupt stops a bulk operation from sending more requests and stays set")
+    @Severity(SeverityLevel.NORMAL)
+    public void testBulkOperationStopsWhenInterrupted() {
+        if (!config.isLocalStub()) {
+            throw new SkipException("Bulk operations only run against the local stub");
+        }
+        System.out.println("🧪 TEST: Bulk Operation Stops When Interrupted");
+
+        // One slot, so the second item has to wait and sees the interrupt
+        BulkUserService bulkService = new BulkUserService(new AsyncUserService(config), 1,
+            config.getBulkLatencyThresholdMillis());
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= 10; id++) {
+            ids.add(id);
+        }
+        Thread.currentThread().interrupt();
+        BulkResult<Integer> result = bulkService.getUsersByIds(ids);
+        Assert.assertTrue(Thread.interrupted(), "The interrupt should still be set after the call");
+
+        Assert.assertEquals(result.getTotal(), ids.size(), "Every input should still have a result");
+        Assert.assertEquals(result.getSucceeded(), 1, "Only the request sent before waiting should have run");
+        for (BulkResult.Item<Integer> item : result.getFailures()) {
+            Assert.assertTrue(item.getError() instanceof InterruptedException, "Unexpected failure: " + item.getError());
+        }
+
+        System.out.println("✅ " + result);
+        System.out.println("✅ Test passed: Bulk Operation Stops When Interrupted\n");
+    }
+
     /**
-     * Data Provider for user creation tests
+     * Data Provider for user creation tests, served from the pre-generated pool
      */
     @DataProvider(name = "userData")
     public Object[][] getUserTestData() {
-        return new Object[][]{
-            {faker.name().fullName(), faker.name().username(), faker.internet().emailAddress()},
-            {faker.name().fullName(), faker.name().username(), faker.internet().emailAddress()},
-            {faker.name().fullName(), faker.name().username(), faker.internet().emailAddress()}
-        };
+        return testData.rows(config.getTestDataUsers());
     }
 
     @AfterClass